@@ -1,9 +1,16 @@
 package org.example;
 
+import org.example.batch.ProcesadorComandos;
 import org.example.model.*;
+import org.example.persistence.SnapshotFeria;
 import org.example.service.FeriaEmpresarial;
 import org.example.utils.InputUtils;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -14,37 +21,110 @@ public class Main {
 
     /**
      * Arranca la aplicación y gestiona el bucle del menú por consola.
-     * @param args argumentos de línea de comandos (no utilizados)
+     * Con {@code --lote [archivo] [--silencioso]} ejecuta comandos por lotes (desde el archivo o stdin) sin menú.
+     * Con {@code --entrenar-cds} recorre el menú con un guion fijo sobre una feria descartable y termina; sirve para
+     * generar un archivo AppCDS ({@code -XX:ArchiveClassesAtExit}, perfil {@code cds} de Maven) con las clases
+     * que usa una sesión típica, y arrancar luego con {@code -XX:SharedArchiveFile}.
+     * @param args argumentos de línea de comandos (opcionales, ver modo lote)
      */
     public static void main(String[] args) {
         FeriaEmpresarial feria = new FeriaEmpresarial();
+        if (args.length > 0 && args[0].equals("--lote")) {
+            if (!ejecutarLote(args, feria)) System.exit(1);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--entrenar-cds")) {
+            entrenarCds(feria);
+            return;
+        }
         try (Scanner sc = new Scanner(System.in)) {
-            while (true) {
-                mostrarMenu();
-                String op = sc.nextLine().trim();
-                switch (op) {
-                    case "1" -> registrarEmpresa(sc, feria);
-                    case "2" -> listarEmpresas(feria);
-                    case "3" -> crearStand(sc, feria);
-                    case "4" -> listarStands(feria);
-                    case "5" -> asignarStand(sc, feria);
-                    case "6" -> desasignarStand(sc, feria);
-                    case "7" -> registrarVisitante(sc, feria);
-                    case "8" -> listarVisitantes(feria);
-                    case "9" -> registrarComentario(sc, feria);
-                    case "10" -> verComentariosYPromedio(sc, feria);
-                    case "11" -> editarVisitante(sc, feria);
-                    case "12" -> eliminarVisitante(sc, feria);
-                    case "13" -> System.out.println("\n" + feria.reporteEmpresasYStands());
-                    case "14" -> System.out.println("\n" + feria.reporteVisitantesYStandsVisitados());
-                    case "15" -> System.out.println("\n" + feria.reportePromedioPorStand());
-                    case "0" -> { System.out.println("Saliendo..."); return; }
-                    default -> System.out.println("Opción inválida. Usa 0-10.");
+            ejecutarMenu(sc, feria);
+        }
+    }
+
+    /**
+     * Bucle del menú: muestra opciones y ejecuta la elegida hasta que se elige salir.
+     * @param sc scanner de entrada por consola; feria servicio de negocio sobre el que se opera
+     */
+    private static void ejecutarMenu(Scanner sc, FeriaEmpresarial feria) {
+        while (true) {
+            mostrarMenu();
+            String op = sc.nextLine().trim();
+            switch (op) {
+                case "1" -> registrarEmpresa(sc, feria);
+                case "2" -> listarEmpresas(feria);
+                case "3" -> crearStand(sc, feria);
+                case "4" -> listarStands(feria);
+                case "5" -> asignarStand(sc, feria);
+                case "6" -> desasignarStand(sc, feria);
+                case "7" -> registrarVisitante(sc, feria);
+                case "8" -> listarVisitantes(feria);
+                case "9" -> registrarComentario(sc, feria);
+                case "10" -> verComentariosYPromedio(sc, feria);
+                case "11" -> editarVisitante(sc, feria);
+                case "12" -> eliminarVisitante(sc, feria);
+                case "13" -> System.out.println("\n" + feria.reporteEmpresasYStands());
+                case "14" -> {
+                    System.out.println();
+                    feria.lineasReporteVisitantesYStandsVisitados().forEach(System.out::println);
+                    System.out.println();
                 }
+                case "15" -> System.out.println("\n" + feria.reportePromedioPorStand());
+                case "16" -> guardarSnapshot(sc, feria);
+                case "17" -> cargarSnapshot(sc, feria);
+                case "0" -> { System.out.println("Saliendo..."); return; }
+                default -> System.out.println("Opción inválida. Usa 0-10.");
             }
         }
     }
 
+    /**
+     * Ejecuta un guion fijo por el menú (registros, listados y los tres reportes) sin mostrar la salida, para que
+     * la JVM cargue las clases de una sesión típica antes de volcarlas al archivo CDS.
+     * @param feria feria descartable sobre la que se ejecuta el guion
+     */
+    private static void entrenarCds(FeriaEmpresarial feria) {
+        String guion = String.join("\n",
+                "1", "Acme", "Tecnología", "contacto@acme.co",
+                "3", "S1", "Pabellón A, Stand 1", "2",
+                "3", "S2", "Pabellón A, Stand 2", "1",
+                "5", "S1", "Acme",
+                "7", "V1", "Ana Pérez", "ana@correo.co",
+                "9", "V1", "S1", "5", "Muy buena atención",
+                "2", "4", "8", "10", "S1", "11", "V1", "Ana P.", "ana.p@correo.co",
+                "13", "14", "15", "6", "S1", "12", "V1", "0") + "\n";
+        PrintStream consola = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8));
+        try (Scanner sc = new Scanner(guion)) {
+            ejecutarMenu(sc, feria);
+        } finally {
+            System.setOut(consola);
+        }
+        System.out.println("Entrenamiento CDS completado.");
+    }
+
+    /**
+     * Ejecuta el modo lote: lee comandos del archivo indicado (o de stdin) con E/S buffered y muestra un resumen.
+     * @param args argumentos ({@code --lote [archivo] [--silencioso]}); feria servicio de negocio sobre el que se ejecutan
+     * @return true si todas las líneas se ejecutaron sin errores
+     */
+    private static boolean ejecutarLote(String[] args, FeriaEmpresarial feria) {
+        boolean silencioso = Arrays.asList(args).contains("--silencioso");
+        String archivo = args.length > 1 && !args[1].startsWith("--") ? args[1] : null;
+        Writer salida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (BufferedReader entrada = archivo == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(archivo), StandardCharsets.UTF_8)) {
+            var resumen = new ProcesadorComandos(feria, salida, silencioso).procesar(entrada);
+            System.err.printf("Lote: %d operaciones, %d errores, %.0f ms (%.0f ops/s)%n", resumen.operaciones(),
+                    resumen.errores(), resumen.nanos() / 1e6, resumen.operacionesPorSegundo());
+            return resumen.errores() == 0;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Imprime el menú principal en consola.
      */
@@ -65,6 +145,8 @@ public class Main {
         System.out.println("13) Reporte: Empresas y Stands");
         System.out.println("14) Reporte: Visitantes y Stands visitados");
         System.out.println("15) Reporte: Promedio de calificación por Stand");
+        System.out.println("16) Guardar snapshot a archivo");
+        System.out.println("17) Cargar snapshot desde archivo");
         System.out.println("0) Salir");
         System.out.print("Elige opción: ");
     }
@@ -295,4 +377,32 @@ public class Main {
             System.out.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Guarda el estado completo de la feria en un archivo de snapshot binario.
+     * @param sc scanner de entrada por consola; feria servicio de negocio cuyo estado se guarda
+     */
+    private static void guardarSnapshot(Scanner sc, FeriaEmpresarial feria) {
+        String ruta = InputUtils.leerNoVacio(sc, "Ruta del snapshot: ");
+        try {
+            SnapshotFeria.guardar(feria, Path.of(ruta));
+            System.out.println("Snapshot guardado.");
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carga un snapshot binario y reemplaza con él el estado actual de la feria.
+     * @param sc scanner de entrada por consola; feria servicio de negocio cuyo estado se reemplaza
+     */
+    private static void cargarSnapshot(Scanner sc, FeriaEmpresarial feria) {
+        String ruta = InputUtils.leerNoVacio(sc, "Ruta del snapshot: ");
+        try {
+            SnapshotFeria.cargar(Path.of(ruta), feria);
+            System.out.println("Snapshot cargado.");
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,202 @@
+package org.example.batch;
+
+import org.example.export.ExportadorFeria;
+import org.example.model.*;
+import org.example.persistence.SnapshotFeria;
+import org.example.service.FeriaEmpresarial;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Ejecuta comandos de texto (uno por línea) contra una {@link FeriaEmpresarial}, sin prompts interactivos.
+ * <p>
+ * Cada línea es {@code operacion|campo1|campo2|...}; las líneas vacías o que empiezan con {@code #} se ignoran.
+ * Operaciones: registrarEmpresa|nombre|sector|correo, editarEmpresa|nombre|sector|correo, eliminarEmpresa|nombre,
+ * crearStand|numero|ubicacion|TAMANO, asignarStand|numero|empresa, desasignarStand|numero,
+ * registrarVisitante|id|nombre|correo, editarVisitante|id|nombre|correo, eliminarVisitante|id,
+ * registrarComentario|id|stand|calificacion|texto, comentarios|stand, listarEmpresas, listarStands,
+ * listarVisitantes, reporteEmpresas, reporteVisitantes, reportePromedios, guardarSnapshot|ruta, cargarSnapshot|ruta,
+ * exportar|TABLA|FORMATO|ruta (ver {@link ExportadorFeria.Tabla} y {@link ExportadorFeria.Formato}),
+ * recomendar|id|cantidad[|sector], purgarComentarios|desde|hasta[|stand,stand...] (fechas AAAA-MM-DD, vacías sin
+ * límite; ambas vacías purgan todos los comentarios de los stands), purgarRetencion|fecha (comentarios anteriores
+ * a la fecha y visitantes que quedan sin comentarios), eliminarVisitantes|id,id,...
+ */
+public class ProcesadorComandos {
+
+    /**
+     * Resultado de procesar un flujo de comandos.
+     * @param operaciones comandos ejecutados (sin contar líneas ignoradas); errores comandos que fallaron; nanos tiempo total
+     */
+    public record Resumen(long operaciones, long errores, long nanos) {
+        /**
+         * Operaciones por segundo del procesamiento.
+         * @return tasa de operaciones por segundo
+         */
+        public double operacionesPorSegundo() { return nanos == 0 ? 0 : operaciones * 1e9 / nanos; }
+    }
+
+    private final FeriaEmpresarial feria;
+    private final Writer salida;
+    private final boolean silencioso;
+    private final List<String> campos = new ArrayList<>(6);
+    private ExportadorFeria exportador;
+
+    /**
+     * Crea un procesador.
+     * @param feria feria sobre la que se ejecutan los comandos; salida destino de resultados y errores (conviene que sea buffered); silencioso true para no escribir resultados ni errores por línea
+     */
+    public ProcesadorComandos(FeriaEmpresarial feria, Writer salida, boolean silencioso) {
+        this.feria = feria;
+        this.salida = salida;
+        this.silencioso = silencioso;
+    }
+
+    /**
+     * Procesa todas las líneas del lector hasta el final del flujo.
+     * @param entrada lector de comandos (conviene que sea buffered)
+     * @return resumen con operaciones, errores y tiempo
+     * @throws IOException si falla la lectura de comandos o la escritura en la salida
+     */
+    public Resumen procesar(BufferedReader entrada) throws IOException {
+        long inicio = System.nanoTime();
+        long operaciones = 0;
+        long errores = 0;
+        long numeroLinea = 0;
+        String linea;
+        while ((linea = entrada.readLine()) != null) {
+            numeroLinea++;
+            if (linea.isBlank() || linea.charAt(0) == '#') continue;
+            operaciones++;
+            try {
+                ejecutar(linea);
+            } catch (RuntimeException | IOException e) {
+                // un snapshot o exportación que falla es un error de esa línea, como cualquier otro
+                errores++;
+                if (!silencioso) salida.append("Error línea ").append(Long.toString(numeroLinea)).append(": ")
+                        .append(e instanceof IOException ? "E/S (" + e.getClass().getSimpleName() + ") " : "")
+                        .append(e.getMessage()).append('\n');
+            }
+        }
+        salida.flush();
+        return new Resumen(operaciones, errores, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Ejecuta un único comando.
+     * @param linea comando en formato {@code operacion|campo|...}
+     * @throws IOException si falla la escritura de resultados o un snapshot
+     * @throws IllegalArgumentException si la operación no existe o faltan campos
+     */
+    public void ejecutar(String linea) throws IOException {
+        dividir(linea);
+        String op = campos.get(0);
+        switch (op) {
+            case "registrarEmpresa" -> feria.registrarEmpresa(new Empresa(campo(1), campo(2), campo(3)));
+            case "editarEmpresa" -> feria.editarEmpresa(campo(1), campo(2), campo(3));
+            case "eliminarEmpresa" -> feria.eliminarEmpresa(campo(1));
+            case "crearStand" -> feria.crearStand(campo(1), campo(2), StandSize.valueOf(campo(3).toUpperCase()));
+            case "asignarStand" -> feria.asignarStandAEmpresa(campo(1), campo(2));
+            case "desasignarStand" -> feria.desasignarStand(campo(1));
+            case "registrarVisitante" -> feria.registrarVisitante(new Visitante(campo(1), campo(2), campo(3)));
+            case "editarVisitante" -> feria.editarVisitante(campo(1), campo(2), campo(3));
+            case "eliminarVisitante" -> feria.eliminarVisitante(campo(1));
+            case "registrarComentario" -> feria.registrarComentario(campo(1), campo(2), entero(campo(3)), campo(4));
+            case "comentarios" -> escribirTodos(feria.listarComentariosDeStand(campo(1)));
+            case "listarEmpresas" -> escribirTodos(feria.listarEmpresas());
+            case "listarStands" -> escribirTodos(feria.listarStands());
+            case "listarVisitantes" -> escribirTodos(feria.listarVisitantes());
+            case "reporteEmpresas" -> escribir(feria.reporteEmpresasYStands());
+            case "reporteVisitantes" -> escribirLineas(feria.lineasReporteVisitantesYStandsVisitados().iterator());
+            case "reportePromedios" -> escribir(feria.reportePromedioPorStand());
+            case "guardarSnapshot" -> SnapshotFeria.guardar(feria, Path.of(campo(1)));
+            case "cargarSnapshot" -> SnapshotFeria.cargar(Path.of(campo(1)), feria);
+            case "recomendar" -> escribirTodos(feria.recomendarStands(campo(1), entero(campo(2)),
+                    campos.size() > 3 ? campo(3) : null));
+            case "purgarComentarios" -> escribir(feria.purgarComentarios(filtroFechas(campo(1), campo(2)),
+                    campos.size() > 3 ? lista(campo(3)) : null, false).toString());
+            case "purgarRetencion" -> escribir(feria.purgarComentarios(
+                    FiltroComentarios.anterioresA(fecha(campo(1))), null, true).toString());
+            case "eliminarVisitantes" -> escribir(feria.eliminarVisitantes(lista(campo(1))).toString());
+            case "exportar" -> exportador().exportar(feria.instantanea(),
+                    ExportadorFeria.Tabla.valueOf(campo(1).toUpperCase()),
+                    ExportadorFeria.Formato.valueOf(campo(2).toUpperCase()), Path.of(campo(3)));
+            default -> throw new IllegalArgumentException("Operación desconocida: " + op);
+        }
+    }
+
+    /**
+     * Divide la línea por '|' sin expresiones regulares, reutilizando la lista de campos.
+     * @param linea línea a dividir
+     */
+    private void dividir(String linea) {
+        campos.clear();
+        int desde = 0;
+        int sep;
+        while ((sep = linea.indexOf('|', desde)) >= 0) {
+            campos.add(linea.substring(desde, sep).trim());
+            desde = sep + 1;
+        }
+        campos.add(linea.substring(desde).trim());
+    }
+
+    private ExportadorFeria exportador() {
+        if (exportador == null) exportador = new ExportadorFeria();
+        return exportador;
+    }
+
+    private String campo(int i) {
+        if (i >= campos.size()) throw new IllegalArgumentException("Faltan campos para " + campos.get(0));
+        return campos.get(i);
+    }
+
+    private static int entero(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido: " + s);
+        }
+    }
+
+    private static FiltroComentarios filtroFechas(String desde, String hasta) {
+        if (desde.isEmpty() && hasta.isEmpty()) return FiltroComentarios.todos();
+        return FiltroComentarios.entreFechas(fecha(desde), fecha(hasta));
+    }
+
+    private static LocalDate fecha(String s) {
+        if (s.isEmpty()) return null;
+        try {
+            return LocalDate.parse(s);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida (AAAA-MM-DD): " + s);
+        }
+    }
+
+    private static List<String> lista(String s) {
+        List<String> elementos = new ArrayList<>();
+        for (String e : s.split(",")) if (!e.isBlank()) elementos.add(e.trim());
+        return elementos;
+    }
+
+    private void escribir(String texto) throws IOException {
+        if (!silencioso) salida.append(texto).append('\n');
+    }
+
+    private void escribirLineas(Iterator<String> lineas) throws IOException {
+        if (silencioso) return;
+        while (lineas.hasNext()) salida.append(lineas.next()).append('\n');
+        salida.append('\n');
+    }
+
+    private void escribirTodos(List<?> elementos) throws IOException {
+        if (silencioso) return;
+        for (Object o : elementos) salida.append(String.valueOf(o)).append('\n');
+    }
+}
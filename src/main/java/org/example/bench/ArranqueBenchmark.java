@@ -0,0 +1,103 @@
+package org.example.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmark manual de arranque de la consola: lanza {@code Main} como proceso hijo varias veces y mide el tiempo
+ * hasta que aparece el primer "Elige opción" y la memoria residente (VmRSS, solo Linux) en ese momento.
+ * Si existe el archivo CDS indicado (ver perfil {@code cds} del pom) repite la medición con {@code -XX:SharedArchiveFile}.
+ * Uso: {@code java -cp target/Feria-Empresaria-1.0-SNAPSHOT.jar org.example.bench.ArranqueBenchmark [repeticiones] [archivo.jsa]}
+ * (por defecto 10 repeticiones y {@code target/feria.jsa}; se informa la mediana). El proceso hijo usa el mismo
+ * classpath, que debe ser el jar con el que se generó el archivo CDS.
+ */
+public class ArranqueBenchmark {
+    // Solo la parte ASCII del prompt: la consola escribe con la codificación nativa del sistema
+    private static final byte[] PROMPT = "Elige opci".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Mide el arranque sin y con archivo CDS e imprime la mediana de tiempo y memoria.
+     * @param args repeticiones y ruta del archivo CDS (opcionales)
+     * @throws IOException si no se puede lanzar el proceso hijo
+     * @throws InterruptedException si se interrumpe la espera del proceso hijo
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int repeticiones = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path archivoCds = Path.of(args.length > 1 ? args[1] : "target/feria.jsa");
+
+        medir("por defecto", List.of(), repeticiones);
+        if (Files.exists(archivoCds)) {
+            medir("AppCDS", List.of("-XX:SharedArchiveFile=" + archivoCds, "-Xshare:auto"), repeticiones);
+        } else {
+            System.out.println("(sin " + archivoCds + "; generarlo con mvn -Pcds package)");
+        }
+    }
+
+    /**
+     * Lanza la consola las veces indicadas con las opciones de JVM dadas.
+     * @param nombre etiqueta; opciones opciones extra de la JVM; repeticiones número de arranques
+     */
+    private static void medir(String nombre, List<String> opciones, int repeticiones)
+            throws IOException, InterruptedException {
+        long[] nanos = new long[repeticiones];
+        long[] rssKb = new long[repeticiones];
+        for (int i = 0; i < repeticiones; i++) {
+            List<String> comando = new ArrayList<>();
+            comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            comando.addAll(opciones);
+            comando.addAll(List.of("-cp", System.getProperty("java.class.path"), "org.example.Main"));
+
+            long t0 = System.nanoTime();
+            Process p = new ProcessBuilder(comando).redirectErrorStream(true).start();
+            esperarPrompt(p.getInputStream());
+            nanos[i] = System.nanoTime() - t0;
+            rssKb[i] = rssKb(p.pid());
+            try (OutputStream entrada = p.getOutputStream()) {
+                entrada.write("0\n".getBytes(StandardCharsets.UTF_8));
+            }
+            p.getInputStream().transferTo(OutputStream.nullOutputStream());
+            p.waitFor();
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(rssKb);
+        System.out.printf("%-12s primer prompt %,7.1f ms | RSS %,8d KB (mediana de %d)%n",
+                nombre, nanos[repeticiones / 2] / 1e6, rssKb[repeticiones / 2], repeticiones);
+    }
+
+    /**
+     * Consume la salida del proceso hasta ver el prompt del menú.
+     */
+    private static void esperarPrompt(InputStream salida) throws IOException {
+        int coincidencia = 0;
+        int b;
+        while ((b = salida.read()) != -1) {
+            if (b == (PROMPT[coincidencia] & 0xFF)) {
+                if (++coincidencia == PROMPT.length) return;
+            } else {
+                coincidencia = b == (PROMPT[0] & 0xFF) ? 1 : 0;
+            }
+        }
+        throw new IOException("El proceso terminó sin mostrar el menú");
+    }
+
+    /**
+     * Memoria residente del proceso según /proc (0 si no está disponible).
+     */
+    private static long rssKb(long pid) {
+        try {
+            for (String linea : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (linea.startsWith("VmRSS:")) return Long.parseLong(linea.replaceAll("\\D", ""));
+            }
+        } catch (IOException | NumberFormatException e) {
+            // otro sistema operativo: sin dato de memoria
+        }
+        return 0;
+    }
+}
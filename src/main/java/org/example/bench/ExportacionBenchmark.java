@@ -0,0 +1,105 @@
+package org.example.bench;
+
+import org.example.export.ExportadorFeria;
+import org.example.export.ExportadorFeria.Formato;
+import org.example.export.ExportadorFeria.Tabla;
+import org.example.model.Comentario;
+import org.example.model.Stand;
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.example.service.FeriaEmpresarial;
+import org.example.service.InstantaneaFeria;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Benchmark manual de exportación: filas por segundo al exportar comentarios y visitantes en CSV y JSON Lines,
+ * comparado con armar cada fila como String ({@code String.format}) y escribirla con un {@link BufferedWriter}.
+ * Uso: {@code java -cp target/classes org.example.bench.ExportacionBenchmark [visitantes] [comentarios] [repeticiones]}
+ * (por defecto 50.000 visitantes, 500.000 comentarios y 5 repeticiones; se informa la mejor).
+ */
+public class ExportacionBenchmark {
+
+    /**
+     * Prepara una feria, exporta varias veces cada tabla e imprime filas/s y MB/s.
+     * @param args visitantes, comentarios y repeticiones (opcionales)
+     * @throws IOException si falla la escritura de los archivos temporales
+     */
+    public static void main(String[] args) throws IOException {
+        int visitantes = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int comentarios = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int repeticiones = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        InstantaneaFeria inst = preparar(visitantes, comentarios).instantanea();
+        Path archivo = Files.createTempFile("feria-export", ".tmp");
+        try {
+            ExportadorFeria exportador = new ExportadorFeria();
+            for (Tabla tabla : new Tabla[]{Tabla.COMENTARIOS, Tabla.VISITANTES, Tabla.VISITANTES_Y_STANDS}) {
+                for (Formato formato : Formato.values()) {
+                    long mejor = Long.MAX_VALUE;
+                    long filas = 0;
+                    for (int i = 0; i < repeticiones; i++) {
+                        long t0 = System.nanoTime();
+                        filas = exportador.exportar(inst, tabla, formato, archivo);
+                        mejor = Math.min(mejor, System.nanoTime() - t0);
+                    }
+                    imprimir(tabla + " " + formato, filas, mejor, Files.size(archivo));
+                }
+            }
+            long mejor = Long.MAX_VALUE;
+            long filas = 0;
+            for (int i = 0; i < repeticiones; i++) {
+                long t0 = System.nanoTime();
+                filas = csvConStrings(inst, archivo);
+                mejor = Math.min(mejor, System.nanoTime() - t0);
+            }
+            imprimir("COMENTARIOS CSV (String.format)", filas, mejor, Files.size(archivo));
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private static void imprimir(String nombre, long filas, long nanos, long bytes) {
+        System.out.printf("%-32s %,10d filas | %,12.0f filas/s | %,7.1f MB/s%n",
+                nombre, filas, filas * 1e9 / nanos, bytes / 1e6 * 1e9 / nanos);
+    }
+
+    /**
+     * Línea base: una cadena por fila con {@code String.format} (sin escapar campos).
+     */
+    private static long csvConStrings(InstantaneaFeria inst, Path archivo) throws IOException {
+        long filas = 0;
+        try (BufferedWriter w = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            w.write("stand,visitante,fecha,calificacion,texto\r\n");
+            for (Stand s : inst.listarStands()) {
+                for (Comentario c : s.getComentarios()) {
+                    w.write(String.format("%s,%s,%s,%d,%s\r\n", s.getNumero(), c.visitanteId(), c.fecha(),
+                            c.calificacion(), c.texto()));
+                    filas++;
+                }
+            }
+        }
+        return filas;
+    }
+
+    private static FeriaEmpresarial preparar(int visitantes, int comentarios) {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        for (int i = 0; i < 200; i++) {
+            feria.crearStand("S" + i, "Pabellón " + (char) ('A' + i % 5) + ", Stand " + i, StandSize.MEDIANO);
+        }
+        for (int i = 0; i < visitantes; i++) {
+            feria.registrarVisitante(new Visitante("V" + i, "Visitante Número " + i, "v" + i + "@correo.co"));
+        }
+        Random rnd = new Random(7);
+        for (int i = 0; i < comentarios; i++) {
+            feria.registrarComentario("V" + rnd.nextInt(visitantes), "S" + rnd.nextInt(200),
+                    1 + rnd.nextInt(5), "Comentario " + i + ", buena atención");
+        }
+        return feria;
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generador de carga sintética y reproducible (con semilla) en el formato de comandos del modo lote.
+ * <p>
+ * Incluye: popularidad de stands con distribución Zipf, ráfagas de comentarios sobre un mismo stand,
+ * rotación de visitantes (altas y bajas con eliminarVisitante) y reasignaciones de stands entre empresas.
+ * Primero emite la preparación (stands, empresas, asignaciones y visitantes iniciales) y luego la mezcla.
+ */
+public class GeneradorCarga {
+    private static final String[] TAMANOS = {"PEQUENO", "MEDIANO", "GRANDE"};
+    private static final String[] SECTORES = {"Tecnología", "Alimentos", "Salud", "Educación", "Finanzas"};
+    private static final String[] TEXTOS = {"Excelente atención", "Buena demo", "Regular", "Muy interesante",
+            "Volveré", "Faltó información", "Gran producto"};
+
+    private final Random rnd;
+    private final int stands;
+    private final double[] cdfZipf;
+
+    /**
+     * Carga generada: comandos de preparación (no se miden) y mezcla de operaciones a reproducir.
+     * @param preparacion stands, empresas, asignaciones y visitantes iniciales; mezcla operaciones de la carga
+     */
+    public record Carga(List<String> preparacion, List<String> mezcla) { }
+
+    /**
+     * Crea un generador.
+     * @param semilla semilla del generador aleatorio; stands cantidad de stands; exponenteZipf sesgo de popularidad (≈1 es realista; 0 es uniforme)
+     * @throws IllegalArgumentException si stands no es positivo o el exponente es negativo
+     */
+    public GeneradorCarga(long semilla, int stands, double exponenteZipf) {
+        if (stands < 1) throw new IllegalArgumentException("Debe haber al menos un stand");
+        if (exponenteZipf < 0) throw new IllegalArgumentException("El exponente no puede ser negativo");
+        this.rnd = new Random(semilla);
+        this.stands = stands;
+        this.cdfZipf = new double[stands];
+        double suma = 0;
+        for (int k = 0; k < stands; k++) {
+            suma += 1.0 / Math.pow(k + 1, exponenteZipf);
+            cdfZipf[k] = suma;
+        }
+        for (int k = 0; k < stands; k++) cdfZipf[k] /= suma;
+    }
+
+    /**
+     * Elige un stand según la distribución Zipf (el rango 0 es el más popular).
+     * @return índice de stand
+     */
+    int standZipf() {
+        int i = Arrays.binarySearch(cdfZipf, rnd.nextDouble());
+        return Math.min(i >= 0 ? i : -i - 1, stands - 1);
+    }
+
+    /**
+     * Genera la carga completa.
+     * @param visitantesIniciales visitantes registrados en la preparación; operaciones cantidad de operaciones de la mezcla
+     * @return comandos de preparación y de mezcla en formato del modo lote
+     */
+    public Carga generar(int visitantesIniciales, int operaciones) {
+        int empresas = Math.max(1, stands * 3 / 4);
+        List<String> cmds = new ArrayList<>(stands * 3 + visitantesIniciales);
+        for (int i = 0; i < stands; i++) {
+            cmds.add("crearStand|S" + i + "|Pabellón " + (char) ('A' + i % 8) + ", Stand " + i + "|" + TAMANOS[i % 3]);
+        }
+        int[] empresaDeStand = new int[stands];
+        Arrays.fill(empresaDeStand, -1);
+        for (int i = 0; i < empresas; i++) {
+            cmds.add("registrarEmpresa|E" + i + "|" + SECTORES[i % SECTORES.length] + "|e" + i + "@feria.co");
+            cmds.add("asignarStand|S" + i + "|E" + i);
+            empresaDeStand[i] = i;
+        }
+        // Visitantes activos: ids en un arreglo con borrado por intercambio (O(1))
+        int[] activos = new int[visitantesIniciales + operaciones];
+        int totalActivos = 0;
+        int siguienteId = 0;
+        for (; siguienteId < visitantesIniciales; siguienteId++) {
+            cmds.add(registrarVisitante(siguienteId));
+            activos[totalActivos++] = siguienteId;
+        }
+        List<String> preparacion = cmds;
+        cmds = new ArrayList<>(operaciones + 64);
+
+        int generadas = 0;
+        while (generadas < operaciones) {
+            double r = rnd.nextDouble();
+            if (r < 0.08 || totalActivos == 0) {
+                cmds.add(registrarVisitante(siguienteId));
+                activos[totalActivos++] = siguienteId++;
+                generadas++;
+            } else if (r < 0.09) {
+                int pos = rnd.nextInt(totalActivos);
+                cmds.add("eliminarVisitante|V" + activos[pos]);
+                activos[pos] = activos[--totalActivos];
+                generadas++;
+            } else if (r < 0.105) {
+                int s = standZipf();
+                if (empresaDeStand[s] >= 0) {
+                    cmds.add("desasignarStand|S" + s);
+                    generadas++;
+                }
+                int e = rnd.nextInt(empresas);
+                cmds.add("asignarStand|S" + s + "|E" + e);
+                empresaDeStand[s] = e;
+                generadas++;
+            } else if (r < 0.13) {
+                // Ráfaga: varios visitantes comentan el mismo stand seguidos
+                int s = standZipf();
+                int rafaga = 5 + rnd.nextInt(45);
+                for (int k = 0; k < rafaga && generadas < operaciones; k++, generadas++) {
+                    cmds.add(comentario(activos[rnd.nextInt(totalActivos)], s));
+                }
+            } else {
+                cmds.add(comentario(activos[rnd.nextInt(totalActivos)], standZipf()));
+                generadas++;
+            }
+        }
+        return new Carga(preparacion, cmds);
+    }
+
+    private static String registrarVisitante(int id) {
+        return "registrarVisitante|V" + id + "|Visitante " + id + "|v" + id + "@correo.co";
+    }
+
+    private String comentario(int visitante, int stand) {
+        return "registrarComentario|V" + visitante + "|S" + stand + "|" + (1 + rnd.nextInt(5)) + "|"
+                + TEXTOS[rnd.nextInt(TEXTOS.length)];
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.bench;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales (16 subcubetas por potencia de 2),
+ * con error relativo acotado (~6%) y memoria fija. No es seguro entre hilos: se usa uno por hilo y se combinan.
+ */
+public class HistogramaLatencias {
+    private static final int SUB = 16;
+    private final long[] cubetas = new long[64 * SUB];
+    private long total;
+    private long maximo;
+
+    /**
+     * Registra una latencia.
+     * @param nanos latencia en nanosegundos (los negativos se cuentan como 0)
+     */
+    public void registrar(long nanos) {
+        long v = Math.max(0, nanos);
+        cubetas[indice(v)]++;
+        total++;
+        if (v > maximo) maximo = v;
+    }
+
+    private static int indice(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - 4)) & (SUB - 1);
+        return (exp - 3) * SUB + sub;
+    }
+
+    private static long valorSuperior(int i) {
+        if (i < SUB) return i;
+        int exp = i / SUB + 3;
+        int sub = i % SUB;
+        return ((long) (SUB + sub + 1) << (exp - 4)) - 1;
+    }
+
+    /**
+     * Suma en este histograma los conteos de otro.
+     * @param otro histograma a combinar
+     */
+    public void combinar(HistogramaLatencias otro) {
+        for (int i = 0; i < cubetas.length; i++) cubetas[i] += otro.cubetas[i];
+        total += otro.total;
+        maximo = Math.max(maximo, otro.maximo);
+    }
+
+    /**
+     * Devuelve el percentil indicado (cota superior de su cubeta).
+     * @param p percentil entre 0 y 100
+     * @return latencia en nanosegundos (0 si no hay registros)
+     */
+    public long percentil(double p) {
+        if (total == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(total * p / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            acumulado += cubetas[i];
+            if (acumulado >= objetivo) return Math.min(valorSuperior(i), maximo);
+        }
+        return maximo;
+    }
+
+    /**
+     * Cantidad de latencias registradas.
+     * @return total de registros
+     */
+    public long total() { return total; }
+
+    /**
+     * Latencia máxima registrada.
+     * @return máximo en nanosegundos
+     */
+    public long maximo() { return maximo; }
+}
@@ -0,0 +1,119 @@
+package org.example.bench;
+
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.example.service.FeriaEmpresarial;
+import org.example.service.InstantaneaFeria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Benchmark manual del rendimiento de un escritor (registro de comentarios) mientras otros hilos generan
+ * reportes sin parar. Compara tres modos: sin lectores, lectores y escritor con un candado global sobre la
+ * feria, y lectores sobre instantáneas inmutables.
+ * Uso: {@code java -cp target/classes org.example.bench.InstantaneasBenchmark [lectores] [segundos] [visitantes] [comentarios]}
+ * (por defecto 2 lectores, 5 segundos por modo, 20.000 visitantes y 100.000 comentarios iniciales).
+ */
+public class InstantaneasBenchmark {
+    private static final int STANDS = 200;
+
+    /**
+     * Ejecuta los tres modos e imprime operaciones de escritura por segundo y reportes generados.
+     * @param args lectores, segundos por modo, visitantes y comentarios iniciales (opcionales)
+     * @throws InterruptedException si se interrumpe la espera de los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int lectores = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int visitantes = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int comentarios = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+
+        ejecutar("sin lectores", 0, false, segundos, visitantes, comentarios);
+        ejecutar("candado global", lectores, false, segundos, visitantes, comentarios);
+        ejecutar("instantaneas", lectores, true, segundos, visitantes, comentarios);
+    }
+
+    /**
+     * Prepara una feria, lanza los lectores y mide al escritor durante el tiempo indicado.
+     * @param nombre etiqueta del modo; lectores hilos lectores; instantaneas true para leer sobre instantáneas, false para compartir un candado con el escritor; segundos duración; visitantes y comentarios tamaño inicial
+     */
+    private static void ejecutar(String nombre, int lectores, boolean instantaneas, int segundos, int visitantes,
+                                 int comentarios) throws InterruptedException {
+        FeriaEmpresarial feria = preparar(visitantes, comentarios);
+        ReentrantLock global = new ReentrantLock();
+        AtomicBoolean activo = new AtomicBoolean(true);
+        AtomicLong reportes = new AtomicLong();
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < lectores; i++) {
+            Thread t = new Thread(() -> {
+                while (activo.get()) {
+                    if (instantaneas) {
+                        InstantaneaFeria inst = feria.instantanea();
+                        inst.reporteEmpresasYStands();
+                        inst.reporteVisitantesYStandsVisitados();
+                        inst.reportePromedioPorStand();
+                    } else {
+                        global.lock();
+                        try {
+                            feria.reporteEmpresasYStands();
+                            feria.reporteVisitantesYStandsVisitados();
+                            feria.reportePromedioPorStand();
+                        } finally {
+                            global.unlock();
+                        }
+                    }
+                    reportes.addAndGet(3);
+                }
+            }, "lector-" + i);
+            hilos.add(t);
+            t.start();
+        }
+
+        Random rnd = new Random(11);
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        long escrituras = 0;
+        long inicio = System.nanoTime();
+        while (System.nanoTime() < fin) {
+            String visitante = "V" + rnd.nextInt(visitantes);
+            String stand = "S" + rnd.nextInt(STANDS);
+            if (instantaneas || lectores == 0) {
+                feria.registrarComentario(visitante, stand, 1 + rnd.nextInt(5), "Comentario");
+            } else {
+                global.lock();
+                try {
+                    feria.registrarComentario(visitante, stand, 1 + rnd.nextInt(5), "Comentario");
+                } finally {
+                    global.unlock();
+                }
+            }
+            escrituras++;
+        }
+        long nanos = System.nanoTime() - inicio;
+        activo.set(false);
+        for (Thread t : hilos) t.join();
+        System.out.printf("%-15s escritor %,10.0f ops/s | reportes generados %,8d%n",
+                nombre, escrituras * 1e9 / nanos, reportes.get());
+    }
+
+    private static FeriaEmpresarial preparar(int visitantes, int comentarios) {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        for (int i = 0; i < STANDS; i++) {
+            feria.crearStand("S" + i, "Pabellón " + (char) ('A' + i % 5) + ", Stand " + i, StandSize.MEDIANO);
+        }
+        for (int i = 0; i < visitantes; i++) {
+            feria.registrarVisitante(new Visitante("V" + i, "Visitante " + i, "v" + i + "@correo.co"));
+        }
+        Random rnd = new Random(7);
+        for (int i = 0; i < comentarios; i++) {
+            feria.registrarComentario("V" + rnd.nextInt(visitantes), "S" + rnd.nextInt(STANDS),
+                    1 + rnd.nextInt(5), "Comentario " + i);
+        }
+        return feria;
+    }
+}
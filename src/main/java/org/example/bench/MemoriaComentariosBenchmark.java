@@ -0,0 +1,82 @@
+package org.example.bench;
+
+import org.example.model.Comentario;
+import org.example.model.Stand;
+import org.example.model.StandSize;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark manual del almacenamiento de comentarios: bytes de heap por comentario y tiempo de calcular el
+ * promedio de todos los stands, con las columnas primitivas de {@link Stand} frente a una
+ * {@code List<Comentario>} por stand (el almacenamiento anterior). Los textos salen de un conjunto pequeño
+ * compartido, así que la diferencia es solo la estructura.
+ * Uso: {@code java -cp target/classes org.example.bench.MemoriaComentariosBenchmark [stands] [comentarios] [visitantes]}
+ * (por defecto 500 stands, 5.000.000 comentarios y 300.000 visitantes).
+ */
+public class MemoriaComentariosBenchmark {
+
+    /**
+     * Mide ambos almacenamientos e imprime bytes por comentario y tiempo de recorrido.
+     * @param args stands, comentarios y visitantes (opcionales)
+     */
+    public static void main(String[] args) {
+        int stands = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int comentarios = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int visitantes = args.length > 2 ? Integer.parseInt(args[2]) : 300_000;
+
+        String[] ids = new String[visitantes];
+        for (int i = 0; i < visitantes; i++) ids[i] = "V" + i;
+        String[] textos = new String[64];
+        for (int i = 0; i < textos.length; i++) textos[i] = "Comentario " + i;
+        int hoy = (int) LocalDate.of(2026, 3, 1).toEpochDay();
+
+        // Columnas primitivas (Stand)
+        long antes = heapUsado();
+        List<Stand> columnas = new ArrayList<>(stands);
+        for (int i = 0; i < stands; i++) columnas.add(new Stand("S" + i, "Pabellón A, Stand " + i, StandSize.MEDIANO));
+        Random rnd = new Random(3);
+        for (int i = 0; i < comentarios; i++) {
+            columnas.get(rnd.nextInt(stands)).agregarComentario(new Comentario(ids[rnd.nextInt(visitantes)],
+                    LocalDate.ofEpochDay(hoy + rnd.nextInt(5)), 1 + rnd.nextInt(5), textos[rnd.nextInt(textos.length)]));
+        }
+        long bytesColumnas = heapUsado() - antes;
+
+        // Lista de objetos (almacenamiento anterior)
+        antes = heapUsado();
+        List<List<Comentario>> listas = new ArrayList<>(stands);
+        for (int i = 0; i < stands; i++) listas.add(new ArrayList<>());
+        rnd = new Random(3);
+        for (int i = 0; i < comentarios; i++) {
+            listas.get(rnd.nextInt(stands)).add(new Comentario(ids[rnd.nextInt(visitantes)],
+                    LocalDate.ofEpochDay(hoy + rnd.nextInt(5)), 1 + rnd.nextInt(5), textos[rnd.nextInt(textos.length)]));
+        }
+        long bytesListas = heapUsado() - antes;
+
+        System.out.printf("columnas primitivas  %,6.1f bytes/comentario%n", (double) bytesColumnas / comentarios);
+        System.out.printf("List<Comentario>     %,6.1f bytes/comentario%n", (double) bytesListas / comentarios);
+
+        double suma = 0;
+        long mejorColumnas = Long.MAX_VALUE;
+        long mejorListas = Long.MAX_VALUE;
+        for (int r = 0; r < 5; r++) {
+            long t0 = System.nanoTime();
+            for (Stand s : columnas) suma += s.promedioCalificacion().orElse(0);
+            mejorColumnas = Math.min(mejorColumnas, System.nanoTime() - t0);
+            t0 = System.nanoTime();
+            for (List<Comentario> l : listas) suma += l.stream().mapToInt(Comentario::calificacion).average().orElse(0);
+            mejorListas = Math.min(mejorListas, System.nanoTime() - t0);
+        }
+        System.out.printf("promedio de %d stands: columnas %,.3f ms | lista %,.3f ms (control %.1f)%n",
+                stands, mejorColumnas / 1e6, mejorListas / 1e6, suma);
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.bench;
+
+import org.example.model.*;
+import org.example.service.FeriaEmpresarial;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark manual de purgas: eliminar visitantes uno a uno con {@code eliminarVisitante} frente a
+ * {@code eliminarVisitantes} en bloque, y una purga por ventana de retención sobre comentarios de 30 días.
+ * Uso: {@code java -cp target/classes org.example.bench.PurgaBenchmark [visitantes] [comentarios] [stands] [aEliminar]}
+ * (por defecto 100.000 visitantes, 2.000.000 comentarios, 500 stands y 2.000 visitantes a eliminar).
+ */
+public class PurgaBenchmark {
+    private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+
+    /**
+     * Ejecuta las tres purgas sobre ferias idénticas e imprime su duración.
+     * @param args visitantes, comentarios, stands y visitantes a eliminar (opcionales)
+     */
+    public static void main(String[] args) {
+        int visitantes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int comentarios = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int stands = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int aEliminar = args.length > 3 ? Integer.parseInt(args[3]) : 2_000;
+
+        List<String> ids = new ArrayList<>(aEliminar);
+        Random rnd = new Random(9);
+        for (int i = 0; i < aEliminar; i++) ids.add("V" + rnd.nextInt(visitantes));
+        ids = ids.stream().distinct().toList();
+
+        FeriaEmpresarial feria = generar(visitantes, comentarios, stands);
+        long t0 = System.nanoTime();
+        for (String id : ids) feria.eliminarVisitante(id);
+        System.out.printf("eliminarVisitante x%,d   %,9.1f ms%n", ids.size(), (System.nanoTime() - t0) / 1e6);
+
+        feria = generar(visitantes, comentarios, stands);
+        FeriaEmpresarial.ResultadoPurga r = feria.eliminarVisitantes(ids);
+        System.out.printf("eliminarVisitantes (bloque) %,9.1f ms | %,d comentarios%n", r.nanos() / 1e6,
+                r.comentariosEliminados());
+
+        feria = generar(visitantes, comentarios, stands);
+        r = feria.purgarComentarios(FiltroComentarios.anterioresA(INICIO.plusDays(20)), null, true);
+        System.out.printf("retención (20 de 30 días)   %,9.1f ms | %,d comentarios | %,d visitantes%n",
+                r.nanos() / 1e6, r.comentariosEliminados(), r.visitantesEliminados().size());
+    }
+
+    private static FeriaEmpresarial generar(int visitantes, int comentarios, int stands) {
+        Random rnd = new Random(42);
+        List<Visitante> listaVisitantes = new ArrayList<>(visitantes);
+        for (int i = 0; i < visitantes; i++) listaVisitantes.add(new Visitante("V" + i, "Visitante " + i, "v" + i + "@correo.co"));
+        List<Stand> listaStands = new ArrayList<>(stands);
+        for (int i = 0; i < stands; i++) {
+            listaStands.add(new Stand("S" + i, "Pabellón " + (char) ('A' + i % 5) + ", Stand " + i, StandSize.MEDIANO));
+        }
+        LocalDate[] fechas = new LocalDate[30];
+        for (int d = 0; d < fechas.length; d++) fechas[d] = INICIO.plusDays(d);
+        for (int i = 0; i < comentarios; i++) {
+            listaStands.get(rnd.nextInt(stands)).agregarComentario(new Comentario("V" + rnd.nextInt(visitantes),
+                    fechas[rnd.nextInt(fechas.length)], 1 + rnd.nextInt(5), "Comentario " + (i & 1023)));
+        }
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.restaurarEstado(List.of(), listaStands, listaVisitantes);
+        return feria;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.bench;
+
+import org.example.model.Empresa;
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.example.service.FeriaEmpresarial;
+
+import java.util.Random;
+
+/**
+ * Benchmark manual del recomendador de stands: costo de mantenerlo al registrar comentarios y latencia de las
+ * consultas (con y sin filtro por sector). Los visitantes prefieren los stands de un pabellón, para que haya
+ * co-visitaciones con estructura.
+ * Uso: {@code java -cp target/classes org.example.bench.RecomendacionBenchmark [visitantes] [stands] [comentariosPorVisitante] [consultas]}
+ * (por defecto 300.000 visitantes, 500 stands, 6 comentarios por visitante y 100.000 consultas).
+ */
+public class RecomendacionBenchmark {
+    private static final String[] SECTORES = {"Tecnología", "Alimentos", "Salud", "Educación", "Turismo"};
+    private static final int PABELLONES = 10;
+
+    /**
+     * Prepara la feria, registra los comentarios con el recomendador activo y mide consultas.
+     * @param args visitantes, stands, comentarios por visitante y consultas (opcionales)
+     */
+    public static void main(String[] args) {
+        int visitantes = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        int stands = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int porVisitante = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int consultas = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        for (int i = 0; i < stands; i++) {
+            feria.crearStand("S" + i, "Pabellón " + (char) ('A' + i % PABELLONES) + ", Stand " + i, StandSize.MEDIANO);
+            feria.registrarEmpresa(new Empresa("Empresa " + i, SECTORES[i % SECTORES.length], "e" + i + "@correo.co"));
+            feria.asignarStandAEmpresa("S" + i, "Empresa " + i);
+        }
+        for (int i = 0; i < visitantes; i++) {
+            feria.registrarVisitante(new Visitante("V" + i, "Visitante " + i, "v" + i + "@correo.co"));
+        }
+        feria.recomendarStands("V0", 1); // activa el recomendador: desde aquí se mantiene en cada comentario
+
+        Random rnd = new Random(5);
+        long t0 = System.nanoTime();
+        long comentarios = 0;
+        for (int i = 0; i < visitantes; i++) {
+            int pabellon = rnd.nextInt(PABELLONES);
+            for (int j = 0; j < porVisitante; j++) {
+                // 80 % en su pabellón preferido, el resto en cualquier stand
+                int stand = rnd.nextInt(5) < 4
+                        ? pabellon + PABELLONES * rnd.nextInt(Math.max(1, stands / PABELLONES))
+                        : rnd.nextInt(stands);
+                feria.registrarComentario("V" + i, "S" + Math.min(stand, stands - 1), 1 + rnd.nextInt(5), "ok");
+                comentarios++;
+            }
+        }
+        long nanos = System.nanoTime() - t0;
+        System.out.printf("registro      %,10d comentarios | %,10.0f comentarios/s (incluye el recomendador)%n",
+                comentarios, comentarios * 1e9 / nanos);
+
+        medir(feria, "sin filtro", null, visitantes, consultas, rnd);
+        medir(feria, "por sector", SECTORES[0], visitantes, consultas, rnd);
+
+        Runtime rt = Runtime.getRuntime();
+        rt.gc();
+        System.out.printf("heap usado tras GC: %,d MB%n", (rt.totalMemory() - rt.freeMemory()) >> 20);
+    }
+
+    private static void medir(FeriaEmpresarial feria, String nombre, String sector, int visitantes, int consultas,
+                              Random rnd) {
+        for (int i = 0; i < consultas / 10; i++) feria.recomendarStands("V" + rnd.nextInt(visitantes), 10, sector);
+        HistogramaLatencias h = new HistogramaLatencias();
+        long sugerencias = 0;
+        for (int i = 0; i < consultas; i++) {
+            String id = "V" + rnd.nextInt(visitantes);
+            long t0 = System.nanoTime();
+            sugerencias += feria.recomendarStands(id, 10, sector).size();
+            h.registrar(System.nanoTime() - t0);
+        }
+        System.out.printf("%-13s p50 %,7.1f µs | p99 %,7.1f µs | máx %,9.1f µs | %.1f sugerencias/consulta%n",
+                nombre, h.percentil(50) / 1e3, h.percentil(99) / 1e3, h.maximo() / 1e3,
+                (double) sugerencias / consultas);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.bench;
+
+import org.example.model.*;
+import org.example.repository.RepositorioEnMemoria;
+import org.example.repository.RepositorioFeria;
+import org.example.repository.RepositorioJdbc;
+import org.example.service.FeriaEmpresarial;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark manual que ejecuta la misma carga de trabajo sobre el repositorio en memoria y sobre la base embebida.
+ * Uso: {@code java -cp target/classes:h2.jar org.example.bench.RepositorioBenchmark [url-jdbc] [visitantes] [comentarios]}
+ * (por defecto {@code jdbc:h2:file:./target/bench-feria}, 20.000 visitantes y 100.000 comentarios).
+ */
+public class RepositorioBenchmark {
+
+    /**
+     * Ejecuta la carga sobre ambos backends e imprime los tiempos por fase.
+     * @param args URL JDBC, cantidad de visitantes y de comentarios (opcionales)
+     */
+    public static void main(String[] args) {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:file:./target/bench-feria";
+        int visitantes = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int comentarios = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        ejecutar("memoria", RepositorioEnMemoria::new, visitantes, comentarios);
+        try {
+            ejecutar("jdbc", () -> {
+                RepositorioJdbc repo = new RepositorioJdbc(url, 5_000);
+                repo.reemplazarTodo(List.of(), List.of(), List.of());
+                return repo;
+            }, visitantes, comentarios);
+        } catch (IllegalStateException e) {
+            System.out.println("jdbc: no disponible (" + e.getMessage() + "); agrega el driver al classpath");
+        }
+    }
+
+    /**
+     * Ejecuta las fases de carga: registro de stands/visitantes, comentarios, búsquedas y reportes.
+     * @param nombre etiqueta del backend; fabrica crea el repositorio vacío; visitantes cantidad de visitantes; comentarios cantidad de comentarios
+     */
+    private static void ejecutar(String nombre, Supplier<RepositorioFeria> fabrica, int visitantes, int comentarios) {
+        Random rnd = new Random(7);
+        try (RepositorioFeria repo = fabrica.get()) {
+            FeriaEmpresarial feria = new FeriaEmpresarial(repo);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < 200; i++) {
+                feria.crearStand("S" + i, "Pabellón " + (char) ('A' + i % 5) + ", Stand " + i, StandSize.MEDIANO);
+            }
+            for (int i = 0; i < visitantes; i++) {
+                feria.registrarVisitante(new Visitante("V" + i, "Visitante " + i, "v" + i + "@correo.co"));
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < comentarios; i++) {
+                feria.registrarComentario("V" + rnd.nextInt(visitantes), "S" + rnd.nextInt(200),
+                        1 + rnd.nextInt(5), "Comentario " + i);
+            }
+            long t2 = System.nanoTime();
+            for (int i = 0; i < 1_000; i++) feria.promedioCalificacionStand("S" + rnd.nextInt(200));
+            long t3 = System.nanoTime();
+            feria.reportePromedioPorStand();
+            long t4 = System.nanoTime();
+            System.out.printf("%-8s registro %,6d ms | comentarios %,6d ms | 1000 consultas %,6d ms | reporte %,6d ms%n",
+                    nombre, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, (t3 - t2) / 1_000_000, (t4 - t3) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.bench;
+
+import org.example.batch.ProcesadorComandos;
+import org.example.service.FeriaEmpresarial;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reproduce una carga generada por {@link GeneradorCarga} contra una {@link FeriaEmpresarial} con la tasa y
+ * concurrencia indicadas, e informa el throughput y los percentiles de latencia por operación.
+ * <p>
+ * Con tasa fija, la latencia se mide desde el instante en que la operación debía empezar (no desde que
+ * realmente empezó), para no ocultar la cola acumulada cuando el sistema se atrasa.
+ * Uso: {@code java org.example.bench.ReproductorCarga [visitantes] [operaciones] [hilos] [tasa-ops/s, 0=máxima] [semilla]}
+ */
+public class ReproductorCarga {
+
+    /**
+     * Genera la carga, la reproduce e imprime el resultado.
+     * @param args visitantes iniciales, operaciones, hilos, tasa y semilla (opcionales)
+     * @throws Exception si falla la reproducción
+     */
+    public static void main(String[] args) throws Exception {
+        int visitantes = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        double tasa = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+        long semilla = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        GeneradorCarga.Carga carga = new GeneradorCarga(semilla, 500, 1.0).generar(visitantes, operaciones);
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        ProcesadorComandos preparador = new ProcesadorComandos(feria, Writer.nullWriter(), true);
+        for (String cmd : carga.preparacion()) preparador.ejecutar(cmd);
+
+        long inicio = System.nanoTime();
+        Map<String, HistogramaLatencias> porOperacion = reproducir(feria, carga.mezcla(), hilos, tasa);
+        long total = System.nanoTime() - inicio;
+
+        System.out.printf("%,d operaciones en %,d ms con %d hilos: %,.0f ops/s%n", carga.mezcla().size(),
+                total / 1_000_000, hilos, carga.mezcla().size() * 1e9 / total);
+        System.out.printf("%-20s %10s %10s %10s %10s %10s %10s%n", "operación", "cantidad", "p50 µs", "p90 µs",
+                "p99 µs", "p99.9 µs", "máx µs");
+        porOperacion.forEach((op, h) -> System.out.printf("%-20s %,10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", op,
+                h.total(), h.percentil(50) / 1e3, h.percentil(90) / 1e3, h.percentil(99) / 1e3,
+                h.percentil(99.9) / 1e3, h.maximo() / 1e3));
+    }
+
+    /**
+     * Reproduce los comandos repartidos entre varios hilos, en orden de llegada global.
+     * FeriaEmpresarial no es segura entre hilos, así que cada operación se ejecuta bajo un candado común;
+     * la espera por ese candado forma parte de la latencia medida.
+     * @param feria feria destino; comandos operaciones a reproducir; hilos cantidad de hilos; tasa operaciones por segundo (0 = sin límite)
+     * @return histogramas de latencia por tipo de operación
+     * @throws InterruptedException si se interrumpe la espera de los hilos
+     */
+    public static Map<String, HistogramaLatencias> reproducir(FeriaEmpresarial feria, List<String> comandos,
+                                                              int hilos, double tasa) throws InterruptedException {
+        AtomicInteger siguiente = new AtomicInteger();
+        ReentrantLock candado = new ReentrantLock();
+        long intervalo = tasa > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / tasa) : 0;
+        long inicio = System.nanoTime();
+        List<Map<String, HistogramaLatencias>> parciales = new ArrayList<>(hilos);
+        Thread[] trabajadores = new Thread[hilos];
+        for (int t = 0; t < hilos; t++) {
+            Map<String, HistogramaLatencias> propios = new TreeMap<>();
+            parciales.add(propios);
+            trabajadores[t] = new Thread(() -> {
+                ProcesadorComandos proc = new ProcesadorComandos(feria, Writer.nullWriter(), true);
+                int i;
+                while ((i = siguiente.getAndIncrement()) < comandos.size()) {
+                    String cmd = comandos.get(i);
+                    long programado = intervalo > 0 ? inicio + i * intervalo : System.nanoTime();
+                    long espera;
+                    while ((espera = programado - System.nanoTime()) > 0) LockSupport.parkNanos(espera);
+                    candado.lock();
+                    try {
+                        proc.ejecutar(cmd);
+                    } catch (IOException | RuntimeException e) {
+                        // las operaciones inválidas (ej. visitante ya eliminado) también se miden
+                    } finally {
+                        candado.unlock();
+                    }
+                    long latencia = System.nanoTime() - programado;
+                    int fin = cmd.indexOf('|');
+                    propios.computeIfAbsent(fin < 0 ? cmd : cmd.substring(0, fin), k -> new HistogramaLatencias())
+                            .registrar(latencia);
+                }
+            }, "replay-" + t);
+            trabajadores[t].start();
+        }
+        for (Thread t : trabajadores) t.join();
+
+        Map<String, HistogramaLatencias> combinados = new TreeMap<>();
+        for (Map<String, HistogramaLatencias> p : parciales) {
+            p.forEach((op, h) -> combinados.computeIfAbsent(op, k -> new HistogramaLatencias()).combinar(h));
+        }
+        return combinados;
+    }
+}
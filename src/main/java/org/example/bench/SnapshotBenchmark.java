@@ -0,0 +1,124 @@
+package org.example.bench;
+
+import org.example.model.*;
+import org.example.persistence.SnapshotFeria;
+import org.example.service.FeriaEmpresarial;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark manual del snapshot binario frente a una línea base con serialización Java (ObjectOutputStream).
+ * Uso: {@code java -cp target/classes org.example.bench.SnapshotBenchmark [visitantes] [comentarios] [stands]}
+ * (por defecto 1.000.000 visitantes, 10.000.000 comentarios y 1.000 stands; requiere un heap amplio, ej. -Xmx8g).
+ */
+public class SnapshotBenchmark {
+
+    /**
+     * Genera una feria sintética, la guarda/carga con ambos formatos e imprime tiempos y tamaños.
+     * @param args visitantes, comentarios y stands (opcionales)
+     * @throws Exception si falla la escritura o lectura de archivos temporales
+     */
+    public static void main(String[] args) throws Exception {
+        int totalVisitantes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int totalComentarios = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        int totalStands = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        FeriaEmpresarial feria = generar(totalVisitantes, totalComentarios, totalStands, new Random(42));
+        Path binario = Files.createTempFile("feria", ".snap");
+        Path serializado = Files.createTempFile("feria", ".ser");
+        try {
+            long t0 = System.nanoTime();
+            SnapshotFeria.guardar(feria, binario);
+            long t1 = System.nanoTime();
+            FeriaEmpresarial cargada = new FeriaEmpresarial();
+            SnapshotFeria.cargar(binario, cargada);
+            long t2 = System.nanoTime();
+            imprimir("snapshot binario", t1 - t0, t2 - t1, Files.size(binario));
+
+            t0 = System.nanoTime();
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(serializado)))) {
+                out.writeObject(aFilas(feria));
+            }
+            t1 = System.nanoTime();
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new BufferedInputStream(Files.newInputStream(serializado)))) {
+                in.readObject();
+            }
+            t2 = System.nanoTime();
+            imprimir("serialización Java", t1 - t0, t2 - t1, Files.size(serializado));
+
+            System.out.println("Verificación: " + cargada.listarVisitantes().size() + " visitantes, "
+                    + cargada.listarStands().stream().mapToInt(Stand::totalComentarios).sum() + " comentarios");
+        } finally {
+            Files.deleteIfExists(binario);
+            Files.deleteIfExists(serializado);
+        }
+    }
+
+    /**
+     * Construye una feria sintética con empresas, stands asignados, visitantes y comentarios aleatorios.
+     * @param visitantes cantidad de visitantes; comentarios cantidad de comentarios; stands cantidad de stands; rnd generador con semilla
+     * @return feria poblada mediante carga en bloque
+     */
+    static FeriaEmpresarial generar(int visitantes, int comentarios, int stands, Random rnd) {
+        String[] sectores = {"Tecnología", "Alimentos", "Salud", "Educación", "Finanzas"};
+        String[] textos = {"Excelente atención", "Buena demo", "Regular", "Muy interesante", "Volveré"};
+        List<Empresa> empresas = new ArrayList<>();
+        List<Stand> listaStands = new ArrayList<>(stands);
+        for (int i = 0; i < stands; i++) {
+            Stand s = new Stand("S" + i, "Pabellón " + (char) ('A' + i % 6) + ", Stand " + i,
+                    StandSize.values()[i % 3]);
+            if (i % 4 != 0) {
+                Empresa e = new Empresa("Empresa " + i, sectores[i % sectores.length], "contacto" + i + "@feria.co");
+                empresas.add(e);
+                s.asignarEmpresa(e);
+            }
+            listaStands.add(s);
+        }
+        List<Visitante> listaVisitantes = new ArrayList<>(visitantes);
+        for (int i = 0; i < visitantes; i++) {
+            listaVisitantes.add(new Visitante("V" + i, "Visitante " + i, "v" + i + "@correo.co"));
+        }
+        LocalDate inicio = LocalDate.of(2026, 3, 1);
+        for (int i = 0; i < comentarios; i++) {
+            Visitante v = listaVisitantes.get(rnd.nextInt(visitantes));
+            listaStands.get(rnd.nextInt(stands)).agregarComentario(new Comentario(v.getIdentificacion(),
+                    inicio.plusDays(rnd.nextInt(5)), 1 + rnd.nextInt(5), textos[rnd.nextInt(textos.length)]));
+        }
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.restaurarEstado(empresas, listaStands, listaVisitantes);
+        return feria;
+    }
+
+    /**
+     * Convierte la feria a filas de objetos serializables (representación ingenua para la línea base).
+     * @param feria feria a convertir
+     * @return lista de filas (empresas, visitantes, stands y comentarios)
+     */
+    private static ArrayList<Object[]> aFilas(FeriaEmpresarial feria) {
+        ArrayList<Object[]> filas = new ArrayList<>();
+        for (Empresa e : feria.listarEmpresas())
+            filas.add(new Object[]{"E", e.getNombre(), e.getSector(), e.getCorreoElectronico()});
+        for (Visitante v : feria.listarVisitantes())
+            filas.add(new Object[]{"V", v.getIdentificacion(), v.getNombre(), v.getCorreoElectronico()});
+        for (Stand s : feria.listarStands()) {
+            filas.add(new Object[]{"S", s.getNumero(), s.getUbicacion(), s.getTamano().name(),
+                    s.getEmpresaAsignada().map(Empresa::getNombre).orElse(null)});
+            for (Comentario c : s.getComentarios())
+                filas.add(new Object[]{"C", s.getNumero(), c.visitanteId(), c.fecha(), c.calificacion(), c.texto()});
+        }
+        return filas;
+    }
+
+    private static void imprimir(String formato, long escrituraNs, long lecturaNs, long bytes) {
+        System.out.printf("%-20s escritura %,8d ms | lectura %,8d ms | %,d bytes%n",
+                formato, escrituraNs / 1_000_000, lecturaNs / 1_000_000, bytes);
+    }
+}
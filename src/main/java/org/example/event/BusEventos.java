@@ -0,0 +1,199 @@
+package org.example.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus de eventos sobre un buffer circular sin bloqueos (estilo disruptor).
+ * <p>
+ * Los productores reservan una secuencia con un incremento atómico, escriben el evento en su ranura y la
+ * marcan como publicada. Cada suscriptor tiene su propio hilo y su propia secuencia de lectura, y recibe
+ * los eventos en orden y en lotes de hasta {@code tamanoLote}. Si el suscriptor más lento está una vuelta
+ * completa detrás, el productor espera (contrapresión) en lugar de sobrescribir eventos no entregados.
+ * Sin suscriptores, publicar no hace nada. Si un suscriptor lanza una excepción, el lote se da por entregado
+ * (para no frenar a los productores), la excepción se registra en el {@link System.Logger} del bus y se cuenta
+ * en {@link Suscripcion#errores()}.
+ */
+public class BusEventos {
+    private static final long ESPERA_NS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final System.Logger LOG = System.getLogger(BusEventos.class.getName());
+
+    private final int mascara;
+    private final AtomicReferenceArray<EventoFeria> ranuras;
+    private final AtomicLongArray publicadas;
+    private final AtomicLong cursor = new AtomicLong();
+    private final List<Suscripcion> suscripciones = new CopyOnWriteArrayList<>();
+    private volatile long limiteCacheado = -1;
+
+    /**
+     * Crea un bus con la capacidad indicada (se redondea a la siguiente potencia de 2).
+     * @param capacidad cantidad de eventos que pueden estar pendientes de entrega
+     * @throws IllegalArgumentException si la capacidad no es positiva
+     */
+    public BusEventos(int capacidad) {
+        if (capacidad < 1) throw new IllegalArgumentException("La capacidad debe ser positiva");
+        int tam = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.mascara = tam - 1;
+        this.ranuras = new AtomicReferenceArray<>(tam);
+        this.publicadas = new AtomicLongArray(tam);
+        for (int i = 0; i < tam; i++) publicadas.set(i, -1);
+    }
+
+    /**
+     * Publica un evento para todos los suscriptores actuales.
+     * @param evento evento a publicar
+     */
+    public void publicar(EventoFeria evento) { publicar(reservar(), evento); }
+
+    /**
+     * Reserva la siguiente secuencia para un evento que se escribirá después con {@link #publicar(long, EventoFeria)}.
+     * Quien aplica cambios bajo un candado reserva dentro de él (los eventos quedan en el orden de los cambios) y
+     * publica tras soltarlo (la espera por contrapresión no retiene el candado). Toda secuencia reservada debe
+     * publicarse: los suscriptores no pasan de ella hasta que se escribe.
+     * @return secuencia reservada, o -1 si no hay suscriptores
+     */
+    public long reservar() { return suscripciones.isEmpty() ? -1 : cursor.getAndIncrement(); }
+
+    /**
+     * Escribe un evento en la secuencia reservada con {@link #reservar()}, esperando si el suscriptor más lento
+     * aún no liberó la ranura.
+     * @param seq secuencia reservada (-1 no publica nada); evento evento a publicar
+     */
+    public void publicar(long seq, EventoFeria evento) {
+        if (seq < 0) return;
+        long capacidad = mascara + 1L;
+        // Esperar a que el suscriptor más lento libere la ranura (se recalcula solo cuando hace falta)
+        while (seq - capacidad >= limiteCacheado) {
+            long minimo = minimoLeido();
+            limiteCacheado = minimo;
+            if (seq - capacidad < minimo) break;
+            LockSupport.parkNanos(ESPERA_NS);
+        }
+        int i = (int) (seq & mascara);
+        ranuras.set(i, evento);
+        publicadas.set(i, seq);
+    }
+
+    private long minimoLeido() {
+        long minimo = Long.MAX_VALUE;
+        for (Suscripcion s : suscripciones) minimo = Math.min(minimo, s.leido.get());
+        // "leido" es la última secuencia entregada; la ranura de seq - capacidad queda libre si ya se entregó
+        return minimo == Long.MAX_VALUE ? Long.MAX_VALUE : minimo + 1;
+    }
+
+    /**
+     * Registra un suscriptor que recibirá los eventos publicados desde este momento.
+     * @param suscriptor receptor de lotes; tamanoLote máximo de eventos por entrega
+     * @return suscripción que permite detener la entrega
+     * @throws IllegalArgumentException si el suscriptor es nulo o el lote no es positivo
+     */
+    public Suscripcion suscribir(SuscriptorEventos suscriptor, int tamanoLote) {
+        if (suscriptor == null) throw new IllegalArgumentException("El suscriptor es obligatorio");
+        if (tamanoLote < 1) throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        Suscripcion s = new Suscripcion(suscriptor, tamanoLote, cursor.get() - 1);
+        suscripciones.add(s);
+        limiteCacheado = -1;
+        s.hilo.start();
+        return s;
+    }
+
+    /**
+     * Receptor de eventos en lotes; se invoca siempre desde el mismo hilo.
+     */
+    @FunctionalInterface
+    public interface SuscriptorEventos {
+        /**
+         * Procesa un lote de eventos consecutivos.
+         * @param lote eventos en orden de publicación (no vacío)
+         */
+        void alRecibir(List<EventoFeria> lote);
+    }
+
+    /**
+     * Suscripción activa: hilo de entrega con su propia secuencia de lectura.
+     */
+    public final class Suscripcion implements AutoCloseable {
+        private final SuscriptorEventos suscriptor;
+        private final int tamanoLote;
+        private final AtomicLong leido;
+        private final Thread hilo;
+        private final AtomicLong errores = new AtomicLong();
+        private volatile RuntimeException ultimoError;
+        private volatile boolean activa = true;
+
+        private Suscripcion(SuscriptorEventos suscriptor, int tamanoLote, long inicial) {
+            this.suscriptor = suscriptor;
+            this.tamanoLote = tamanoLote;
+            this.leido = new AtomicLong(inicial);
+            this.hilo = new Thread(this::entregar, "feria-eventos");
+            this.hilo.setDaemon(true);
+        }
+
+        private void entregar() {
+            List<EventoFeria> lote = new ArrayList<>(tamanoLote);
+            while (activa) {
+                long siguiente = leido.get() + 1;
+                while (lote.size() < tamanoLote) {
+                    long seq = siguiente + lote.size();
+                    int i = (int) (seq & mascara);
+                    if (publicadas.get(i) != seq) break;
+                    lote.add(ranuras.get(i));
+                }
+                if (lote.isEmpty()) {
+                    LockSupport.parkNanos(ESPERA_NS);
+                    continue;
+                }
+                try {
+                    suscriptor.alRecibir(List.copyOf(lote));
+                } catch (RuntimeException e) {
+                    // un suscriptor con errores no debe bloquear a los productores ni perder su posición
+                    errores.incrementAndGet();
+                    ultimoError = e;
+                    LOG.log(System.Logger.Level.WARNING, "El suscriptor falló con un lote de " + lote.size()
+                            + " eventos desde la secuencia " + siguiente, e);
+                }
+                leido.addAndGet(lote.size());
+                lote.clear();
+            }
+        }
+
+        /**
+         * Secuencia del último evento entregado a este suscriptor.
+         * @return secuencia entregada (-1 si aún no recibió ninguno desde el arranque del bus)
+         */
+        public long ultimaEntregada() { return leido.get(); }
+
+        /**
+         * Cantidad de lotes en los que el suscriptor lanzó una excepción.
+         * @return lotes fallidos
+         */
+        public long errores() { return errores.get(); }
+
+        /**
+         * Última excepción lanzada por el suscriptor.
+         * @return excepción, o null si nunca falló
+         */
+        public RuntimeException ultimoError() { return ultimoError; }
+
+        /**
+         * Detiene la entrega y libera la suscripción (los productores dejan de esperarla).
+         */
+        @Override public void close() {
+            activa = false;
+            suscripciones.remove(this);
+            limiteCacheado = -1;
+            LockSupport.unpark(hilo);
+            try {
+                hilo.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
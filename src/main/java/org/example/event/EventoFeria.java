@@ -0,0 +1,52 @@
+package org.example.event;
+
+import org.example.model.Comentario;
+import org.example.model.StandSize;
+
+import java.util.List;
+
+/**
+ * Evento de cambio (change-data-capture) emitido por cada operación que modifica la feria.
+ * Los suscriptores pueden mantener sus propias proyecciones aplicando los eventos en orden.
+ */
+public sealed interface EventoFeria {
+
+    /** Se registró una empresa nueva. */
+    record EmpresaRegistrada(String nombre, String sector, String correo) implements EventoFeria { }
+
+    /** Se editaron sector y/o correo de una empresa (valores ya actualizados). */
+    record EmpresaEditada(String nombre, String sector, String correo) implements EventoFeria { }
+
+    /** Se eliminó una empresa (sus stands quedan liberados). */
+    record EmpresaEliminada(String nombre) implements EventoFeria { }
+
+    /** Se creó un stand nuevo. */
+    record StandCreado(String numero, String ubicacion, StandSize tamano) implements EventoFeria { }
+
+    /** Se asignó un stand a una empresa. */
+    record StandAsignado(String numero, String empresa) implements EventoFeria { }
+
+    /** Se liberó un stand. */
+    record StandDesasignado(String numero) implements EventoFeria { }
+
+    /** Se registró un visitante nuevo. */
+    record VisitanteRegistrado(String identificacion, String nombre, String correo) implements EventoFeria { }
+
+    /** Se editaron nombre y/o correo de un visitante (valores ya actualizados). */
+    record VisitanteEditado(String identificacion, String nombre, String correo) implements EventoFeria { }
+
+    /** Se eliminó un visitante junto con sus comentarios. */
+    record VisitanteEliminado(String identificacion, int comentariosEliminados) implements EventoFeria { }
+
+    /** Se registró un comentario en un stand. */
+    record ComentarioRegistrado(String numeroStand, Comentario comentario) implements EventoFeria { }
+
+    /**
+     * Se purgaron comentarios en bloque y, si se indicó, visitantes: las proyecciones que dependen de comentarios
+     * deben reconstruirse (el evento no detalla cada comentario eliminado).
+     */
+    record ComentariosPurgados(int comentariosEliminados, List<String> visitantesEliminados) implements EventoFeria { }
+
+    /** Se reemplazó el estado completo (carga de snapshot o masiva): las proyecciones deben reconstruirse. */
+    record EstadoRestaurado() implements EventoFeria { }
+}
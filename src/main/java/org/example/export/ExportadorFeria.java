@@ -0,0 +1,477 @@
+package org.example.export;
+
+import org.example.model.*;
+import org.example.service.InstantaneaFeria;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Exporta listados y reportes de una {@link InstantaneaFeria} en CSV (RFC 4180, con encabezado) o JSON Lines
+ * (un objeto por línea), para consumo de herramientas de análisis.
+ * <p>
+ * Los valores se codifican en UTF-8 directamente en un {@link ByteBuffer} reutilizable que se vuelca al canal
+ * al llenarse: no se arma un String por fila, los nombres de columna se codifican una sola vez y los números
+ * y fechas se escriben dígito a dígito. Un exportador no es seguro para uso concurrente; conviene reutilizarlo.
+ * <p>
+ * En CSV, las listas (los stands de {@link Tabla#VISITANTES_Y_STANDS}) van en un solo campo separadas por ';',
+ * con '\' antes de cada ';' o '\' que forme parte de un valor (por ejemplo {@code S\;1;S2} son "S;1" y "S2").
+ */
+public class ExportadorFeria {
+    private static final int CAPACIDAD_POR_DEFECTO = 1 << 20;
+
+    /**
+     * Formato de salida.
+     */
+    public enum Formato { CSV, JSONL }
+
+    /**
+     * Listado o reporte a exportar, con sus columnas.
+     */
+    public enum Tabla {
+        EMPRESAS("nombre", "sector", "correo", "version"),
+        STANDS("numero", "ubicacion", "pabellon", "tamano", "empresa", "version", "comentarios", "promedio"),
+        VISITANTES("identificacion", "nombre", "correo", "version"),
+        COMENTARIOS("stand", "visitante", "fecha", "calificacion", "texto"),
+        EMPRESAS_Y_STANDS("empresa", "stand"),
+        VISITANTES_Y_STANDS("identificacion", "nombre", "registrado", "stands", "comentarios"),
+        PROMEDIO_POR_STAND("stand", "promedio", "comentarios");
+
+        private final String[] columnas;
+
+        Tabla(String... columnas) { this.columnas = columnas; }
+
+        /**
+         * Nombres de las columnas en orden.
+         * @return copia de los nombres
+         */
+        public List<String> columnas() { return List.of(columnas); }
+    }
+
+    private final ByteBuffer buffer;
+    private final Map<Tabla, byte[][]> clavesJson = new EnumMap<>(Tabla.class);
+    private WritableByteChannel canal;
+    private boolean csv;
+    private byte[][] claves;
+    private int columna;
+    private long filas;
+
+    /**
+     * Crea un exportador con un buffer de 1 MiB.
+     */
+    public ExportadorFeria() { this(CAPACIDAD_POR_DEFECTO); }
+
+    /**
+     * Crea un exportador con el buffer indicado.
+     * @param capacidad bytes del buffer (mínimo 64)
+     * @throws IllegalArgumentException si la capacidad es menor a 64
+     */
+    public ExportadorFeria(int capacidad) {
+        if (capacidad < 64) throw new IllegalArgumentException("La capacidad mínima del buffer es 64 bytes");
+        this.buffer = ByteBuffer.allocateDirect(capacidad);
+    }
+
+    /**
+     * Exporta una tabla a un archivo (lo crea o lo reemplaza).
+     * @param inst instantánea a exportar; tabla listado o reporte; formato CSV o JSONL; destino ruta del archivo
+     * @return filas escritas (sin contar el encabezado CSV)
+     * @throws IOException si falla la escritura
+     */
+    public long exportar(InstantaneaFeria inst, Tabla tabla, Formato formato, Path destino) throws IOException {
+        try (FileChannel ch = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return exportar(inst, tabla, formato, ch);
+        }
+    }
+
+    /**
+     * Exporta una tabla a un canal abierto (no se cierra).
+     * @param inst instantánea a exportar; tabla listado o reporte; formato CSV o JSONL; destino canal de salida
+     * @return filas escritas (sin contar el encabezado CSV)
+     * @throws IOException si falla la escritura
+     */
+    public long exportar(InstantaneaFeria inst, Tabla tabla, Formato formato, WritableByteChannel destino)
+            throws IOException {
+        this.canal = destino;
+        this.csv = formato == Formato.CSV;
+        this.claves = clavesJson.computeIfAbsent(tabla, ExportadorFeria::codificarClaves);
+        this.filas = 0;
+        buffer.clear();
+        try {
+            if (csv) encabezado(tabla);
+            switch (tabla) {
+                case EMPRESAS -> empresas(inst);
+                case STANDS -> stands(inst);
+                case VISITANTES -> visitantes(inst);
+                case COMENTARIOS -> comentarios(inst);
+                case EMPRESAS_Y_STANDS -> empresasYStands(inst);
+                case VISITANTES_Y_STANDS -> visitantesYStands(inst);
+                case PROMEDIO_POR_STAND -> promedios(inst);
+            }
+            volcar();
+        } finally {
+            this.canal = null;
+        }
+        return filas;
+    }
+
+    private void empresas(InstantaneaFeria inst) throws IOException {
+        for (Empresa e : inst.listarEmpresas()) {
+            inicioFila();
+            texto(e.getNombre());
+            texto(e.getSector());
+            texto(e.getCorreoElectronico());
+            numero(e.getVersion());
+            finFila();
+        }
+    }
+
+    private void stands(InstantaneaFeria inst) throws IOException {
+        for (Stand s : inst.listarStands()) {
+            inicioFila();
+            texto(s.getNumero());
+            texto(s.getUbicacion());
+            texto(s.getUbicacionDetallada().pabellon());
+            texto(s.getTamano().name());
+            texto(s.getEmpresaAsignada().map(Empresa::getNombre).orElse(null));
+            numero(s.getVersion());
+            numero(s.totalComentarios());
+            promedio(s.promedioCalificacion());
+            finFila();
+        }
+    }
+
+    private void visitantes(InstantaneaFeria inst) throws IOException {
+        for (Visitante v : inst.listarVisitantes()) {
+            inicioFila();
+            texto(v.getIdentificacion());
+            texto(v.getNombre());
+            texto(v.getCorreoElectronico());
+            numero(v.getVersion());
+            finFila();
+        }
+    }
+
+    private void comentarios(InstantaneaFeria inst) throws IOException {
+        for (Stand s : inst.listarStands()) {
+            for (Comentario c : s.getComentarios()) {
+                inicioFila();
+                texto(s.getNumero());
+                texto(c.visitanteId());
+                fecha(c.fecha());
+                numero(c.calificacion());
+                texto(c.texto());
+                finFila();
+            }
+        }
+    }
+
+    private void empresasYStands(InstantaneaFeria inst) throws IOException {
+        Set<String> conStand = new HashSet<>();
+        for (Stand s : inst.listarStands()) {
+            Optional<Empresa> e = s.getEmpresaAsignada();
+            if (e.isEmpty()) continue;
+            conStand.add(e.get().getNombre());
+            fila2(e.get().getNombre(), s.getNumero());
+        }
+        List<String> sinStand = new ArrayList<>();
+        for (Empresa e : inst.listarEmpresas()) if (!conStand.contains(e.getNombre())) sinStand.add(e.getNombre());
+        sinStand.sort(String::compareToIgnoreCase);
+        for (String nombre : sinStand) fila2(nombre, null);
+        for (String numero : inst.numerosStandsLibres()) fila2(null, numero);
+    }
+
+    private void fila2(String a, String b) throws IOException {
+        inicioFila();
+        texto(a);
+        texto(b);
+        finFila();
+    }
+
+    private void visitantesYStands(InstantaneaFeria inst) throws IOException {
+        try {
+            inst.recorrerReporteVisitantes((id, nombre, stands, comentarios) -> {
+                try {
+                    inicioFila();
+                    texto(id);
+                    texto(nombre);
+                    booleano(nombre != null);
+                    lista(stands);
+                    numero(comentarios);
+                    finFila();
+                } catch (IOException e) {
+                    throw new ErrorEscritura(e);
+                }
+            });
+        } catch (ErrorEscritura e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Transporta una IOException a través del receptor de filas (que no declara excepciones verificadas).
+     */
+    private static final class ErrorEscritura extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ErrorEscritura(IOException causa) { super(causa); }
+    }
+
+    private void promedios(InstantaneaFeria inst) throws IOException {
+        for (Stand s : inst.standsPorPromedio()) {
+            inicioFila();
+            texto(s.getNumero());
+            promedio(s.promedioCalificacion());
+            numero(s.totalComentarios());
+            finFila();
+        }
+    }
+
+    // ---- escritura de filas y campos ----
+
+    private static byte[][] codificarClaves(Tabla tabla) {
+        byte[][] r = new byte[tabla.columnas.length][];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = ((i == 0 ? "{\"" : ",\"") + tabla.columnas[i] + "\":").getBytes(StandardCharsets.UTF_8);
+        }
+        return r;
+    }
+
+    private void encabezado(Tabla tabla) throws IOException {
+        for (int i = 0; i < tabla.columnas.length; i++) {
+            if (i > 0) escribir((byte) ',');
+            escribirAscii(tabla.columnas[i]);
+        }
+        escribir((byte) '\r');
+        escribir((byte) '\n');
+    }
+
+    private void inicioFila() { columna = 0; }
+
+    private void finFila() throws IOException {
+        if (csv) {
+            escribir((byte) '\r');
+        } else {
+            escribir((byte) '}');
+        }
+        escribir((byte) '\n');
+        filas++;
+    }
+
+    /**
+     * Escribe el separador (CSV) o la clave (JSON) de la siguiente columna.
+     */
+    private void siguienteColumna() throws IOException {
+        if (csv) {
+            if (columna > 0) escribir((byte) ',');
+        } else {
+            byte[] clave = claves[columna];
+            asegurar(clave.length);
+            buffer.put(clave);
+        }
+        columna++;
+    }
+
+    private void texto(String s) throws IOException {
+        siguienteColumna();
+        if (s == null) {
+            if (!csv) escribirAscii("null");
+            return;
+        }
+        if (csv) textoCsv(s);
+        else textoJson(s);
+    }
+
+    private void textoCsv(String s) throws IOException {
+        boolean comillas = requiereComillas(s);
+        if (comillas) escribir((byte) '"');
+        contenidoCsv(s, false);
+        if (comillas) escribir((byte) '"');
+    }
+
+    private static boolean requiereComillas(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    /**
+     * Escribe el contenido de un campo CSV duplicando las comillas (las comillas externas van aparte).
+     * @param s valor; enLista true si es un elemento de una lista separada por ';' (se escapan ';' y {@code \})
+     */
+    private void contenidoCsv(String s, boolean enLista) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') escribir((byte) '"');
+            else if (enLista && (c == ';' || c == '\\')) escribir((byte) '\\');
+            i = caracter(s, i);
+        }
+    }
+
+    private void textoJson(String s) throws IOException {
+        escribir((byte) '"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                escribir((byte) '\\');
+                escribir((byte) c);
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\n' -> escribirAscii("\\n");
+                    case '\r' -> escribirAscii("\\r");
+                    case '\t' -> escribirAscii("\\t");
+                    default -> {
+                        escribirAscii("\\u00");
+                        escribir(HEX[c >> 4]);
+                        escribir(HEX[c & 0xF]);
+                    }
+                }
+            } else {
+                i = caracter(s, i);
+            }
+        }
+        escribir((byte) '"');
+    }
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Codifica en UTF-8 el carácter en la posición i (y su par sustituto si lo tiene).
+     * @return índice del último char consumido
+     */
+    private int caracter(String s, int i) throws IOException {
+        char c = s.charAt(i);
+        asegurar(4);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(i + 1));
+            buffer.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                    .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            return i + 1;
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+        }
+        return i;
+    }
+
+    private void numero(long n) throws IOException {
+        siguienteColumna();
+        escribirEntero(n);
+    }
+
+    private void escribirEntero(long n) throws IOException {
+        asegurar(20);
+        if (n < 0) {
+            buffer.put((byte) '-');
+            n = -n;
+        }
+        if (n < 10) {
+            buffer.put((byte) ('0' + n));
+            return;
+        }
+        int inicio = buffer.position();
+        while (n > 0) {
+            buffer.put((byte) ('0' + n % 10));
+            n /= 10;
+        }
+        // los dígitos quedaron al revés: invertir en el buffer
+        for (int i = inicio, j = buffer.position() - 1; i < j; i++, j--) {
+            byte t = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, t);
+        }
+    }
+
+    private void promedio(OptionalDouble p) throws IOException {
+        siguienteColumna();
+        if (p.isEmpty()) {
+            if (!csv) escribirAscii("null");
+            return;
+        }
+        long centesimas = Math.round(p.getAsDouble() * 100);
+        escribirEntero(centesimas / 100);
+        escribir((byte) '.');
+        long resto = centesimas % 100;
+        escribir((byte) ('0' + resto / 10));
+        escribir((byte) ('0' + resto % 10));
+    }
+
+    private void booleano(boolean b) throws IOException {
+        siguienteColumna();
+        escribirAscii(b ? "true" : "false");
+    }
+
+    private void fecha(LocalDate f) throws IOException {
+        siguienteColumna();
+        if (!csv) escribir((byte) '"');
+        int anio = f.getYear();
+        asegurar(10);
+        buffer.put((byte) ('0' + anio / 1000 % 10)).put((byte) ('0' + anio / 100 % 10))
+                .put((byte) ('0' + anio / 10 % 10)).put((byte) ('0' + anio % 10)).put((byte) '-')
+                .put((byte) ('0' + f.getMonthValue() / 10)).put((byte) ('0' + f.getMonthValue() % 10)).put((byte) '-')
+                .put((byte) ('0' + f.getDayOfMonth() / 10)).put((byte) ('0' + f.getDayOfMonth() % 10));
+        if (!csv) escribir((byte) '"');
+    }
+
+    /**
+     * Lista de textos: en CSV, un solo campo separado por ';' (con ';' y {@code \} escapados); en JSON, un arreglo.
+     */
+    private void lista(Collection<String> valores) throws IOException {
+        siguienteColumna();
+        if (csv) {
+            boolean comillas = false;
+            for (String v : valores) comillas |= requiereComillas(v);
+            if (comillas) escribir((byte) '"');
+            boolean primero = true;
+            for (String v : valores) {
+                if (!primero) escribir((byte) ';');
+                contenidoCsv(v, true);
+                primero = false;
+            }
+            if (comillas) escribir((byte) '"');
+        } else {
+            escribir((byte) '[');
+            boolean primero = true;
+            for (String v : valores) {
+                if (!primero) escribir((byte) ',');
+                textoJson(v);
+                primero = false;
+            }
+            escribir((byte) ']');
+        }
+    }
+
+    private void escribirAscii(String s) throws IOException {
+        asegurar(s.length());
+        for (int i = 0; i < s.length(); i++) buffer.put((byte) s.charAt(i));
+    }
+
+    private void escribir(byte b) throws IOException {
+        if (!buffer.hasRemaining()) volcar();
+        buffer.put(b);
+    }
+
+    private void asegurar(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) volcar();
+    }
+
+    private void volcar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) canal.write(buffer);
+        buffer.clear();
+    }
+}
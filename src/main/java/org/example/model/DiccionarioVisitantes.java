@@ -0,0 +1,91 @@
+package org.example.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de identificaciones de visitantes de una feria: asigna a cada identificación (tal como se escribió)
+ * un ordinal entero estable, para que los stands guarden sus comentarios en arreglos de {@code int} en lugar de
+ * referencias. El repositorio lo comparte entre sus stands (un stand suelto crea el suyo), así que se libera junto
+ * con la feria.
+ * <p>
+ * Solo crece: una identificación conserva su ordinal aunque el visitante se elimine. Para soltar las que ya nadie
+ * usa, el dueño crea un diccionario nuevo y pasa a él sus stands ({@link Stand#usarDiccionario}); las copias de
+ * stands tomadas antes siguen leyendo el anterior, que se recolecta cuando ninguna lo usa.
+ */
+public final class DiccionarioVisitantes {
+    private final ConcurrentHashMap<String, Integer> ordinales = new ConcurrentHashMap<>();
+    // identificación en minúsculas → ordinales de sus variantes de mayúsculas (casi siempre uno)
+    private final ConcurrentHashMap<String, int[]> porMinusculas = new ConcurrentHashMap<>();
+    private volatile String[] identificaciones = new String[16];
+    private int total; // protegido por el monitor del diccionario
+
+    /**
+     * Crea un diccionario vacío.
+     */
+    public DiccionarioVisitantes() { }
+
+    /**
+     * Devuelve la cantidad de identificaciones registradas.
+     * @return identificaciones con ordinal
+     */
+    public int tamano() { return ordinales.size(); }
+
+    /**
+     * Devuelve el ordinal de una identificación, registrándola si es nueva.
+     * @param identificacion identificación del visitante
+     * @return ordinal (0, 1, 2, ...)
+     */
+    int ordinal(String identificacion) {
+        Integer o = ordinales.get(identificacion);
+        return o != null ? o : registrar(identificacion);
+    }
+
+    private synchronized int registrar(String identificacion) {
+        Integer o = ordinales.get(identificacion);
+        if (o != null) return o;
+        String[] ids = identificaciones;
+        if (total == ids.length) ids = Arrays.copyOf(ids, total * 2);
+        ids[total] = identificacion;
+        identificaciones = ids; // publica la entrada antes que el ordinal
+        int nuevo = total++;
+        porMinusculas.merge(identificacion.toLowerCase(), new int[]{nuevo}, (previos, uno) -> {
+            int[] todos = Arrays.copyOf(previos, previos.length + 1);
+            todos[previos.length] = nuevo;
+            return todos;
+        });
+        ordinales.put(identificacion, nuevo);
+        return nuevo;
+    }
+
+    /**
+     * Devuelve la identificación de un ordinal ya asignado.
+     * @param ordinal ordinal obtenido con {@link #ordinal(String)}
+     * @return identificación original
+     */
+    String identificacion(int ordinal) { return identificaciones[ordinal]; }
+
+    /**
+     * Ordinales de una identificación sin distinguir mayúsculas.
+     * @param identificacion identificación en cualquier combinación de mayúsculas
+     * @return ordinales de sus variantes registradas (vacío si ninguna)
+     */
+    int[] ordinalesDe(String identificacion) {
+        return porMinusculas.getOrDefault(identificacion.toLowerCase(), new int[0]);
+    }
+
+    /**
+     * Ordinales de todas las identificaciones registradas que, en minúsculas, están en el conjunto.
+     * @param minusculas identificaciones en minúsculas
+     * @return conjunto de ordinales
+     */
+    BitSet ordinalesDe(Set<String> minusculas) {
+        BitSet resultado = new BitSet();
+        for (String id : minusculas) {
+            for (int o : porMinusculas.getOrDefault(id, new int[0])) resultado.set(o);
+        }
+        return resultado;
+    }
+}
@@ -1,14 +1,19 @@
 package org.example.model;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Representa una empresa participante de la feria con nombre único, sector y correo de contacto.
+ * <p>
+ * Los datos editables y su número de versión viven en un único estado inmutable que se reemplaza con CAS:
+ * cada cambio incrementa la versión, y {@link #actualizarSiVersion} permite ediciones optimistas sin candados.
  */
 public class Empresa {
     private final String nombre; // identificador único
-    private String sector;
-    private String correoElectronico;
+    private final AtomicReference<Datos> datos;
+
+    private record Datos(String sector, String correoElectronico, long version) {}
 
     /**
      * Crea una empresa validando que los datos obligatorios no estén vacíos.
@@ -23,8 +28,18 @@ public class Empresa {
         if (correoElectronico == null || correoElectronico.isBlank())
             throw new IllegalArgumentException("El correo es obligatorio");
         this.nombre = nombre.trim();
-        this.sector = sector.trim();
-        this.correoElectronico = correoElectronico.trim();
+        this.datos = new AtomicReference<>(new Datos(sector.trim(), correoElectronico.trim(), 0));
+    }
+
+    /**
+     * Crea una empresa con una versión ya conocida (al leerla de un almacenamiento persistente).
+     * @param nombre nombre único de la empresa; sector sector económico; correoElectronico correo de contacto; version versión almacenada
+     * @throws IllegalArgumentException si algún campo obligatorio es nulo o vacío, o la versión es negativa
+     */
+    public Empresa(String nombre, String sector, String correoElectronico, long version) {
+        this(nombre, sector, correoElectronico);
+        if (version < 0) throw new IllegalArgumentException("La versión no puede ser negativa");
+        this.datos.set(new Datos(getSector(), getCorreoElectronico(), version));
     }
 
     /**
@@ -37,13 +52,28 @@ public class Empresa {
      * Devuelve el sector económico de la empresa.
      * @return sector de la empresa
      */
-    public String getSector() { return sector; }
+    public String getSector() { return datos.get().sector(); }
 
     /**
      * Devuelve el correo electrónico de contacto de la empresa.
      * @return correo electrónico de la empresa
      */
-    public String getCorreoElectronico() { return correoElectronico; }
+    public String getCorreoElectronico() { return datos.get().correoElectronico(); }
+
+    /**
+     * Devuelve la versión actual de los datos editables (empieza en 0 y aumenta con cada cambio).
+     * @return versión de la empresa
+     */
+    public long getVersion() { return datos.get().version(); }
+
+    /**
+     * Devuelve una copia independiente con los mismos datos y versión, leídos de forma atómica.
+     * @return copia de la empresa
+     */
+    public Empresa copia() {
+        Datos d = datos.get();
+        return new Empresa(nombre, d.sector(), d.correoElectronico(), d.version());
+    }
 
     /**
      * Actualiza el sector económico (no vacío).
@@ -53,7 +83,7 @@ public class Empresa {
     public void setSector(String sector) {
         if (sector == null || sector.isBlank())
             throw new IllegalArgumentException("Sector inválido");
-        this.sector = sector.trim();
+        actualizar(sector, null);
     }
 
     /**
@@ -64,7 +94,37 @@ public class Empresa {
     public void setCorreoElectronico(String correo) {
         if (correo == null || correo.isBlank())
             throw new IllegalArgumentException("Correo inválido");
-        this.correoElectronico = correo.trim();
+        actualizar(null, correo);
+    }
+
+    /**
+     * Actualiza sector y/o correo en un solo cambio de versión.
+     * @param nuevoSector nuevo sector (nulo o vacío lo conserva); nuevoCorreo nuevo correo (nulo o vacío lo conserva)
+     */
+    public void actualizar(String nuevoSector, String nuevoCorreo) {
+        while (true) {
+            Datos actual = datos.get();
+            if (datos.compareAndSet(actual, siguiente(actual, nuevoSector, nuevoCorreo))) return;
+        }
+    }
+
+    /**
+     * Actualiza sector y/o correo solo si la versión actual es la esperada (edición optimista, sin candados).
+     * @param versionEsperada versión leída por quien edita; nuevoSector nuevo sector (nulo o vacío lo conserva); nuevoCorreo nuevo correo (nulo o vacío lo conserva)
+     * @return true si se aplicó; false si otra edición cambió la empresa antes
+     */
+    public boolean actualizarSiVersion(long versionEsperada, String nuevoSector, String nuevoCorreo) {
+        while (true) {
+            Datos actual = datos.get();
+            if (actual.version() != versionEsperada) return false;
+            if (datos.compareAndSet(actual, siguiente(actual, nuevoSector, nuevoCorreo))) return true;
+        }
+    }
+
+    private static Datos siguiente(Datos actual, String nuevoSector, String nuevoCorreo) {
+        return new Datos(nuevoSector == null || nuevoSector.isBlank() ? actual.sector() : nuevoSector.trim(),
+                nuevoCorreo == null || nuevoCorreo.isBlank() ? actual.correoElectronico() : nuevoCorreo.trim(),
+                actual.version() + 1);
     }
 
     /**
@@ -89,6 +149,7 @@ public class Empresa {
      * @return cadena descriptiva de la empresa
      */
     @Override public String toString() {
-        return nombre + " (" + sector + ") - " + correoElectronico;
+        Datos d = datos.get();
+        return nombre + " (" + d.sector() + ") - " + d.correoElectronico();
     }
 }
@@ -0,0 +1,171 @@
+package org.example.model;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Criterio para eliminar comentarios en bloque ({@link Stand#eliminarComentarios}): un comentario coincide si su
+ * fecha está en el rango indicado o si su autor está en el conjunto de visitantes (sin distinguir mayúsculas).
+ * El conjunto se traduce a los ordinales con que los stands guardan a los autores una vez por diccionario (en la
+ * práctica, una vez por repositorio), así la pasada por cada stand solo compara enteros.
+ */
+public final class FiltroComentarios {
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final boolean porFecha;
+    private final int desdeDia;
+    private final int hastaDia;
+    private final Set<String> visitantes; // en minúsculas
+    private volatile Resolucion resolucion; // último diccionario (y tamaño) al que se tradujeron los visitantes
+
+    private static final int MAX_SUELTOS = 4; // hasta aquí, comparar contra un int[] es más rápido que el BitSet
+
+    private record Resolucion(DiccionarioVisitantes diccionario, int tamano, BitSet ordinales, int[] sueltos) {}
+
+    /**
+     * Crea un filtro por rango de fechas y/o visitantes.
+     * @param desde primera fecha incluida (null sin límite inferior); hasta última fecha incluida (null sin límite superior); visitantes identificaciones de autores (null o vacío si no se filtra por autor)
+     * @throws IllegalArgumentException si no se indica ningún criterio o el rango está invertido
+     */
+    public FiltroComentarios(LocalDate desde, LocalDate hasta, Collection<String> visitantes) {
+        if (desde != null && hasta != null && desde.isAfter(hasta))
+            throw new IllegalArgumentException("El rango de fechas está invertido");
+        Set<String> ids = new HashSet<>();
+        if (visitantes != null) for (String v : visitantes) ids.add(v.trim().toLowerCase());
+        this.porFecha = desde != null || hasta != null;
+        if (!porFecha && ids.isEmpty())
+            throw new IllegalArgumentException("Indique un rango de fechas o visitantes");
+        this.desde = desde;
+        this.hasta = hasta;
+        this.desdeDia = desde == null ? Integer.MIN_VALUE : dia(desde);
+        this.hastaDia = hasta == null ? Integer.MAX_VALUE : dia(hasta);
+        this.visitantes = Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * Comentarios con fecha dentro del rango (ambos extremos incluidos).
+     * @param desde primera fecha (null sin límite); hasta última fecha (null sin límite)
+     * @return filtro por fechas
+     */
+    public static FiltroComentarios entreFechas(LocalDate desde, LocalDate hasta) {
+        return new FiltroComentarios(desde, hasta, null);
+    }
+
+    /**
+     * Comentarios anteriores a una fecha (para purgas por ventana de retención).
+     * @param fecha primera fecha que se conserva
+     * @return filtro por fechas
+     */
+    public static FiltroComentarios anterioresA(LocalDate fecha) {
+        return new FiltroComentarios(null, fecha.minusDays(1), null);
+    }
+
+    /**
+     * Comentarios de los visitantes indicados.
+     * @param identificaciones identificaciones de los autores
+     * @return filtro por autor
+     */
+    public static FiltroComentarios deVisitantes(Collection<String> identificaciones) {
+        return new FiltroComentarios(null, null, identificaciones);
+    }
+
+    /**
+     * Comentarios de cualquier fecha (para vaciar stands completos).
+     * @return filtro que coincide con todos los comentarios
+     */
+    public static FiltroComentarios todos() { return new FiltroComentarios(LocalDate.MIN, LocalDate.MAX, null); }
+
+    /**
+     * Primera fecha del rango.
+     * @return fecha, o null si no hay límite inferior (o no se filtra por fecha)
+     */
+    public LocalDate desde() { return desde; }
+
+    /**
+     * Última fecha del rango.
+     * @return fecha, o null si no hay límite superior (o no se filtra por fecha)
+     */
+    public LocalDate hasta() { return hasta; }
+
+    /**
+     * Primer día del rango en días desde la época (como se guardan las fechas de los comentarios).
+     * @return día, o {@link Integer#MIN_VALUE} sin límite inferior
+     */
+    public int desdeDia() { return desdeDia; }
+
+    /**
+     * Último día del rango en días desde la época.
+     * @return día, o {@link Integer#MAX_VALUE} sin límite superior
+     */
+    public int hastaDia() { return hastaDia; }
+
+    /**
+     * Indica si el filtro incluye un rango de fechas.
+     * @return true si filtra por fecha
+     */
+    public boolean porFecha() { return porFecha; }
+
+    /**
+     * Identificaciones de los autores filtrados.
+     * @return conjunto inmutable en minúsculas (vacío si no se filtra por autor)
+     */
+    public Set<String> visitantes() { return visitantes; }
+
+    /**
+     * Indica si un comentario coincide con el filtro.
+     * @param c comentario a evaluar
+     * @return true si debe eliminarse
+     */
+    public boolean coincide(Comentario c) {
+        return enRango(dia(c.fecha())) || visitantes.contains(c.visitanteId().toLowerCase());
+    }
+
+    /**
+     * Traduce los visitantes del filtro a ordinales de un diccionario (se recuerda el último, que es el que
+     * comparten todos los stands de un repositorio, junto con su tamaño: el diccionario solo crece, así que si
+     * registró identificaciones desde entonces se vuelve a traducir y un filtro reutilizado alcanza a los autores
+     * nuevos). Sin leer ni escribir el diccionario si no hay visitantes.
+     * @param diccionario diccionario de los stands a filtrar
+     * @return ordinales de los autores filtrados (no debe modificarse)
+     */
+    BitSet ordinalesEn(DiccionarioVisitantes diccionario) {
+        if (visitantes.isEmpty() || diccionario == null) return new BitSet();
+        return resolver(diccionario).ordinales();
+    }
+
+    /**
+     * Los mismos ordinales que {@link #ordinalesEn} como arreglo, cuando el filtro es solo por unos pocos autores
+     * (el caso de eliminar un visitante): la pasada por cada stand los compara directamente.
+     * @param diccionario diccionario de los stands a filtrar
+     * @return ordinales de los autores, o null si el filtro incluye fechas o muchos autores
+     */
+    int[] ordinalesSueltosEn(DiccionarioVisitantes diccionario) {
+        if (porFecha || visitantes.isEmpty() || diccionario == null) return null;
+        return resolver(diccionario).sueltos();
+    }
+
+    private Resolucion resolver(DiccionarioVisitantes diccionario) {
+        Resolucion r = resolucion;
+        int tamano = diccionario.tamano(); // antes de traducir: si crece mientras tanto, la próxima vez se repite
+        if (r == null || r.diccionario() != diccionario || r.tamano() != tamano) {
+            BitSet ordinales = diccionario.ordinalesDe(visitantes);
+            int[] sueltos = ordinales.cardinality() <= MAX_SUELTOS ? ordinales.stream().toArray() : null;
+            r = new Resolucion(diccionario, tamano, ordinales, sueltos);
+            resolucion = r;
+        }
+        return r;
+    }
+
+    /**
+     * Versión por columnas de {@link #coincide(Comentario)}.
+     * @param autores ordinales obtenidos con {@link #ordinalesEn}; ordinal ordinal del autor; dia fecha en días desde la época
+     * @return true si debe eliminarse
+     */
+    boolean coincide(BitSet autores, int ordinal, int dia) { return enRango(dia) || autores.get(ordinal); }
+
+    private static int dia(LocalDate fecha) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, fecha.toEpochDay()));
+    }
+
+    private boolean enRango(int dia) { return porFecha && dia >= desdeDia && dia <= hastaDia; }
+}
@@ -1,20 +1,44 @@
 package org.example.model;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Representa un stand dentro de la feria: número único, ubicación, tamaño, empresa asignada (opcional)
  * y comentarios/calificaciones realizados por visitantes.
+ * <p>
+ * La asignación de empresa lleva un número de versión y se cambia con CAS, lo que permite asignar o liberar
+ * el stand de forma condicional ({@link #asignarEmpresaSiVersion}, {@link #desasignarSiVersion}) sin candados.
+ * <p>
+ * Los comentarios se guardan por columnas en arreglos primitivos que crecen al duplicarse (calificación en
+ * {@code byte}, visitante como ordinal del {@link DiccionarioVisitantes} de la feria y fecha en días desde la época) con los
+ * textos aparte; la suma de calificaciones se mantiene al día, así que promedio y total no recorren nada, y
+ * los {@link Comentario} solo se crean al pedirlos.
+ * <p>
+ * Un repositorio persistente puede entregar el stand sin comentarios y dejarle un cargador
+ * ({@link #cargarComentariosAlUsar}) que los lee la primera vez que se consultan.
  */
 public class Stand {
     private final String numero;         // único
     private String ubicacion;
+    private final Ubicacion ubicacionDetallada;
     private StandSize tamano;
-    private Empresa empresaAsignada; // null si disponible
-    private final List<Comentario> comentarios = new ArrayList<>();
+    private final AtomicReference<Asignacion> asignacion = new AtomicReference<>(new Asignacion(null, 0));
+    private byte[] calificaciones = new byte[0];
+    private volatile Autores autores = new Autores(new int[0], null);
+    private int[] dias = new int[0];        // LocalDate.toEpochDay()
+    private String[] textos = new String[0];
+    private int totalComentarios;
+    private long sumaCalificaciones;
+    private Consumer<Stand> cargador; // carga diferida de comentarios (null si ya están en memoria)
 
     /**
      * Crea un stand garantizando datos obligatorios y formateo básico.
@@ -29,9 +53,33 @@ public class Stand {
         if (tamano == null) throw new IllegalArgumentException("El tamaño es obligatorio");
         this.numero = numero.trim();
         this.ubicacion = ubicacion.trim();
+        this.ubicacionDetallada = Ubicacion.parsear(this.ubicacion);
         this.tamano = tamano;
     }
 
+    /**
+     * Empresa asignada (null si el stand está disponible) y versión de la asignación.
+     */
+    private record Asignacion(Empresa empresa, long version) {}
+
+    /**
+     * Columna de autores (ordinales) y el diccionario que los traduce: el del repositorio, o uno propio creado con
+     * el primer comentario (null hasta entonces). Cambiar de diccionario reemplaza ambos en una sola escritura, así
+     * un lector sin candado nunca traduce ordinales nuevos con el diccionario anterior.
+     */
+    private record Autores(int[] ordinales, DiccionarioVisitantes diccionario) {}
+
+    /**
+     * Crea un stand con su asignación y versión ya conocidas (al leerlo de un almacenamiento persistente).
+     * @param numero número único del stand; ubicacion ubicación legible; tamano tamaño del stand; empresa empresa asignada (null si está disponible); version versión almacenada
+     * @throws IllegalArgumentException si algún dato es inválido o la versión es negativa
+     */
+    public Stand(String numero, String ubicacion, StandSize tamano, Empresa empresa, long version) {
+        this(numero, ubicacion, tamano);
+        if (version < 0) throw new IllegalArgumentException("La versión no puede ser negativa");
+        asignacion.set(new Asignacion(empresa, version));
+    }
+
     /**
      * Devuelve el número único del stand.
      * @return número del stand
@@ -44,6 +92,12 @@ public class Stand {
      */
     public String getUbicacion() { return ubicacion; }
 
+    /**
+     * Devuelve la ubicación interpretada (pabellón, fila y posición).
+     * @return ubicación estructurada
+     */
+    public Ubicacion getUbicacionDetallada() { return ubicacionDetallada; }
+
     /**
      * Devuelve el tamaño del stand.
      * @return tamaño (PEQUENO|MEDIANO|GRANDE)
@@ -54,13 +108,65 @@ public class Stand {
      * Devuelve la empresa asignada, si existe.
      * @return Optional con la empresa asignada o vacío si el stand está disponible
      */
-    public Optional<Empresa> getEmpresaAsignada() { return Optional.ofNullable(empresaAsignada); }
+    public Optional<Empresa> getEmpresaAsignada() { return Optional.ofNullable(asignacion.get().empresa()); }
+
+    /**
+     * Devuelve la versión de la asignación (empieza en 0 y aumenta con cada asignación o liberación).
+     * @return versión del stand
+     */
+    public long getVersion() { return asignacion.get().version(); }
+
+    /**
+     * Devuelve una copia independiente del stand (asignación, versión y comentarios actuales); la empresa
+     * asignada se comparte con el original.
+     * @return copia del stand
+     */
+    public Stand copia() {
+        asegurarComentarios();
+        Asignacion a = asignacion.get();
+        Stand c = new Stand(numero, ubicacion, tamano, a.empresa(), a.version());
+        int n = totalComentarios;
+        Autores propios = autores;
+        c.calificaciones = Arrays.copyOf(calificaciones, n);
+        // nunca se quitan entradas: la copia sigue leyendo el diccionario aunque el original cambie a otro
+        c.autores = new Autores(Arrays.copyOf(propios.ordinales(), n), propios.diccionario());
+        c.dias = Arrays.copyOf(dias, n);
+        c.textos = Arrays.copyOf(textos, n);
+        c.totalComentarios = n;
+        c.sumaCalificaciones = sumaCalificaciones;
+        return c;
+    }
+
+    /**
+     * Pasa el stand a otro diccionario de visitantes (el del repositorio que lo guarda), traduciendo los ordinales
+     * de sus comentarios a una columna nueva que se publica junto con el diccionario. Las copias tomadas antes y
+     * los lectores en curso siguen leyendo la columna y el diccionario anteriores.
+     * @param nuevo diccionario destino
+     */
+    public void usarDiccionario(DiccionarioVisitantes nuevo) {
+        Autores a = autores;
+        if (nuevo == a.diccionario()) return;
+        int[] origen = a.ordinales();
+        int[] traducidos = new int[origen.length];
+        int n = totalComentarios; // con carga diferida aún no hay comentarios: el cargador usará el nuevo
+        int anterior = -1;
+        int traducido = -1;
+        for (int i = 0; i < n; i++) {
+            int v = origen[i];
+            if (v != anterior) { // los comentarios seguidos de un mismo autor se traducen una vez
+                anterior = v;
+                traducido = nuevo.ordinal(a.diccionario().identificacion(v));
+            }
+            traducidos[i] = traducido;
+        }
+        autores = new Autores(traducidos, nuevo);
+    }
 
     /**
      * Indica si el stand no tiene empresa asignada.
      * @return true si está disponible; false si está ocupado
      */
-    public boolean estaDisponible() { return empresaAsignada == null; }
+    public boolean estaDisponible() { return asignacion.get().empresa() == null; }
 
     /**
      * Asigna una empresa al stand si está disponible.
@@ -68,45 +174,210 @@ public class Stand {
      * @throws IllegalStateException si el stand ya está asignado a otra empresa
      */
     public void asignarEmpresa(Empresa e) {
-        if (!estaDisponible())
-            throw new IllegalStateException("El stand ya está asignado a: " + empresaAsignada.getNombre());
-        this.empresaAsignada = e;
+        while (true) {
+            Asignacion actual = asignacion.get();
+            if (actual.empresa() != null)
+                throw new IllegalStateException("El stand ya está asignado a: " + actual.empresa().getNombre());
+            if (asignacion.compareAndSet(actual, new Asignacion(e, actual.version() + 1))) return;
+        }
+    }
+
+    /**
+     * Asigna una empresa solo si la versión actual es la esperada.
+     * @param versionEsperada versión leída por quien asigna; e empresa a asignar
+     * @return true si se asignó; false si la asignación cambió antes
+     * @throws IllegalStateException si la versión coincide pero el stand ya está asignado
+     */
+    public boolean asignarEmpresaSiVersion(long versionEsperada, Empresa e) {
+        while (true) {
+            Asignacion actual = asignacion.get();
+            if (actual.version() != versionEsperada) return false;
+            if (actual.empresa() != null)
+                throw new IllegalStateException("El stand ya está asignado a: " + actual.empresa().getNombre());
+            if (asignacion.compareAndSet(actual, new Asignacion(e, actual.version() + 1))) return true;
+        }
     }
 
     /**
      * Desasigna la empresa (deja el stand disponible).
      */
-    public void desasignar() { this.empresaAsignada = null; }
+    public void desasignar() {
+        while (true) {
+            Asignacion actual = asignacion.get();
+            if (asignacion.compareAndSet(actual, new Asignacion(null, actual.version() + 1))) return;
+        }
+    }
+
+    /**
+     * Desasigna la empresa solo si la versión actual es la esperada.
+     * @param versionEsperada versión leída por quien libera el stand
+     * @return true si se liberó; false si la asignación cambió antes
+     */
+    public boolean desasignarSiVersion(long versionEsperada) {
+        while (true) {
+            Asignacion actual = asignacion.get();
+            if (actual.version() != versionEsperada) return false;
+            if (asignacion.compareAndSet(actual, new Asignacion(null, actual.version() + 1))) return true;
+        }
+    }
 
     /**
      * Agrega un comentario/calificación al stand (no se realizan validaciones adicionales aquí).
      * @param c comentario ya validado (con visitanteId, fecha, calificación 1..5 y texto)
      */
-    public void agregarComentario(Comentario c) { comentarios.add(c); }
+    public void agregarComentario(Comentario c) {
+        asegurarComentarios();
+        int n = totalComentarios;
+        Autores a = autores;
+        if (n == calificaciones.length || a.diccionario() == null) {
+            int capacidad = n == calificaciones.length ? Math.max(4, n * 2) : calificaciones.length;
+            calificaciones = Arrays.copyOf(calificaciones, capacidad);
+            dias = Arrays.copyOf(dias, capacidad);
+            textos = Arrays.copyOf(textos, capacidad);
+            a = new Autores(Arrays.copyOf(a.ordinales(), capacidad),
+                    a.diccionario() == null ? new DiccionarioVisitantes() : a.diccionario());
+            autores = a;
+        }
+        calificaciones[n] = (byte) c.calificacion();
+        a.ordinales()[n] = a.diccionario().ordinal(c.visitanteId());
+        dias[n] = (int) c.fecha().toEpochDay();
+        textos[n] = c.texto();
+        sumaCalificaciones += c.calificacion();
+        totalComentarios = n + 1;
+    }
+
+    /**
+     * Devuelve los comentarios del stand, creados a partir de las columnas en este momento.
+     * @return lista inmutable de comentarios, en orden de registro
+     */
+    public List<Comentario> getComentarios() {
+        asegurarComentarios();
+        int n = totalComentarios;
+        Autores a = autores;
+        Comentario[] lista = new Comentario[n];
+        LocalDate fecha = null;
+        for (int i = 0; i < n; i++) {
+            // Los comentarios seguidos suelen ser del mismo día: se reutiliza la fecha
+            if (fecha == null || fecha.toEpochDay() != dias[i]) fecha = LocalDate.ofEpochDay(dias[i]);
+            lista[i] = new Comentario(a.diccionario().identificacion(a.ordinales()[i]), fecha, calificaciones[i],
+                    textos[i]);
+        }
+        return List.of(lista);
+    }
 
     /**
-     * Devuelve una copia inmutable de los comentarios del stand.
-     * @return lista inmutable de comentarios
+     * Devuelve un comentario por su posición, creándolo a partir de las columnas.
+     * @param indice posición (0 es el más antiguo)
+     * @return comentario en esa posición
+     * @throws IndexOutOfBoundsException si el índice no está entre 0 y {@link #totalComentarios()} - 1
      */
-    public List<Comentario> getComentarios() { return List.copyOf(comentarios); }
+    public Comentario comentario(int indice) {
+        asegurarComentarios();
+        Objects.checkIndex(indice, totalComentarios);
+        Autores a = autores;
+        return new Comentario(a.diccionario().identificacion(a.ordinales()[indice]),
+                LocalDate.ofEpochDay(dias[indice]), calificaciones[indice], textos[indice]);
+    }
 
     /**
-     * Calcula el promedio de calificaciones (1..5) si existen comentarios.
+     * Calcula el promedio de calificaciones (1..5) si existen comentarios, con la suma que se mantiene al registrar.
      * @return OptionalDouble con el promedio o vacío si no hay calificaciones
      */
     public OptionalDouble promedioCalificacion() {
-        return comentarios.stream().mapToInt(Comentario::calificacion).average();
+        asegurarComentarios();
+        int n = totalComentarios;
+        return n == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) sumaCalificaciones / n);
     }
 
     /**
-     * Elimina todos los comentarios hechos por un visitante específico.
+     * Elimina todos los comentarios hechos por un visitante específico, compactando las columnas en una pasada.
      * @param visitanteId identificación del visitante cuyos comentarios serán eliminados
      * @return cantidad de comentarios eliminados
      */
     public int eliminarComentariosDeVisitante(String visitanteId) {
-        int antes = comentarios.size();
-        comentarios.removeIf(c -> c.visitanteId().equalsIgnoreCase(visitanteId));
-        return antes - comentarios.size();
+        asegurarComentarios();
+        int n = totalComentarios;
+        if (n == 0) return 0;
+        int[] visitantes = autores.ordinales();
+        int[] objetivos = autores.diccionario().ordinalesDe(visitanteId); // el autor se compara como entero
+        if (objetivos.length == 0) return 0; // nunca comentó en este stand
+        int escritos = 0;
+        for (int i = 0; i < n; i++) {
+            int v = visitantes[i];
+            if (contiene(objetivos, v)) {
+                sumaCalificaciones -= calificaciones[i];
+                continue;
+            }
+            if (escritos != i) mover(visitantes, i, escritos);
+            escritos++;
+        }
+        Arrays.fill(textos, escritos, n, null);
+        totalComentarios = escritos;
+        return n - escritos;
+    }
+
+    private static boolean contiene(int[] ordinales, int ordinal) {
+        for (int o : ordinales) if (o == ordinal) return true;
+        return false;
+    }
+
+    /**
+     * Elimina los comentarios que coinciden con el filtro, compactando las columnas en una sola pasada.
+     * @param filtro criterio de eliminación; autores colección donde se agregan las identificaciones de los autores de los comentarios eliminados (null si no interesa)
+     * @return cantidad de comentarios eliminados
+     */
+    public int eliminarComentarios(FiltroComentarios filtro, Collection<String> autores) {
+        asegurarComentarios();
+        int n = totalComentarios;
+        if (n == 0) return 0;
+        Autores a = this.autores; // el parámetro autores es la colección de salida
+        int[] visitantes = a.ordinales();
+        BitSet filtrados = filtro.ordinalesEn(a.diccionario());
+        if (!filtro.porFecha() && filtrados.isEmpty()) return 0; // ningún autor filtrado comentó en esta feria
+        int[] sueltos = filtro.ordinalesSueltosEn(a.diccionario());
+        int escritos = 0;
+        int ultimoAutor = -1;
+        for (int i = 0; i < n; i++) {
+            int v = visitantes[i];
+            if (sueltos != null ? contiene(sueltos, v) : filtro.coincide(filtrados, v, dias[i])) {
+                sumaCalificaciones -= calificaciones[i];
+                if (autores != null && v != ultimoAutor) autores.add(a.diccionario().identificacion(v));
+                ultimoAutor = v;
+                continue;
+            }
+            if (escritos != i) mover(visitantes, i, escritos);
+            escritos++;
+        }
+        Arrays.fill(textos, escritos, n, null);
+        totalComentarios = escritos;
+        return n - escritos;
+    }
+
+    /**
+     * Agrega a destino los autores de los comentarios que coinciden con el filtro, sin eliminar nada.
+     * @param filtro criterio; destino colección donde se agregan las identificaciones
+     */
+    public void autoresComentarios(FiltroComentarios filtro, Collection<String> destino) {
+        asegurarComentarios();
+        int n = totalComentarios;
+        if (n == 0) return;
+        Autores a = autores;
+        BitSet filtrados = filtro.ordinalesEn(a.diccionario());
+        int ultimoAutor = -1;
+        for (int i = 0; i < n; i++) {
+            int v = a.ordinales()[i];
+            if (v != ultimoAutor && filtro.coincide(filtrados, v, dias[i])) {
+                destino.add(a.diccionario().identificacion(v));
+                ultimoAutor = v;
+            }
+        }
+    }
+
+    private void mover(int[] visitantes, int desde, int hacia) {
+        calificaciones[hacia] = calificaciones[desde];
+        visitantes[hacia] = visitantes[desde];
+        dias[hacia] = dias[desde];
+        textos[hacia] = textos[desde];
     }
 
     /**
@@ -114,7 +385,32 @@ public class Stand {
      * @return número de comentarios
      */
     public int totalComentarios() {
-        return comentarios.size();
+        asegurarComentarios();
+        return totalComentarios;
+    }
+
+    /**
+     * Deja los comentarios sin cargar: el cargador se ejecuta una sola vez, la primera vez que se consultan o
+     * modifican, y debe agregarlos con {@link #agregarComentario}.
+     * @param cargador función que agrega al stand sus comentarios almacenados
+     * @throws IllegalStateException si el stand ya tiene comentarios en memoria
+     */
+    public void cargarComentariosAlUsar(Consumer<Stand> cargador) {
+        if (totalComentarios > 0) throw new IllegalStateException("El stand ya tiene comentarios cargados");
+        this.cargador = cargador;
+    }
+
+    /**
+     * Indica si los comentarios ya están en memoria (false mientras haya una carga diferida pendiente).
+     * @return true si están cargados
+     */
+    public boolean comentariosCargados() { return cargador == null; }
+
+    private void asegurarComentarios() {
+        Consumer<Stand> c = cargador;
+        if (c == null) return;
+        cargador = null;
+        c.accept(this);
     }
 
     /**
@@ -122,7 +418,8 @@ public class Stand {
      * @return representación textual del stand
      */
     @Override public String toString() {
-        String estado = estaDisponible() ? "DISPONIBLE" : "OCUPADO por " + empresaAsignada.getNombre();
+        Empresa empresa = asignacion.get().empresa();
+        String estado = empresa == null ? "DISPONIBLE" : "OCUPADO por " + empresa.getNombre();
         String prom = promedioCalificacion().isPresent()
                 ? String.format(" | ★%.2f", promedioCalificacion().getAsDouble())
                 : "";
@@ -0,0 +1,58 @@
+package org.example.model;
+
+import java.util.Locale;
+
+/**
+ * Ubicación estructurada de un stand, obtenida del texto legible (ej. "Pabellón A, Stand 10" o
+ * "Pabellón C, Fila 2, Stand 15").
+ * @param pabellon identificador del pabellón (ej. "A"); fila fila dentro del pabellón (0 si no se indica); posicion número de stand dentro del pabellón (-1 si no se indica)
+ */
+public record Ubicacion(String pabellon, int fila, int posicion) {
+
+    /**
+     * Interpreta una ubicación legible. Reconoce las partes "Pabellón X", "Fila N" y "Stand N"/"Posición N"
+     * separadas por comas; si no hay parte de pabellón, se usa el primer tramo como pabellón.
+     * @param texto ubicación legible
+     * @return ubicación estructurada
+     * @throws IllegalArgumentException si el texto es nulo o vacío
+     */
+    public static Ubicacion parsear(String texto) {
+        if (texto == null || texto.isBlank()) throw new IllegalArgumentException("La ubicación es obligatoria");
+        String[] partes = texto.split(",");
+        String pabellon = null;
+        int fila = 0;
+        int posicion = -1;
+        for (String parte : partes) {
+            String p = parte.trim();
+            String minus = p.toLowerCase(Locale.ROOT);
+            if (minus.startsWith("pabellón") || minus.startsWith("pabellon")) {
+                pabellon = p.substring("pabellon".length()).trim();
+            } else if (minus.startsWith("fila")) {
+                fila = numero(p.substring(4), 0);
+            } else if (minus.startsWith("stand")) {
+                posicion = numero(p.substring(5), -1);
+            } else if (minus.startsWith("posición") || minus.startsWith("posicion")) {
+                posicion = numero(p.substring(8), -1);
+            }
+        }
+        if (pabellon == null || pabellon.isEmpty()) pabellon = partes[0].trim();
+        return new Ubicacion(pabellon, fila, posicion);
+    }
+
+    /**
+     * Normaliza un nombre de pabellón escrito por el usuario ("Pabellón A", "pabellon a" o "A") a su clave.
+     * @param pabellon texto del pabellón
+     * @return clave en minúsculas sin el prefijo "pabellón"
+     */
+    public static String clavePabellon(String pabellon) {
+        return parsear(pabellon).pabellon().toLowerCase(Locale.ROOT);
+    }
+
+    private static int numero(String s, int porDefecto) {
+        String t = s.trim();
+        int fin = 0;
+        while (fin < t.length() && Character.isDigit(t.charAt(fin))) fin++;
+        if (fin == 0 || fin > 9) return porDefecto;
+        return Integer.parseInt(t.substring(0, fin));
+    }
+}
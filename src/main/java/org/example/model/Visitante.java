@@ -1,14 +1,18 @@
 package org.example.model;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Representa a un visitante de la feria con identificación única, nombre y correo de contacto.
+ * <p>
+ * Nombre, correo y versión forman un estado inmutable reemplazado con CAS (ver {@link #actualizarSiVersion}).
  */
 public class Visitante {
     private final String identificacion; // único
-    private String nombre;
-    private String correoElectronico;
+    private final AtomicReference<Datos> datos;
+
+    private record Datos(String nombre, String correoElectronico, long version) {}
 
     /**
      * Crea un visitante validando campos obligatorios.
@@ -23,8 +27,18 @@ public class Visitante {
         if (correoElectronico == null || correoElectronico.isBlank())
             throw new IllegalArgumentException("El correo es obligatorio");
         this.identificacion = identificacion.trim();
-        this.nombre = nombre.trim();
-        this.correoElectronico = correoElectronico.trim();
+        this.datos = new AtomicReference<>(new Datos(nombre.trim(), correoElectronico.trim(), 0));
+    }
+
+    /**
+     * Crea un visitante con una versión ya conocida (al leerlo de un almacenamiento persistente).
+     * @param identificacion identificación única; nombre nombre completo; correoElectronico correo de contacto; version versión almacenada
+     * @throws IllegalArgumentException si algún campo es nulo o está vacío, o la versión es negativa
+     */
+    public Visitante(String identificacion, String nombre, String correoElectronico, long version) {
+        this(identificacion, nombre, correoElectronico);
+        if (version < 0) throw new IllegalArgumentException("La versión no puede ser negativa");
+        this.datos.set(new Datos(getNombre(), getCorreoElectronico(), version));
     }
 
     /**
@@ -37,13 +51,28 @@ public class Visitante {
      * Devuelve el nombre del visitante.
      * @return nombre del visitante
      */
-    public String getNombre() { return nombre; }
+    public String getNombre() { return datos.get().nombre(); }
 
     /**
      * Devuelve el correo electrónico del visitante.
      * @return correo electrónico del visitante
      */
-    public String getCorreoElectronico() { return correoElectronico; }
+    public String getCorreoElectronico() { return datos.get().correoElectronico(); }
+
+    /**
+     * Devuelve la versión actual de los datos editables (empieza en 0 y aumenta con cada cambio).
+     * @return versión del visitante
+     */
+    public long getVersion() { return datos.get().version(); }
+
+    /**
+     * Devuelve una copia independiente con los mismos datos y versión, leídos de forma atómica.
+     * @return copia del visitante
+     */
+    public Visitante copia() {
+        Datos d = datos.get();
+        return new Visitante(identificacion, d.nombre(), d.correoElectronico(), d.version());
+    }
 
     /**
      * Actualiza el nombre del visitante.
@@ -52,7 +81,7 @@ public class Visitante {
      */
     public void setNombre(String nombre) {
         if (nombre == null || nombre.isBlank()) throw new IllegalArgumentException("Nombre inválido");
-        this.nombre = nombre.trim();
+        actualizar(nombre, null);
     }
 
     /**
@@ -62,7 +91,37 @@ public class Visitante {
      */
     public void setCorreoElectronico(String correo) {
         if (correo == null || correo.isBlank()) throw new IllegalArgumentException("Correo inválido");
-        this.correoElectronico = correo.trim();
+        actualizar(null, correo);
+    }
+
+    /**
+     * Actualiza nombre y/o correo en un solo cambio de versión.
+     * @param nuevoNombre nuevo nombre (nulo o vacío lo conserva); nuevoCorreo nuevo correo (nulo o vacío lo conserva)
+     */
+    public void actualizar(String nuevoNombre, String nuevoCorreo) {
+        while (true) {
+            Datos actual = datos.get();
+            if (datos.compareAndSet(actual, siguiente(actual, nuevoNombre, nuevoCorreo))) return;
+        }
+    }
+
+    /**
+     * Actualiza nombre y/o correo solo si la versión actual es la esperada (edición optimista, sin candados).
+     * @param versionEsperada versión leída por quien edita; nuevoNombre nuevo nombre (nulo o vacío lo conserva); nuevoCorreo nuevo correo (nulo o vacío lo conserva)
+     * @return true si se aplicó; false si otra edición cambió al visitante antes
+     */
+    public boolean actualizarSiVersion(long versionEsperada, String nuevoNombre, String nuevoCorreo) {
+        while (true) {
+            Datos actual = datos.get();
+            if (actual.version() != versionEsperada) return false;
+            if (datos.compareAndSet(actual, siguiente(actual, nuevoNombre, nuevoCorreo))) return true;
+        }
+    }
+
+    private static Datos siguiente(Datos actual, String nuevoNombre, String nuevoCorreo) {
+        return new Datos(nuevoNombre == null || nuevoNombre.isBlank() ? actual.nombre() : nuevoNombre.trim(),
+                nuevoCorreo == null || nuevoCorreo.isBlank() ? actual.correoElectronico() : nuevoCorreo.trim(),
+                actual.version() + 1);
     }
 
     /**
@@ -87,6 +146,7 @@ public class Visitante {
      * @return cadena descriptiva del visitante
      */
     @Override public String toString() {
-        return identificacion + " - " + nombre + " - " + correoElectronico;
+        Datos d = datos.get();
+        return identificacion + " - " + d.nombre() + " - " + d.correoElectronico();
     }
 }
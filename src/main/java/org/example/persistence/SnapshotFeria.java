@@ -0,0 +1,397 @@
+package org.example.persistence;
+
+import org.example.model.*;
+import org.example.service.FeriaEmpresarial;
+import org.example.service.InstantaneaFeria;
+import org.example.utils.PoolCadenas;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Guarda y carga el estado completo de una {@link FeriaEmpresarial} en un snapshot binario compacto y versionado.
+ * <p>
+ * Formato (v2): cabecera mágica y versión; diccionario de cadenas (cada una con longitud varint + UTF-8);
+ * luego empresas, visitantes y stands referenciando cadenas por índice, cada uno con su versión de concurrencia
+ * optimista (varint de 64 bits), así una edición condicional con una versión leída antes de guardar no se acepta
+ * tras cargar. Los comentarios de cada stand se guardan por columnas: visitantes (índices), fechas (día epoch),
+ * calificaciones (un byte) y textos (índices).
+ * <p>
+ * Los snapshots v1 (sin versiones) se siguen cargando: sus entidades empiezan en versión 0, como cuando se
+ * guardaron (el formato anterior no conservaba versiones), y el siguiente guardado los escribe en v2.
+ */
+public final class SnapshotFeria {
+    /** "FERI" en ASCII. */
+    private static final int MAGICO = 0x46455249;
+    /** Versión actual del formato. */
+    public static final int VERSION = 2;
+    private static final int VERSION_SIN_VERSIONES = 1;
+    private static final int TAM_BUFFER = 1 << 20;
+
+    private SnapshotFeria() { }
+
+    /**
+     * Escribe el estado de la feria en un archivo (lo crea o lo reemplaza). Se escribe primero un temporal en el
+     * mismo directorio, se fuerza a disco y se renombra atómicamente, así una caída a mitad de la escritura deja
+     * intacto el snapshot anterior. Se guarda una {@link FeriaEmpresarial#instantanea()}, así la feria puede
+     * seguir recibiendo registros mientras tanto.
+     * @param feria feria a guardar; archivo ruta del snapshot
+     * @throws IOException si ocurre un error de escritura
+     */
+    public static void guardar(FeriaEmpresarial feria, Path archivo) throws IOException {
+        InstantaneaFeria estado = feria.instantanea(); // copia consistente aunque otros hilos sigan escribiendo
+        List<Empresa> empresas = estado.listarEmpresas();
+        List<Stand> stands = estado.listarStands();
+        List<Visitante> visitantes = estado.listarVisitantes();
+
+        // Primera pasada: diccionario de cadenas (nombres, correos, ids, ubicaciones y textos repetidos se guardan una vez)
+        Diccionario dic = new Diccionario();
+        Map<Empresa, Integer> indiceEmpresa = new HashMap<>(empresas.size() * 2);
+        for (Empresa e : empresas) {
+            indiceEmpresa.put(e, indiceEmpresa.size());
+            dic.indice(e.getNombre());
+            dic.indice(e.getSector());
+            dic.indice(e.getCorreoElectronico());
+        }
+        for (Visitante v : visitantes) {
+            dic.indice(v.getIdentificacion());
+            dic.indice(v.getNombre());
+            dic.indice(v.getCorreoElectronico());
+        }
+        List<List<Comentario>> comentariosPorStand = new ArrayList<>(stands.size());
+        for (Stand s : stands) {
+            dic.indice(s.getNumero());
+            dic.indice(s.getUbicacion());
+            List<Comentario> cs = s.getComentarios();
+            comentariosPorStand.add(cs);
+            for (Comentario c : cs) {
+                dic.indice(c.visitanteId());
+                dic.indice(c.texto());
+            }
+        }
+
+        Path absoluto = archivo.toAbsolutePath();
+        Path temporal = Files.createTempFile(absoluto.getParent(), absoluto.getFileName().toString(), ".tmp");
+        try {
+            escribir(temporal, dic, empresas, indiceEmpresa, visitantes, stands, comentariosPorStand);
+            try {
+                Files.move(temporal, absoluto, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static void escribir(Path temporal, Diccionario dic, List<Empresa> empresas,
+                                 Map<Empresa, Integer> indiceEmpresa, List<Visitante> visitantes, List<Stand> stands,
+                                 List<List<Comentario>> comentariosPorStand) throws IOException {
+        try (Salida out = new Salida(FileChannel.open(temporal, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))) {
+            out.entero(MAGICO);
+            out.entero(VERSION);
+
+            out.varint(dic.cadenas.size());
+            for (String s : dic.cadenas) out.cadena(s);
+
+            out.varint(empresas.size());
+            for (Empresa e : empresas) {
+                out.varint(dic.indice(e.getNombre()));
+                out.varint(dic.indice(e.getSector()));
+                out.varint(dic.indice(e.getCorreoElectronico()));
+                out.varlong(e.getVersion());
+            }
+
+            out.varint(visitantes.size());
+            for (Visitante v : visitantes) {
+                out.varint(dic.indice(v.getIdentificacion()));
+                out.varint(dic.indice(v.getNombre()));
+                out.varint(dic.indice(v.getCorreoElectronico()));
+                out.varlong(v.getVersion());
+            }
+
+            out.varint(stands.size());
+            for (int i = 0; i < stands.size(); i++) {
+                Stand s = stands.get(i);
+                List<Comentario> cs = comentariosPorStand.get(i);
+                out.varint(dic.indice(s.getNumero()));
+                out.varint(dic.indice(s.getUbicacion()));
+                out.byteSimple(s.getTamano().ordinal());
+                out.varint(s.getEmpresaAsignada().map(e -> indiceEmpresa.get(e) + 1).orElse(0));
+                out.varlong(s.getVersion());
+                out.varint(cs.size());
+                for (Comentario c : cs) out.varint(dic.indice(c.visitanteId()));
+                for (Comentario c : cs) out.varint((int) c.fecha().toEpochDay());
+                for (Comentario c : cs) out.byteSimple(c.calificacion());
+                for (Comentario c : cs) out.varint(dic.indice(c.texto()));
+            }
+            out.sincronizar();
+        }
+    }
+
+    /**
+     * Lee un snapshot y reemplaza con él el estado de la feria destino.
+     * @param archivo ruta del snapshot; destino feria cuyo estado será reemplazado
+     * @throws IOException si el archivo no existe, está truncado o no corresponde al formato o a una versión soportada
+     */
+    public static void cargar(Path archivo, FeriaEmpresarial destino) throws IOException {
+        cargar(archivo, destino, null);
+    }
+
+    /**
+     * Lee un snapshot y reemplaza con él el estado de la feria destino, canonizando las cadenas en un pool
+     * compartido (útil cuando varias ferias viven en el mismo proceso).
+     * @param archivo ruta del snapshot; destino feria cuyo estado será reemplazado; pool pool de cadenas compartido (o null)
+     * @throws IOException si el archivo no existe, está truncado o no corresponde al formato o a una versión soportada
+     */
+    public static void cargar(Path archivo, FeriaEmpresarial destino, PoolCadenas pool) throws IOException {
+        try (Entrada in = new Entrada(FileChannel.open(archivo, StandardOpenOption.READ))) {
+            if (in.entero() != MAGICO) throw new IOException("El archivo no es un snapshot de feria: " + archivo);
+            int version = in.entero();
+            if (version != VERSION && version != VERSION_SIN_VERSIONES)
+                throw new IOException("Versión de snapshot no soportada: " + version);
+            boolean conVersiones = version != VERSION_SIN_VERSIONES;
+
+            String[] cadenas = new String[in.longitud()];
+            for (int i = 0; i < cadenas.length; i++) {
+                cadenas[i] = pool == null ? in.cadena() : pool.internar(in.cadena());
+            }
+
+            int totalEmpresas = in.longitud();
+            List<Empresa> empresas = new ArrayList<>(totalEmpresas);
+            for (int i = 0; i < totalEmpresas; i++) {
+                empresas.add(new Empresa(cadenas[in.varint()], cadenas[in.varint()], cadenas[in.varint()],
+                        conVersiones ? in.varlong() : 0));
+            }
+
+            int totalVisitantes = in.longitud();
+            List<Visitante> visitantes = new ArrayList<>(totalVisitantes);
+            for (int i = 0; i < totalVisitantes; i++) {
+                visitantes.add(new Visitante(cadenas[in.varint()], cadenas[in.varint()], cadenas[in.varint()],
+                        conVersiones ? in.varlong() : 0));
+            }
+
+            StandSize[] tamanos = StandSize.values();
+            Map<Integer, LocalDate> fechas = new HashMap<>();
+            int totalStands = in.longitud();
+            List<Stand> stands = new ArrayList<>(totalStands);
+            int[] ids = new int[0];
+            int[] dias = new int[0];
+            byte[] notas = new byte[0];
+            for (int i = 0; i < totalStands; i++) {
+                String numero = cadenas[in.varint()];
+                String ubicacion = cadenas[in.varint()];
+                StandSize tamano = tamanos[in.byteSimple()];
+                int empresa = in.varint();
+                Empresa asignada = empresa > 0 ? empresas.get(empresa - 1) : null;
+                // en v1 la versión era la que dejaba asignar la empresa al cargar
+                long versionStand = conVersiones ? in.varlong() : asignada == null ? 0 : 1;
+                Stand s = new Stand(numero, ubicacion, tamano, asignada, versionStand);
+                int total = in.longitud();
+                if (ids.length < total) {
+                    ids = new int[total];
+                    dias = new int[total];
+                    notas = new byte[total];
+                }
+                for (int k = 0; k < total; k++) ids[k] = in.varint();
+                for (int k = 0; k < total; k++) dias[k] = in.varint();
+                for (int k = 0; k < total; k++) notas[k] = (byte) in.byteSimple();
+                for (int k = 0; k < total; k++) {
+                    LocalDate fecha = fechas.computeIfAbsent(dias[k], LocalDate::ofEpochDay);
+                    s.agregarComentario(new Comentario(cadenas[ids[k]], fecha, notas[k], cadenas[in.varint()]));
+                }
+                stands.add(s);
+            }
+            destino.restaurarEstado(empresas, stands, visitantes);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException("Snapshot corrupto: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Diccionario de cadenas: asigna un índice estable a cada cadena distinta en orden de aparición.
+     */
+    private static final class Diccionario {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> cadenas = new ArrayList<>();
+
+        int indice(String s) {
+            Integer i = indices.get(s);
+            if (i != null) return i;
+            indices.put(s, cadenas.size());
+            cadenas.add(s);
+            return cadenas.size() - 1;
+        }
+    }
+
+    /**
+     * Escritura secuencial con un buffer reutilizable que se vacía al canal cuando se llena.
+     */
+    private static final class Salida implements AutoCloseable {
+        private final FileChannel canal;
+        private final ByteBuffer buf = ByteBuffer.allocate(TAM_BUFFER);
+
+        Salida(FileChannel canal) { this.canal = canal; }
+
+        void asegurar(int n) throws IOException {
+            if (buf.remaining() < n) vaciar();
+        }
+
+        void vaciar() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) canal.write(buf);
+            buf.clear();
+        }
+
+        void entero(int v) throws IOException {
+            asegurar(4);
+            buf.putInt(v);
+        }
+
+        void byteSimple(int v) throws IOException {
+            asegurar(1);
+            buf.put((byte) v);
+        }
+
+        void varint(int v) throws IOException {
+            asegurar(5);
+            while ((v & ~0x7F) != 0) {
+                buf.put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            buf.put((byte) v);
+        }
+
+        void varlong(long v) throws IOException {
+            asegurar(10);
+            while ((v & ~0x7FL) != 0) {
+                buf.put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            buf.put((byte) v);
+        }
+
+        /**
+         * Vacía el buffer y fuerza el contenido del canal a disco.
+         */
+        void sincronizar() throws IOException {
+            vaciar();
+            canal.force(true);
+        }
+
+        void cadena(String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            int off = 0;
+            while (off < bytes.length) {
+                if (!buf.hasRemaining()) vaciar();
+                int n = Math.min(buf.remaining(), bytes.length - off);
+                buf.put(bytes, off, n);
+                off += n;
+            }
+        }
+
+        @Override public void close() throws IOException {
+            try {
+                vaciar();
+            } finally {
+                canal.close();
+            }
+        }
+    }
+
+    /**
+     * Lectura secuencial con un buffer que se recarga desde el canal a medida que se consume.
+     */
+    private static final class Entrada implements AutoCloseable {
+        private final FileChannel canal;
+        private final ByteBuffer buf = ByteBuffer.allocate(TAM_BUFFER);
+
+        Entrada(FileChannel canal) {
+            this.canal = canal;
+            buf.limit(0);
+        }
+
+        void exigir(int n) throws IOException {
+            if (buf.remaining() >= n) return;
+            buf.compact();
+            while (buf.position() < n) {
+                if (canal.read(buf) < 0) throw new IOException("Snapshot truncado");
+            }
+            buf.flip();
+        }
+
+        int entero() throws IOException {
+            exigir(4);
+            return buf.getInt();
+        }
+
+        int byteSimple() throws IOException {
+            exigir(1);
+            return buf.get() & 0xFF;
+        }
+
+        int varint() throws IOException {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = byteSimple();
+                v |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("Varint inválido");
+        }
+
+        long varlong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = byteSimple();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("Varint inválido");
+        }
+
+        /**
+         * Lee un tamaño (de arreglo, lista o cadena) y lo valida antes de reservar memoria: cada elemento ocupa
+         * al menos un byte, así que no puede superar lo que queda del archivo.
+         */
+        int longitud() throws IOException {
+            int n = varint();
+            long restantes = canal.size() - canal.position() + buf.remaining();
+            if (n < 0 || n > restantes) throw new IOException("Snapshot corrupto: longitud inválida " + n);
+            return n;
+        }
+
+        String cadena() throws IOException {
+            int len = longitud();
+            if (len <= buf.capacity()) {
+                exigir(len);
+                String s = new String(buf.array(), buf.position(), len, StandardCharsets.UTF_8);
+                buf.position(buf.position() + len);
+                return s;
+            }
+            byte[] bytes = new byte[len];
+            int off = 0;
+            while (off < len) {
+                exigir(1);
+                int n = Math.min(buf.remaining(), len - off);
+                buf.get(bytes, off, n);
+                off += n;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override public void close() throws IOException { canal.close(); }
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.repository;
+
+import org.example.model.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repositorio en memoria: tablas por clave en minúsculas (orden de inserción y búsqueda O(1)).
+ * Los comentarios viven dentro de cada {@link Stand}; las actualizaciones no requieren trabajo adicional.
+ * <p>
+ * Las tablas son concurrentes: las búsquedas y listados pueden correr sin candados mientras otro hilo da de alta
+ * o de baja entidades (las ediciones condicionales de {@code FeriaEmpresarial} leen así). Las escrituras siguen
+ * debiendo serializarse entre sí.
+ * <p>
+ * Los stands guardados comparten el {@link DiccionarioVisitantes} del repositorio. Cuando los comentarios
+ * eliminados desde la última compactación superan un cuarto de los que quedan, los stands pasan a un diccionario
+ * nuevo con solo los autores vigentes, así las purgas y bajas de visitantes también liberan sus identificaciones.
+ */
+public class RepositorioEnMemoria implements RepositorioFeria {
+    private final Tabla<Empresa> empresas = new Tabla<>();
+    private final Tabla<Stand> stands = new Tabla<>();
+    private final Tabla<Visitante> visitantes = new Tabla<>();
+    private static final int COMPACTAR_MINIMO = 4096; // comentarios eliminados antes de considerar compactar
+    private DiccionarioVisitantes diccionario = new DiccionarioVisitantes();
+    private long eliminadosSinCompactar;
+
+    private static String clave(String s) { return s.trim().toLowerCase(); }
+
+    /**
+     * Mapa concurrente que conserva el orden de inserción: cada clave recibe un ordinal creciente al darse de
+     * alta (reemplazar el valor lo conserva, como en un LinkedHashMap) y los listados recorren los ordinales.
+     */
+    private static final class Tabla<T> {
+        private record Entrada<T>(long ordinal, T valor) {}
+
+        private final ConcurrentHashMap<String, Entrada<T>> porClave = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<Long, T> porOrden = new ConcurrentSkipListMap<>();
+        private final AtomicLong siguiente = new AtomicLong();
+
+        T get(String clave) {
+            Entrada<T> e = porClave.get(clave);
+            return e == null ? null : e.valor();
+        }
+
+        void put(String clave, T valor) {
+            porClave.compute(clave, (k, previa) -> {
+                long ordinal = previa == null ? siguiente.getAndIncrement() : previa.ordinal();
+                porOrden.put(ordinal, valor);
+                return new Entrada<>(ordinal, valor);
+            });
+        }
+
+        void remove(String clave) {
+            porClave.computeIfPresent(clave, (k, e) -> {
+                porOrden.remove(e.ordinal());
+                return null;
+            });
+        }
+
+        Collection<T> values() { return porOrden.values(); }
+
+        void clear() {
+            porClave.clear();
+            porOrden.clear();
+        }
+    }
+
+    @Override public Optional<Empresa> buscarEmpresa(String nombre) {
+        return Optional.ofNullable(empresas.get(clave(nombre)));
+    }
+
+    @Override public List<Empresa> empresas() { return new ArrayList<>(empresas.values()); }
+
+    @Override public void guardarEmpresa(Empresa e) { empresas.put(clave(e.getNombre()), e); }
+
+    @Override public void actualizarEmpresa(Empresa e) { }
+
+    @Override public void eliminarEmpresa(Empresa e) { empresas.remove(clave(e.getNombre())); }
+
+    @Override public Optional<Stand> buscarStand(String numero) {
+        return Optional.ofNullable(stands.get(clave(numero)));
+    }
+
+    @Override public List<Stand> stands() { return new ArrayList<>(stands.values()); }
+
+    @Override public void guardarStand(Stand s) {
+        s.usarDiccionario(diccionario);
+        stands.put(clave(s.getNumero()), s);
+    }
+
+    @Override public void actualizarStand(Stand s) { }
+
+    @Override public Optional<Visitante> buscarVisitante(String id) {
+        return Optional.ofNullable(visitantes.get(clave(id)));
+    }
+
+    @Override public List<Visitante> visitantes() { return new ArrayList<>(visitantes.values()); }
+
+    @Override public void guardarVisitante(Visitante v) { visitantes.put(clave(v.getIdentificacion()), v); }
+
+    @Override public void actualizarVisitante(Visitante v) { }
+
+    @Override public void eliminarVisitante(Visitante v) { visitantes.remove(clave(v.getIdentificacion())); }
+
+    @Override public void agregarComentario(Stand s, Comentario c) { s.agregarComentario(c); }
+
+    @Override public Map<String, Integer> eliminarComentariosDeVisitante(String visitanteId) {
+        Map<String, Integer> porStand = new LinkedHashMap<>();
+        int total = 0;
+        for (Stand s : stands.values()) {
+            int eliminados = s.eliminarComentariosDeVisitante(visitanteId);
+            if (eliminados == 0) continue;
+            porStand.put(s.getNumero(), eliminados);
+            total += eliminados;
+        }
+        registrarEliminados(total);
+        return porStand;
+    }
+
+    /**
+     * Cada stand se compacta de forma independiente, así que se reparten entre los hilos del pool común.
+     */
+    @Override public Map<String, Integer> eliminarComentarios(Collection<Stand> lista, FiltroComentarios filtro,
+                                                          Collection<String> autores) {
+        record Parcial(String numero, int eliminados, List<String> autores) {}
+        List<Parcial> parciales = lista.parallelStream().map(s -> {
+            List<String> propios = new ArrayList<>();
+            int eliminados = s.eliminarComentarios(filtro, autores == null ? null : propios);
+            return new Parcial(s.getNumero(), eliminados, propios);
+        }).toList();
+        Map<String, Integer> porStand = new LinkedHashMap<>();
+        int total = 0;
+        for (Parcial p : parciales) {
+            if (p.eliminados() == 0) continue;
+            porStand.put(p.numero(), p.eliminados());
+            total += p.eliminados();
+            if (autores != null) autores.addAll(p.autores());
+        }
+        registrarEliminados(total);
+        return porStand;
+    }
+
+    /**
+     * Cuenta comentarios eliminados y compacta el diccionario cuando superan un cuarto de los que quedan (el
+     * recorrido de todos los comentarios se reparte entre las eliminaciones que lo provocaron).
+     */
+    private void registrarEliminados(int eliminados) {
+        eliminadosSinCompactar += eliminados;
+        if (eliminadosSinCompactar < COMPACTAR_MINIMO) return;
+        long vigentes = 0;
+        for (Stand s : stands.values()) vigentes += s.totalComentarios();
+        if (eliminadosSinCompactar * 4 >= vigentes) compactarDiccionario();
+    }
+
+    /**
+     * Pasa todos los stands a un diccionario de visitantes nuevo que solo contiene a los autores de sus
+     * comentarios actuales; el anterior se libera cuando ninguna copia de stand lo usa.
+     */
+    public void compactarDiccionario() {
+        DiccionarioVisitantes nuevo = new DiccionarioVisitantes();
+        for (Stand s : stands.values()) s.usarDiccionario(nuevo);
+        diccionario = nuevo;
+        eliminadosSinCompactar = 0;
+    }
+
+    /**
+     * Cantidad de identificaciones de visitantes en el diccionario de los stands.
+     * @return identificaciones registradas (incluye las de autores ya eliminados hasta la próxima compactación)
+     */
+    public int identificacionesEnDiccionario() { return diccionario.tamano(); }
+
+    @Override public void reemplazarTodo(Collection<Empresa> nuevasEmpresas, Collection<Stand> nuevosStands,
+                                         Collection<Visitante> nuevosVisitantes) {
+        empresas.clear();
+        stands.clear();
+        visitantes.clear();
+        diccionario = new DiccionarioVisitantes();
+        eliminadosSinCompactar = 0;
+        nuevasEmpresas.forEach(this::guardarEmpresa);
+        nuevosStands.forEach(this::guardarStand);
+        nuevosVisitantes.forEach(this::guardarVisitante);
+    }
+}
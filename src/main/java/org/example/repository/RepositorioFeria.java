@@ -0,0 +1,167 @@
+package org.example.repository;
+
+import org.example.model.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Almacenamiento de las entidades de la feria (empresas, stands, visitantes y comentarios).
+ * Las búsquedas por clave ignoran mayúsculas/minúsculas, igual que las reglas de unicidad del servicio.
+ * Las entidades son mutables: tras modificar una entidad obtenida del repositorio se debe llamar al
+ * método {@code actualizar*} correspondiente para que los backends persistentes registren el cambio.
+ */
+public interface RepositorioFeria extends AutoCloseable {
+
+    /**
+     * Busca una empresa por nombre.
+     * @param nombre nombre de la empresa
+     * @return Optional con la empresa o vacío si no existe
+     */
+    Optional<Empresa> buscarEmpresa(String nombre);
+
+    /**
+     * Devuelve todas las empresas en orden de registro.
+     * @return lista de empresas
+     */
+    List<Empresa> empresas();
+
+    /**
+     * Inserta una empresa nueva (la unicidad la valida el servicio).
+     * @param e empresa a insertar
+     */
+    void guardarEmpresa(Empresa e);
+
+    /**
+     * Persiste los cambios hechos sobre una empresa existente.
+     * @param e empresa modificada
+     */
+    void actualizarEmpresa(Empresa e);
+
+    /**
+     * Persiste los cambios de una empresa editada de forma condicional: la entidad ya pasó en memoria de
+     * {@code versionAnterior} a {@link Empresa#getVersion()}, y el cambio solo debe guardarse si la versión
+     * almacenada sigue siendo {@code versionAnterior}. En memoria basta con el CAS de la entidad.
+     * @param e empresa modificada; versionAnterior versión que tenía antes del cambio
+     * @return true si se guardó; false si otra edición la modificó antes en el almacenamiento
+     */
+    default boolean actualizarEmpresaSiVersion(Empresa e, long versionAnterior) {
+        actualizarEmpresa(e);
+        return true;
+    }
+
+    /**
+     * Elimina una empresa.
+     * @param e empresa a eliminar
+     */
+    void eliminarEmpresa(Empresa e);
+
+    /**
+     * Busca un stand por número (incluye sus comentarios; un backend persistente puede leerlos al primer uso).
+     * @param numero número del stand
+     * @return Optional con el stand o vacío si no existe
+     */
+    Optional<Stand> buscarStand(String numero);
+
+    /**
+     * Devuelve todos los stands en orden de creación (incluye sus comentarios).
+     * @return lista de stands
+     */
+    List<Stand> stands();
+
+    /**
+     * Inserta un stand nuevo.
+     * @param s stand a insertar
+     */
+    void guardarStand(Stand s);
+
+    /**
+     * Persiste los cambios de asignación/ubicación de un stand existente.
+     * @param s stand modificado
+     */
+    void actualizarStand(Stand s);
+
+    /**
+     * Persiste la asignación de un stand cambiada de forma condicional (ver {@link #actualizarEmpresaSiVersion}).
+     * @param s stand modificado; versionAnterior versión que tenía antes del cambio
+     * @return true si se guardó; false si otra operación lo modificó antes en el almacenamiento
+     */
+    default boolean actualizarStandSiVersion(Stand s, long versionAnterior) {
+        actualizarStand(s);
+        return true;
+    }
+
+    /**
+     * Busca un visitante por identificación.
+     * @param id identificación del visitante
+     * @return Optional con el visitante o vacío si no existe
+     */
+    Optional<Visitante> buscarVisitante(String id);
+
+    /**
+     * Devuelve todos los visitantes en orden de registro.
+     * @return lista de visitantes
+     */
+    List<Visitante> visitantes();
+
+    /**
+     * Inserta un visitante nuevo.
+     * @param v visitante a insertar
+     */
+    void guardarVisitante(Visitante v);
+
+    /**
+     * Persiste los cambios hechos sobre un visitante existente.
+     * @param v visitante modificado
+     */
+    void actualizarVisitante(Visitante v);
+
+    /**
+     * Persiste los cambios de un visitante editado de forma condicional (ver {@link #actualizarEmpresaSiVersion}).
+     * @param v visitante modificado; versionAnterior versión que tenía antes del cambio
+     * @return true si se guardó; false si otra edición lo modificó antes en el almacenamiento
+     */
+    default boolean actualizarVisitanteSiVersion(Visitante v, long versionAnterior) {
+        actualizarVisitante(v);
+        return true;
+    }
+
+    /**
+     * Elimina un visitante (sus comentarios se eliminan aparte).
+     * @param v visitante a eliminar
+     */
+    void eliminarVisitante(Visitante v);
+
+    /**
+     * Agrega un comentario a un stand existente.
+     * @param s stand destino; c comentario ya validado
+     */
+    void agregarComentario(Stand s, Comentario c);
+
+    /**
+     * Elimina los comentarios de un visitante en todos los stands.
+     * @param visitanteId identificación del visitante
+     * @return comentarios eliminados por número de stand, solo para los stands con eliminaciones (en orden de creación)
+     */
+    Map<String, Integer> eliminarComentariosDeVisitante(String visitanteId);
+
+    /**
+     * Elimina en bloque los comentarios de los stands indicados que coinciden con el filtro.
+     * @param stands stands a purgar; filtro criterio de eliminación; autores colección donde se agregan las identificaciones de los autores de comentarios eliminados (null si no interesa)
+     * @return comentarios eliminados por número de stand, solo para los stands con eliminaciones
+     */
+    Map<String, Integer> eliminarComentarios(Collection<Stand> stands, FiltroComentarios filtro, Collection<String> autores);
+
+    /**
+     * Reemplaza todo el contenido del repositorio (carga masiva).
+     * @param empresas empresas; stands stands con asignaciones y comentarios; visitantes visitantes
+     */
+    void reemplazarTodo(Collection<Empresa> empresas, Collection<Stand> stands, Collection<Visitante> visitantes);
+
+    /**
+     * Libera los recursos del repositorio (por defecto no hace nada).
+     */
+    @Override default void close() { }
+}
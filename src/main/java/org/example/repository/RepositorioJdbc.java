@@ -0,0 +1,464 @@
+package org.example.repository;
+
+import org.example.model.*;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Repositorio en una base de datos embebida en disco vía JDBC (probado con H2 en modo archivo,
+ * ej. {@code jdbc:h2:file:./datos/feria}; el SQL es estándar y también sirve para SQLite).
+ * <p>
+ * Usa sentencias preparadas reutilizables para las búsquedas y acumula en lotes las inserciones de
+ * visitantes y comentarios; los lotes pendientes se envían (y se confirma la transacción) al alcanzar
+ * el tamaño configurado o antes de cualquier lectura que pudiera depender de ellos.
+ * <p>
+ * Empresas, stands y visitantes guardan su versión en una columna {@code version}; las actualizaciones
+ * condicionales usan {@code UPDATE ... WHERE version = ?} para detectar ediciones concurrentes.
+ */
+public class RepositorioJdbc implements RepositorioFeria {
+    private static final int LOTE_POR_DEFECTO = 1_000;
+
+    private final Connection cx;
+    private final int tamanoLote;
+    private final PreparedStatement psBuscarEmpresa;
+    private final PreparedStatement psBuscarStand;
+    private final PreparedStatement psBuscarVisitante;
+    private final PreparedStatement psComentariosDeStand;
+    private final PreparedStatement psInsertarVisitante;
+    private final PreparedStatement psInsertarComentario;
+    private final Map<String, Visitante> visitantesPendientes = new LinkedHashMap<>();
+    private int comentariosPendientes;
+    private long ordenEmpresa;
+    private long ordenStand;
+    private long ordenVisitante;
+    private long ordenComentario;
+
+    /**
+     * Abre (o crea) la base de datos indicada con el tamaño de lote por defecto.
+     * @param url URL JDBC de la base embebida
+     * @throws IllegalStateException si no se puede abrir la conexión o crear el esquema
+     */
+    public RepositorioJdbc(String url) { this(url, LOTE_POR_DEFECTO); }
+
+    /**
+     * Abre (o crea) la base de datos indicada.
+     * @param url URL JDBC de la base embebida; tamanoLote cantidad de inserciones acumuladas antes de enviarlas
+     * @throws IllegalArgumentException si tamanoLote no es positivo
+     * @throws IllegalStateException si no se puede abrir la conexión o crear el esquema
+     */
+    public RepositorioJdbc(String url, int tamanoLote) {
+        if (tamanoLote < 1) throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        this.tamanoLote = tamanoLote;
+        try {
+            cx = DriverManager.getConnection(url);
+            try (Statement st = cx.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS empresa (clave VARCHAR(255) PRIMARY KEY, "
+                        + "orden BIGINT, nombre VARCHAR(255), sector VARCHAR(255), correo VARCHAR(255), "
+                        + "version BIGINT DEFAULT 0)");
+                st.execute("CREATE TABLE IF NOT EXISTS stand (clave VARCHAR(255) PRIMARY KEY, orden BIGINT, "
+                        + "numero VARCHAR(255), ubicacion VARCHAR(255), tamano VARCHAR(16), empresa VARCHAR(255), "
+                        + "version BIGINT DEFAULT 0)");
+                st.execute("CREATE TABLE IF NOT EXISTS visitante (clave VARCHAR(255) PRIMARY KEY, orden BIGINT, "
+                        + "identificacion VARCHAR(255), nombre VARCHAR(255), correo VARCHAR(255), "
+                        + "version BIGINT DEFAULT 0)");
+                st.execute("CREATE TABLE IF NOT EXISTS comentario (stand VARCHAR(255), orden BIGINT, "
+                        + "visitante VARCHAR(255), visitante_clave VARCHAR(255), fecha INTEGER, "
+                        + "calificacion INTEGER, texto VARCHAR(4000))");
+                // bases creadas antes de versionar las entidades
+                for (String tabla : List.of("empresa", "stand", "visitante")) {
+                    st.execute("ALTER TABLE " + tabla + " ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0");
+                }
+                st.execute("CREATE INDEX IF NOT EXISTS comentario_stand ON comentario (stand, orden)");
+                st.execute("CREATE INDEX IF NOT EXISTS comentario_visitante ON comentario (visitante_clave)");
+            }
+            cx.setAutoCommit(false);
+            psBuscarEmpresa = cx.prepareStatement("SELECT nombre, sector, correo, version FROM empresa WHERE clave = ?");
+            psBuscarStand = cx.prepareStatement(
+                    "SELECT numero, ubicacion, tamano, empresa, version FROM stand WHERE clave = ?");
+            psBuscarVisitante = cx.prepareStatement(
+                    "SELECT identificacion, nombre, correo, version FROM visitante WHERE clave = ?");
+            psComentariosDeStand = cx.prepareStatement(
+                    "SELECT visitante, fecha, calificacion, texto FROM comentario WHERE stand = ? ORDER BY orden");
+            psInsertarVisitante = cx.prepareStatement(
+                    "INSERT INTO visitante (clave, orden, identificacion, nombre, correo, version) VALUES (?, ?, ?, ?, ?, ?)");
+            psInsertarComentario = cx.prepareStatement("INSERT INTO comentario "
+                    + "(stand, orden, visitante, visitante_clave, fecha, calificacion, texto) VALUES (?, ?, ?, ?, ?, ?, ?)");
+            ordenEmpresa = siguienteOrden("empresa");
+            ordenStand = siguienteOrden("stand");
+            ordenVisitante = siguienteOrden("visitante");
+            ordenComentario = siguienteOrden("comentario");
+            cx.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo abrir la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    private static String clave(String s) { return s.trim().toLowerCase(); }
+
+    /**
+     * Envía los lotes pendientes y confirma la transacción.
+     * @throws IllegalStateException si falla la base de datos
+     */
+    public void vaciarLotes() {
+        try {
+            if (!visitantesPendientes.isEmpty()) {
+                psInsertarVisitante.executeBatch();
+                visitantesPendientes.clear();
+            }
+            if (comentariosPendientes > 0) {
+                psInsertarComentario.executeBatch();
+                comentariosPendientes = 0;
+            }
+            cx.commit();
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    private static IllegalStateException error(SQLException e) {
+        return new IllegalStateException("Error de base de datos: " + e.getMessage(), e);
+    }
+
+    private int ejecutar(String sql, Object... params) {
+        vaciarLotes();
+        try (PreparedStatement ps = cx.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+            int filas = ps.executeUpdate();
+            cx.commit();
+            return filas;
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    private long siguienteOrden(String tabla) throws SQLException {
+        try (Statement st = cx.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(orden), 0) + 1 FROM " + tabla)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Override public Optional<Empresa> buscarEmpresa(String nombre) {
+        try {
+            psBuscarEmpresa.setString(1, clave(nombre));
+            try (ResultSet rs = psBuscarEmpresa.executeQuery()) {
+                return rs.next() ? Optional.of(leerEmpresa(rs))
+                        : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    @Override public List<Empresa> empresas() {
+        List<Empresa> lista = new ArrayList<>();
+        try (Statement st = cx.createStatement();
+             ResultSet rs = st.executeQuery("SELECT nombre, sector, correo, version FROM empresa ORDER BY orden")) {
+            while (rs.next()) lista.add(leerEmpresa(rs));
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        return lista;
+    }
+
+    private static Empresa leerEmpresa(ResultSet rs) throws SQLException {
+        return new Empresa(rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+    }
+
+    @Override public void guardarEmpresa(Empresa e) {
+        ejecutar("INSERT INTO empresa (clave, orden, nombre, sector, correo, version) VALUES (?, ?, ?, ?, ?, ?)",
+                clave(e.getNombre()), ordenEmpresa++, e.getNombre(), e.getSector(), e.getCorreoElectronico(),
+                e.getVersion());
+    }
+
+    @Override public void actualizarEmpresa(Empresa e) {
+        ejecutar("UPDATE empresa SET sector = ?, correo = ?, version = ? WHERE clave = ?",
+                e.getSector(), e.getCorreoElectronico(), e.getVersion(), clave(e.getNombre()));
+    }
+
+    @Override public boolean actualizarEmpresaSiVersion(Empresa e, long versionAnterior) {
+        return ejecutar("UPDATE empresa SET sector = ?, correo = ?, version = ? WHERE clave = ? AND version = ?",
+                e.getSector(), e.getCorreoElectronico(), e.getVersion(), clave(e.getNombre()), versionAnterior) == 1;
+    }
+
+    @Override public void eliminarEmpresa(Empresa e) {
+        ejecutar("DELETE FROM empresa WHERE clave = ?", clave(e.getNombre()));
+    }
+
+    /**
+     * Lee solo la fila del stand, sin enviar los lotes pendientes; sus comentarios se cargan (enviando antes los
+     * lotes) la primera vez que se consultan, así buscar el stand en cada inserción de comentario no rompe los lotes.
+     */
+    @Override public Optional<Stand> buscarStand(String numero) {
+        try {
+            psBuscarStand.setString(1, clave(numero));
+            try (ResultSet rs = psBuscarStand.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                Stand s = leerStand(rs);
+                s.cargarComentariosAlUsar(this::cargarComentarios);
+                return Optional.of(s);
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    private Stand leerStand(ResultSet rs) throws SQLException {
+        String empresa = rs.getString(4);
+        Empresa asignada = empresa == null ? null : buscarEmpresa(empresa).orElse(null);
+        return new Stand(rs.getString(1), rs.getString(2), StandSize.valueOf(rs.getString(3)), asignada, rs.getLong(5));
+    }
+
+    private void cargarComentarios(Stand s) {
+        vaciarLotes();
+        try {
+            psComentariosDeStand.setString(1, clave(s.getNumero()));
+            try (ResultSet rs = psComentariosDeStand.executeQuery()) {
+                while (rs.next()) {
+                    s.agregarComentario(new Comentario(rs.getString(1), LocalDate.ofEpochDay(rs.getInt(2)),
+                            rs.getInt(3), rs.getString(4)));
+                }
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    @Override public List<Stand> stands() {
+        vaciarLotes();
+        Map<String, Stand> porClave = new LinkedHashMap<>();
+        Map<String, Empresa> empresasPorClave = new HashMap<>();
+        for (Empresa e : empresas()) empresasPorClave.put(clave(e.getNombre()), e);
+        try (Statement st = cx.createStatement()) {
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT numero, ubicacion, tamano, empresa, version FROM stand ORDER BY orden")) {
+                while (rs.next()) {
+                    String empresa = rs.getString(4);
+                    Stand s = new Stand(rs.getString(1), rs.getString(2), StandSize.valueOf(rs.getString(3)),
+                            empresa == null ? null : empresasPorClave.get(empresa), rs.getLong(5));
+                    porClave.put(clave(s.getNumero()), s);
+                }
+            }
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT stand, visitante, fecha, calificacion, texto FROM comentario ORDER BY stand, orden")) {
+                while (rs.next()) {
+                    Stand s = porClave.get(rs.getString(1));
+                    if (s != null) s.agregarComentario(new Comentario(rs.getString(2),
+                            LocalDate.ofEpochDay(rs.getInt(3)), rs.getInt(4), rs.getString(5)));
+                }
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        return new ArrayList<>(porClave.values());
+    }
+
+    @Override public void guardarStand(Stand s) {
+        ejecutar("INSERT INTO stand (clave, orden, numero, ubicacion, tamano, empresa, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                clave(s.getNumero()), ordenStand++, s.getNumero(), s.getUbicacion(), s.getTamano().name(),
+                s.getEmpresaAsignada().map(e -> clave(e.getNombre())).orElse(null), s.getVersion());
+    }
+
+    @Override public void actualizarStand(Stand s) {
+        ejecutar("UPDATE stand SET ubicacion = ?, tamano = ?, empresa = ?, version = ? WHERE clave = ?",
+                s.getUbicacion(), s.getTamano().name(),
+                s.getEmpresaAsignada().map(e -> clave(e.getNombre())).orElse(null), s.getVersion(),
+                clave(s.getNumero()));
+    }
+
+    @Override public boolean actualizarStandSiVersion(Stand s, long versionAnterior) {
+        return ejecutar("UPDATE stand SET empresa = ?, version = ? WHERE clave = ? AND version = ?",
+                s.getEmpresaAsignada().map(e -> clave(e.getNombre())).orElse(null), s.getVersion(),
+                clave(s.getNumero()), versionAnterior) == 1;
+    }
+
+    @Override public Optional<Visitante> buscarVisitante(String id) {
+        Visitante pendiente = visitantesPendientes.get(clave(id));
+        if (pendiente != null) return Optional.of(pendiente);
+        try {
+            psBuscarVisitante.setString(1, clave(id));
+            try (ResultSet rs = psBuscarVisitante.executeQuery()) {
+                return rs.next() ? Optional.of(leerVisitante(rs))
+                        : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    @Override public List<Visitante> visitantes() {
+        vaciarLotes();
+        List<Visitante> lista = new ArrayList<>();
+        try (Statement st = cx.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT identificacion, nombre, correo, version FROM visitante ORDER BY orden")) {
+            while (rs.next()) lista.add(leerVisitante(rs));
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        return lista;
+    }
+
+    private static Visitante leerVisitante(ResultSet rs) throws SQLException {
+        return new Visitante(rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+    }
+
+    @Override public void guardarVisitante(Visitante v) {
+        try {
+            psInsertarVisitante.setString(1, clave(v.getIdentificacion()));
+            psInsertarVisitante.setLong(2, ordenVisitante++);
+            psInsertarVisitante.setString(3, v.getIdentificacion());
+            psInsertarVisitante.setString(4, v.getNombre());
+            psInsertarVisitante.setString(5, v.getCorreoElectronico());
+            psInsertarVisitante.setLong(6, v.getVersion());
+            psInsertarVisitante.addBatch();
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        visitantesPendientes.put(clave(v.getIdentificacion()), v);
+        if (visitantesPendientes.size() >= tamanoLote) vaciarLotes();
+    }
+
+    @Override public void actualizarVisitante(Visitante v) {
+        ejecutar("UPDATE visitante SET nombre = ?, correo = ?, version = ? WHERE clave = ?",
+                v.getNombre(), v.getCorreoElectronico(), v.getVersion(), clave(v.getIdentificacion()));
+    }
+
+    @Override public boolean actualizarVisitanteSiVersion(Visitante v, long versionAnterior) {
+        return ejecutar("UPDATE visitante SET nombre = ?, correo = ?, version = ? WHERE clave = ? AND version = ?",
+                v.getNombre(), v.getCorreoElectronico(), v.getVersion(), clave(v.getIdentificacion()),
+                versionAnterior) == 1;
+    }
+
+    @Override public void eliminarVisitante(Visitante v) {
+        ejecutar("DELETE FROM visitante WHERE clave = ?", clave(v.getIdentificacion()));
+    }
+
+    @Override public void agregarComentario(Stand s, Comentario c) {
+        try {
+            psInsertarComentario.setString(1, clave(s.getNumero()));
+            psInsertarComentario.setLong(2, ordenComentario++);
+            psInsertarComentario.setString(3, c.visitanteId());
+            psInsertarComentario.setString(4, clave(c.visitanteId()));
+            psInsertarComentario.setInt(5, (int) c.fecha().toEpochDay());
+            psInsertarComentario.setInt(6, c.calificacion());
+            psInsertarComentario.setString(7, c.texto());
+            psInsertarComentario.addBatch();
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        if (s.comentariosCargados()) s.agregarComentario(c); // si no, llegará con la carga diferida
+        if (++comentariosPendientes >= tamanoLote) vaciarLotes();
+    }
+
+    /**
+     * Una consulta agrupada por stand y un único DELETE sobre la columna indexada del autor, sin leer stands ni
+     * comentarios.
+     */
+    @Override public Map<String, Integer> eliminarComentariosDeVisitante(String visitanteId) {
+        Map<String, Integer> porStand = new LinkedHashMap<>();
+        vaciarLotes();
+        try (PreparedStatement ps = cx.prepareStatement("SELECT s.numero, COUNT(*) FROM comentario c "
+                + "JOIN stand s ON s.clave = c.stand WHERE c.visitante_clave = ? GROUP BY s.numero, s.orden "
+                + "ORDER BY s.orden")) {
+            ps.setString(1, clave(visitanteId));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) porStand.put(rs.getString(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        ejecutar("DELETE FROM comentario WHERE visitante_clave = ?", clave(visitanteId));
+        return porStand;
+    }
+
+    /**
+     * Una consulta agrupada para contar lo que se eliminará (por stand y autor) y un único DELETE con el mismo
+     * criterio; la conexión no admite uso concurrente, así que aquí no hay paralelismo.
+     */
+    @Override public Map<String, Integer> eliminarComentarios(Collection<Stand> stands, FiltroComentarios filtro,
+                                                          Collection<String> autores) {
+        Map<String, Integer> porStand = new HashMap<>();
+        if (stands.isEmpty()) return porStand;
+        Map<String, String> numeros = new HashMap<>();
+        for (Stand s : stands) numeros.put(clave(s.getNumero()), s.getNumero());
+
+        List<Object> params = new ArrayList<>(numeros.keySet());
+        StringBuilder where = new StringBuilder(" WHERE stand IN (")
+                .append(String.join(", ", Collections.nCopies(numeros.size(), "?"))).append(") AND (");
+        if (filtro.porFecha()) {
+            where.append("fecha BETWEEN ? AND ?");
+            params.add(filtro.desdeDia());
+            params.add(filtro.hastaDia());
+        }
+        if (!filtro.visitantes().isEmpty()) {
+            if (filtro.porFecha()) where.append(" OR ");
+            where.append("visitante_clave IN (")
+                    .append(String.join(", ", Collections.nCopies(filtro.visitantes().size(), "?"))).append(')');
+            params.addAll(filtro.visitantes());
+        }
+        where.append(')');
+
+        vaciarLotes();
+        try (PreparedStatement ps = cx.prepareStatement(
+                "SELECT stand, visitante, COUNT(*) FROM comentario" + where + " GROUP BY stand, visitante")) {
+            for (int i = 0; i < params.size(); i++) ps.setObject(i + 1, params.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    porStand.merge(numeros.get(rs.getString(1)), rs.getInt(3), Integer::sum);
+                    if (autores != null) autores.add(rs.getString(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        ejecutar("DELETE FROM comentario" + where, params.toArray());
+        Map<String, Integer> enOrden = new LinkedHashMap<>();
+        for (Stand s : stands) {
+            Integer n = porStand.get(s.getNumero());
+            if (n != null) enOrden.put(s.getNumero(), n);
+        }
+        return enOrden;
+    }
+
+    @Override public void reemplazarTodo(Collection<Empresa> empresas, Collection<Stand> stands,
+                                         Collection<Visitante> visitantes) {
+        vaciarLotes();
+        try (Statement st = cx.createStatement()) {
+            for (String tabla : List.of("comentario", "stand", "visitante", "empresa")) {
+                st.executeUpdate("DELETE FROM " + tabla);
+            }
+            cx.commit();
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        empresas.forEach(this::guardarEmpresa);
+        for (Stand s : stands) {
+            guardarStand(s);
+            Stand copia = new Stand(s.getNumero(), s.getUbicacion(), s.getTamano());
+            for (Comentario c : s.getComentarios()) agregarComentario(copia, c);
+        }
+        visitantes.forEach(this::guardarVisitante);
+        vaciarLotes();
+    }
+
+    /**
+     * Envía los lotes pendientes y cierra la conexión.
+     * @throws IllegalStateException si falla la base de datos
+     */
+    @Override public void close() {
+        try {
+            vaciarLotes();
+        } finally {
+            try {
+                cx.close();
+            } catch (SQLException e) {
+                throw error(e);
+            }
+        }
+    }
+}
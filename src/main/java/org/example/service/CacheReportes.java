@@ -0,0 +1,129 @@
+package org.example.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura (read-through) para resultados de reportes, con desalojo LRU por tamaño.
+ * Cada entrada guarda las versiones de las entidades de las que depende; si alguna cambió, la entrada
+ * se considera obsoleta y se recalcula (o, si se pide, se sirve obsoleta mientras se recalcula en segundo plano).
+ * Si un recálculo en segundo plano falla, el error se cuenta y se lanza en la siguiente lectura de esa clave.
+ */
+public class CacheReportes {
+
+    /**
+     * Métricas acumuladas de la caché.
+     * @param aciertos lecturas servidas con una entrada vigente; fallos lecturas que recalcularon; obsoletos lecturas servidas con una entrada obsoleta; desalojos entradas descartadas por capacidad; erroresRecalculo recálculos en segundo plano que terminaron con excepción
+     */
+    public record Estadisticas(long aciertos, long fallos, long obsoletos, long desalojos, long erroresRecalculo) { }
+
+    private record Entrada(long[] versiones, String valor) { }
+
+    private final int capacidad;
+    private final Map<String, Entrada> entradas;
+    private final Map<String, Boolean> recalculando = new LinkedHashMap<>();
+    private final Map<String, RuntimeException> errores = new HashMap<>(); // último fallo en segundo plano por clave
+    private long aciertos;
+    private long fallos;
+    private long obsoletos;
+    private long desalojos;
+    private long erroresRecalculo;
+
+    /**
+     * Crea una caché con capacidad máxima de entradas.
+     * @param capacidad número máximo de reportes guardados
+     * @throws IllegalArgumentException si la capacidad no es positiva
+     */
+    public CacheReportes(int capacidad) {
+        if (capacidad < 1) throw new IllegalArgumentException("La capacidad debe ser positiva");
+        this.capacidad = capacidad;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() <= CacheReportes.this.capacidad) return false;
+                desalojos++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el reporte cacheado si sus versiones coinciden; si no, lo calcula y lo guarda.
+     * @param clave identificador del reporte; versiones versiones actuales de las entidades de las que depende; calculo función que genera el reporte
+     * @return texto del reporte vigente
+     */
+    public String obtener(String clave, long[] versiones, Supplier<String> calculo) {
+        synchronized (this) {
+            Entrada e = entradas.get(clave);
+            if (e != null && Arrays.equals(e.versiones(), versiones)) {
+                aciertos++;
+                return e.valor();
+            }
+            fallos++;
+        }
+        String valor = calculo.get();
+        guardar(clave, versiones, valor);
+        return valor;
+    }
+
+    /**
+     * Como {@link #obtener}, pero si existe una entrada obsoleta la devuelve de inmediato y agenda el recálculo
+     * en el ejecutor indicado (un solo recálculo en curso por clave).
+     * @param clave identificador del reporte; versiones versiones actuales; calculo función que genera el reporte; ejecutor donde se recalcula
+     * @return texto del reporte (posiblemente obsoleto)
+     * @throws IllegalStateException si falló el recálculo en segundo plano anterior de esta clave (el siguiente se reintenta)
+     */
+    public String obtenerPermitiendoObsoleto(String clave, long[] versiones, Supplier<String> calculo, Executor ejecutor) {
+        synchronized (this) {
+            RuntimeException error = errores.remove(clave);
+            if (error != null) throw new IllegalStateException("Falló el recálculo del reporte " + clave, error);
+            Entrada e = entradas.get(clave);
+            if (e == null) {
+                fallos++;
+            } else if (Arrays.equals(e.versiones(), versiones)) {
+                aciertos++;
+                return e.valor();
+            } else {
+                obsoletos++;
+                if (recalculando.putIfAbsent(clave, Boolean.TRUE) == null) {
+                    ejecutor.execute(() -> {
+                        try {
+                            guardar(clave, versiones, calculo.get());
+                        } catch (RuntimeException ex) {
+                            synchronized (this) {
+                                erroresRecalculo++;
+                                errores.put(clave, ex);
+                            }
+                        } finally {
+                            synchronized (this) { recalculando.remove(clave); }
+                        }
+                    });
+                }
+                return e.valor();
+            }
+        }
+        String valor = calculo.get();
+        guardar(clave, versiones, valor);
+        return valor;
+    }
+
+    private synchronized void guardar(String clave, long[] versiones, String valor) {
+        entradas.put(clave, new Entrada(versiones.clone(), valor));
+    }
+
+    /**
+     * Descarta todas las entradas (las métricas se conservan).
+     */
+    public synchronized void limpiar() { entradas.clear(); }
+
+    /**
+     * Devuelve una copia de las métricas actuales.
+     * @return aciertos, fallos, servidos obsoletos y desalojos
+     */
+    public synchronized Estadisticas estadisticas() {
+        return new Estadisticas(aciertos, fallos, obsoletos, desalojos, erroresRecalculo);
+    }
+}
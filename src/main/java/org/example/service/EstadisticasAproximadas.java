@@ -0,0 +1,111 @@
+package org.example.service;
+
+import org.example.model.Comentario;
+import org.example.model.Stand;
+import org.example.model.Ubicacion;
+import org.example.utils.CountMinTopK;
+import org.example.utils.HyperLogLog;
+
+import java.util.*;
+
+/**
+ * Analítica aproximada con memoria acotada, actualizada en cada comentario registrado:
+ * <ul>
+ *     <li>Visitantes distintos por stand (HyperLogLog de 1 KB) y por pabellón (HyperLogLog de 4 KB).</li>
+ *     <li>Cuantiles de calificación por stand: como las calificaciones son enteros 1..5, un histograma de
+ *     5 contadores da cuantiles exactos en 40 bytes (no hace falta t-digest).</li>
+ *     <li>Visitantes más activos de la feria (count-min + top-K).</li>
+ * </ul>
+ * Los sketches no admiten borrado: tras {@code eliminarVisitante} las cifras pueden quedar por encima de las
+ * reales hasta que se reconstruyan.
+ */
+public class EstadisticasAproximadas {
+    private static final int P_STAND = 10;
+    private static final int P_PABELLON = 12;
+
+    private static final class PorStand {
+        final HyperLogLog distintos = new HyperLogLog(P_STAND);
+        final long[] histograma = new long[5];
+    }
+
+    private final Map<String, PorStand> porStand = new HashMap<>();
+    private final Map<String, HyperLogLog> porPabellon = new HashMap<>();
+    private final CountMinTopK activos = new CountMinTopK(4, 4096, 50);
+
+    /**
+     * Registra un comentario en todas las estructuras.
+     * @param numeroStand número del stand; pabellon pabellón del stand (ej. "A"); visitanteId autor; calificacion valor 1..5
+     */
+    public synchronized void registrar(String numeroStand, String pabellon, String visitanteId, int calificacion) {
+        long h = HyperLogLog.hash(visitanteId);
+        PorStand ps = porStand.computeIfAbsent(numeroStand.toLowerCase(), k -> new PorStand());
+        ps.distintos.agregar(h);
+        ps.histograma[calificacion - 1]++;
+        porPabellon.computeIfAbsent(pabellon.toLowerCase(), k -> new HyperLogLog(P_PABELLON)).agregar(h);
+        activos.agregar(visitanteId);
+    }
+
+    /**
+     * Construye las estadísticas a partir de los comentarios existentes.
+     * @param stands stands con sus comentarios
+     * @return estadísticas inicializadas
+     */
+    static EstadisticasAproximadas desde(Collection<Stand> stands) {
+        EstadisticasAproximadas e = new EstadisticasAproximadas();
+        for (Stand s : stands) {
+            String pabellon = s.getUbicacionDetallada().pabellon();
+            for (Comentario c : s.getComentarios()) e.registrar(s.getNumero(), pabellon, c.visitanteId(), c.calificacion());
+        }
+        return e;
+    }
+
+    /**
+     * Visitantes distintos aproximados que comentaron un stand.
+     * @param numeroStand número del stand
+     * @return estimación (0 si no tiene comentarios)
+     */
+    public synchronized long visitantesDistintosStand(String numeroStand) {
+        PorStand ps = porStand.get(numeroStand.toLowerCase());
+        return ps == null ? 0 : ps.distintos.estimar();
+    }
+
+    /**
+     * Visitantes distintos aproximados que comentaron algún stand del pabellón.
+     * @param pabellon pabellón (ej. "Pabellón A" o "A")
+     * @return estimación (0 si no hay comentarios)
+     */
+    public synchronized long visitantesDistintosPabellon(String pabellon) {
+        HyperLogLog hll = porPabellon.get(Ubicacion.clavePabellon(pabellon));
+        return hll == null ? 0 : hll.estimar();
+    }
+
+    /**
+     * Cuantil de calificación de un stand (ej. 0.5 = mediana).
+     * @param numeroStand número del stand; q cuantil entre 0 y 1
+     * @return OptionalInt con la calificación del cuantil, o vacío si no hay calificaciones
+     * @throws IllegalArgumentException si q está fuera de [0, 1]
+     */
+    public synchronized OptionalInt cuantilCalificacion(String numeroStand, double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1");
+        PorStand ps = porStand.get(numeroStand.toLowerCase());
+        if (ps == null) return OptionalInt.empty();
+        long total = Arrays.stream(ps.histograma).sum();
+        if (total == 0) return OptionalInt.empty();
+        long objetivo = Math.max(1, (long) Math.ceil(q * total));
+        long acumulado = 0;
+        for (int i = 0; i < 5; i++) {
+            acumulado += ps.histograma[i];
+            if (acumulado >= objetivo) return OptionalInt.of(i + 1);
+        }
+        return OptionalInt.of(5);
+    }
+
+    /**
+     * Visitantes con más comentarios (frecuencias aproximadas, de mayor a menor).
+     * @param n cantidad máxima a devolver
+     * @return pares identificación (en minúsculas) - comentarios estimados
+     */
+    public synchronized List<Map.Entry<String, Long>> visitantesMasActivos(int n) {
+        return activos.masFrecuentes(n);
+    }
+}
@@ -1,19 +1,71 @@
 package org.example.service;
 
+import org.example.event.BusEventos;
+import org.example.event.EventoFeria;
 import org.example.model.*;
+import org.example.repository.RepositorioEnMemoria;
+import org.example.repository.RepositorioFeria;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Gestor para la Feria Empresarial: orquesta operaciones sobre empresas, stands, visitantes y comentarios,
- * manteniendo los datos en listas en memoria para un flujo simple y verificable por consola.
+ * delegando el almacenamiento en un {@link RepositorioFeria} (en memoria por defecto).
+ * <p>
+ * Con el repositorio en memoria, los cambios se serializan con un candado de escritura (así sus eventos salen en el
+ * orden en que se aplicaron) y las ediciones condicionales rechazan versiones obsoletas en lugar de pisarlas; los
+ * lectores concurrentes deben leer a través de {@link #instantanea()}. Con repositorios persistentes, quien llama
+ * debe serializar todas las operaciones.
  */
 public class FeriaEmpresarial {
-    private final List<Empresa> empresas = new ArrayList<>();
-    private final List<Stand> stands = new ArrayList<>();
-    private final List<Visitante> visitantes = new ArrayList<>();
+    private static final int REPORTES_CACHEADOS = 3; // empresas-stands, visitantes-stands y promedio-stand
+    private final RepositorioFeria repo;
+    // Componentes que se crean al primer uso, para que crear la feria (y arrancar la consola) sea barato
+    private volatile CacheReportes cacheReportes;
+    private volatile BusEventos eventos;
+    private volatile IndiceStands indiceStands; // se construye y actualiza con el candado de escritura
+    private volatile RecomendadorStands recomendador; // ídem
+    private volatile LimitadorComentarios limitador;
+    private volatile EstadisticasAproximadas estadisticas;
+    private volatile boolean visitantesObsoletoPermitido;
+    // Escrituras que cambian la estructura del almacenamiento (altas, bajas, comentarios) y la copia de instantáneas
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final AtomicLong epoca = new AtomicLong();
+    private final Set<String> standsModificados = ConcurrentHashMap.newKeySet();
+    private final Map<String, Stand> standsCongelados = new HashMap<>(); // protegido por escritura
+    private volatile InstantaneaFeria instantanea;
+    private ExecutorService recalculo;
+    // Contadores de versión por tipo de entidad; cada mutación incrementa los afectados
+    private final AtomicLong versionEmpresas = new AtomicLong();
+    private final AtomicLong versionStands = new AtomicLong();
+    private final AtomicLong versionVisitantes = new AtomicLong();
+    private final AtomicLong versionComentarios = new AtomicLong();
+
+    /**
+     * Crea una feria con almacenamiento en memoria.
+     */
+    public FeriaEmpresarial() { this(new RepositorioEnMemoria()); }
+
+    /**
+     * Crea una feria sobre el repositorio indicado (en memoria, base embebida, etc.).
+     * @param repo repositorio de entidades
+     * @throws IllegalArgumentException si el repositorio es nulo
+     */
+    public FeriaEmpresarial(RepositorioFeria repo) {
+        if (repo == null) throw new IllegalArgumentException("El repositorio es obligatorio");
+        this.repo = repo;
+    }
 
     /**
      * Agrega una nueva empresa a la Feria Empresarial garantizando nombre único.
@@ -21,18 +73,26 @@ public class FeriaEmpresarial {
      * @throws IllegalArgumentException si ya existe una empresa con el mismo nombre
      */
     public void registrarEmpresa(Empresa e) {
-        empresas.stream()
-                .filter(x -> x.getNombre().equalsIgnoreCase(e.getNombre()))
-                .findAny()
-                .ifPresent(x -> { throw new IllegalArgumentException("Ya existe empresa: " + e.getNombre()); });
-        empresas.add(e);
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            repo.buscarEmpresa(e.getNombre())
+                    .ifPresent(x -> { throw new IllegalArgumentException("Ya existe empresa: " + e.getNombre()); });
+            repo.guardarEmpresa(e);
+            versionEmpresas.incrementAndGet();
+            modificado(null);
+            evento = reservar(new EventoFeria.EmpresaRegistrada(e.getNombre(), e.getSector(), e.getCorreoElectronico()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
     }
 
     /**
      * Devuelve una copia inmutable de todas las empresas registradas.
      * @return lista inmutable de empresas
      */
-    public List<Empresa> listarEmpresas() { return List.copyOf(empresas); }
+    public List<Empresa> listarEmpresas() { return List.copyOf(repo.empresas()); }
 
     /**
      * Edita los datos de una empresa existente (sector y/o correo).
@@ -41,8 +101,62 @@ public class FeriaEmpresarial {
      */
     public void editarEmpresa(String nombre, String nuevoSector, String nuevoCorreo) {
         Empresa e = buscarEmpresaPorNombre(nombre);
-        if (nuevoSector != null && !nuevoSector.isBlank()) e.setSector(nuevoSector);
-        if (nuevoCorreo != null && !nuevoCorreo.isBlank()) e.setCorreoElectronico(nuevoCorreo);
+        aplicar(() -> {
+            e.actualizar(nuevoSector, nuevoCorreo);
+            repo.actualizarEmpresa(e);
+            versionEmpresas.incrementAndGet();
+            modificado(null);
+            return reservar(new EventoFeria.EmpresaEditada(e.getNombre(), e.getSector(), e.getCorreoElectronico()));
+        });
+    }
+
+    /**
+     * Edita sector y/o correo de una empresa solo si nadie la modificó desde que se leyó su versión
+     * (control de concurrencia optimista: el perdedor de una carrera recibe false y reintenta).
+     * @param nombre nombre de la empresa; versionEsperada versión leída con {@link Empresa#getVersion()}; nuevoSector nuevo sector (si no es vacío); nuevoCorreo nuevo correo (si no es vacío)
+     * @return true si se aplicó; false si la versión ya no coincide
+     * @throws NoSuchElementException si no existe la empresa
+     */
+    public boolean editarEmpresaSiVersion(String nombre, long versionEsperada, String nuevoSector, String nuevoCorreo) {
+        return editarSiVersion(buscarEmpresaPorNombre(nombre), versionEsperada, nuevoSector, nuevoCorreo);
+    }
+
+    private boolean editarSiVersion(Empresa e, long versionEsperada, String nuevoSector, String nuevoCorreo) {
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            if (!e.actualizarSiVersion(versionEsperada, nuevoSector, nuevoCorreo)
+                    || !repo.actualizarEmpresaSiVersion(e, versionEsperada)) return false;
+            versionEmpresas.incrementAndGet();
+            modificado(null);
+            evento = reservar(new EventoFeria.EmpresaEditada(e.getNombre(), e.getSector(), e.getCorreoElectronico()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
+        return true;
+    }
+
+    /**
+     * Edición condicional de una empresa dentro de un lote.
+     * @param nombre nombre de la empresa; versionEsperada versión leída; sector nuevo sector (nulo o vacío lo conserva); correo nuevo correo (nulo o vacío lo conserva)
+     */
+    public record EdicionEmpresa(String nombre, long versionEsperada, String sector, String correo) {}
+
+    /**
+     * Aplica un lote de ediciones condicionales de empresas; cada una se aplica o se rechaza por separado.
+     * @param ediciones ediciones a aplicar
+     * @return nombres de las ediciones rechazadas (versión distinta o empresa inexistente), en el orden recibido
+     */
+    public List<String> editarEmpresasSiVersion(List<EdicionEmpresa> ediciones) {
+        List<String> rechazadas = new ArrayList<>();
+        for (EdicionEmpresa ed : ediciones) {
+            boolean aplicada = repo.buscarEmpresa(ed.nombre())
+                    .map(e -> editarSiVersion(e, ed.versionEsperada(), ed.sector(), ed.correo()))
+                    .orElse(false);
+            if (!aplicada) rechazadas.add(ed.nombre());
+        }
+        return rechazadas;
     }
 
     /**
@@ -51,11 +165,27 @@ public class FeriaEmpresarial {
      * @throws NoSuchElementException si la empresa no existe
      */
     public void eliminarEmpresa(String nombre) {
-        Empresa e = buscarEmpresaPorNombre(nombre);
-        stands.stream()
-                .filter(s -> s.getEmpresaAsignada().map(e::equals).orElse(false))
-                .forEach(Stand::desasignar);
-        empresas.remove(e);
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            Empresa e = buscarEmpresaPorNombre(nombre);
+            for (Stand s : repo.stands()) {
+                if (s.getEmpresaAsignada().map(e::equals).orElse(false)) {
+                    s.desasignar();
+                    repo.actualizarStand(s);
+                    if (indiceStands != null) indiceStands.marcar(s.getNumero(), s.estaDisponible());
+                    standsModificados.add(s.getNumero().toLowerCase());
+                }
+            }
+            repo.eliminarEmpresa(e);
+            versionEmpresas.incrementAndGet();
+            versionStands.incrementAndGet();
+            modificado(null);
+            evento = reservar(new EventoFeria.EmpresaEliminada(e.getNombre()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
     }
 
     /**
@@ -65,9 +195,7 @@ public class FeriaEmpresarial {
      * @throws NoSuchElementException si no existe una empresa con ese nombre
      */
     private Empresa buscarEmpresaPorNombre(String nombre) {
-        return empresas.stream()
-                .filter(x -> x.getNombre().equalsIgnoreCase(nombre))
-                .findFirst()
+        return repo.buscarEmpresa(nombre)
                 .orElseThrow(() -> new NoSuchElementException("No existe empresa: " + nombre));
     }
 
@@ -77,25 +205,35 @@ public class FeriaEmpresarial {
      * @throws IllegalArgumentException si ya existe un stand con el mismo número
      */
     public void crearStand(String numero, String ubicacion, StandSize tamano) {
-        stands.stream()
-                .filter(s -> s.getNumero().equalsIgnoreCase(numero))
-                .findAny()
-                .ifPresent(s -> { throw new IllegalArgumentException("Ya existe stand: " + numero); });
-        stands.add(new Stand(numero, ubicacion, tamano));
+        Stand nuevo = new Stand(numero, ubicacion, tamano);
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            repo.buscarStand(nuevo.getNumero())
+                    .ifPresent(s -> { throw new IllegalArgumentException("Ya existe stand: " + numero); });
+            repo.guardarStand(nuevo);
+            if (indiceStands != null) indiceStands.agregar(nuevo);
+            versionStands.incrementAndGet();
+            modificado(nuevo.getNumero());
+            evento = reservar(new EventoFeria.StandCreado(nuevo.getNumero(), nuevo.getUbicacion(), nuevo.getTamano()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
     }
 
     /**
      * Devuelve una copia inmutable de todos los stands.
      * @return lista inmutable de stands
      */
-    public List<Stand> listarStands() { return List.copyOf(stands); }
+    public List<Stand> listarStands() { return List.copyOf(repo.stands()); }
 
     /**
      * Devuelve los stands actualmente disponibles (sin empresa asignada).
      * @return lista inmutable de stands disponibles
      */
     public List<Stand> listarStandsDisponibles() {
-        return stands.stream().filter(Stand::estaDisponible).collect(Collectors.toUnmodifiableList());
+        return repo.stands().stream().filter(Stand::estaDisponible).collect(Collectors.toUnmodifiableList());
     }
 
     /**
@@ -103,7 +241,30 @@ public class FeriaEmpresarial {
      * @return lista inmutable de stands ocupados
      */
     public List<Stand> listarStandsOcupados() {
-        return stands.stream().filter(s -> !s.estaDisponible()).collect(Collectors.toUnmodifiableList());
+        return repo.stands().stream().filter(s -> !s.estaDisponible()).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Devuelve los stands cuyo número está en un rango (inclusive, en orden natural: "S2" antes que "S10"),
+     * opcionalmente limitados a un pabellón.
+     * @param desde número inicial; hasta número final; pabellon pabellón ("Pabellón C" o "C"), o null para todos
+     * @return lista inmutable de stands en orden natural
+     */
+    public List<Stand> listarStandsEnRango(String desde, String hasta, String pabellon) {
+        return consultarConEscritura(() -> indiceStands().rango(desde, hasta, pabellon)).stream()
+                .map(this::buscarStandPorNumero).toList();
+    }
+
+    /**
+     * Busca el stand disponible más cercano a uno dado, dentro de su mismo pabellón.
+     * @param numeroStand número del stand de referencia
+     * @return Optional con el stand libre más cercano, o vacío si no hay ninguno en el pabellón
+     * @throws NoSuchElementException si el stand de referencia no existe
+     */
+    public Optional<Stand> standLibreMasCercano(String numeroStand) {
+        Stand ref = buscarStandPorNumero(numeroStand);
+        return consultarConEscritura(() -> indiceStands().libreMasCercano(ref.getNumero()))
+                .map(this::buscarStandPorNumero);
     }
 
     /**
@@ -113,9 +274,67 @@ public class FeriaEmpresarial {
      * @throws IllegalStateException si el stand ya está asignado a otra empresa
      */
     public void asignarStandAEmpresa(String numeroStand, String nombreEmpresa) {
-        Stand stand = buscarStandPorNumero(numeroStand);
-        Empresa empresa = buscarEmpresaPorNombre(nombreEmpresa);
-        stand.asignarEmpresa(empresa);
+        aplicar(() -> {
+            // se resuelven con el candado: una empresa recién eliminada no puede recibir el stand
+            Stand stand = buscarStandPorNumero(numeroStand);
+            Empresa empresa = buscarEmpresaPorNombre(nombreEmpresa);
+            stand.asignarEmpresa(empresa);
+            repo.actualizarStand(stand);
+            if (indiceStands != null) indiceStands.marcar(stand.getNumero(), stand.estaDisponible());
+            versionStands.incrementAndGet();
+            modificado(stand.getNumero());
+            return reservar(new EventoFeria.StandAsignado(stand.getNumero(), empresa.getNombre()));
+        });
+    }
+
+    /**
+     * Asigna un stand a una empresa solo si su asignación no cambió desde que se leyó su versión.
+     * @param numeroStand número del stand; versionEsperada versión leída con {@link Stand#getVersion()}; nombreEmpresa empresa destino
+     * @return true si se asignó; false si la versión ya no coincide
+     * @throws NoSuchElementException si no existe el stand o la empresa
+     * @throws IllegalStateException si la versión coincide pero el stand ya está asignado
+     */
+    public boolean asignarStandSiVersion(String numeroStand, long versionEsperada, String nombreEmpresa) {
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            Stand stand = buscarStandPorNumero(numeroStand);
+            Empresa empresa = buscarEmpresaPorNombre(nombreEmpresa);
+            if (!stand.asignarEmpresaSiVersion(versionEsperada, empresa)
+                    || !repo.actualizarStandSiVersion(stand, versionEsperada)) return false;
+            if (indiceStands != null) indiceStands.marcar(stand.getNumero(), stand.estaDisponible());
+            versionStands.incrementAndGet();
+            modificado(stand.getNumero());
+            evento = reservar(new EventoFeria.StandAsignado(stand.getNumero(), empresa.getNombre()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
+        return true;
+    }
+
+    /**
+     * Libera un stand solo si su asignación no cambió desde que se leyó su versión.
+     * @param numeroStand número del stand; versionEsperada versión leída con {@link Stand#getVersion()}
+     * @return true si se liberó; false si la versión ya no coincide
+     * @throws NoSuchElementException si el stand no existe
+     */
+    public boolean desasignarStandSiVersion(String numeroStand, long versionEsperada) {
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            Stand stand = buscarStandPorNumero(numeroStand);
+            if (!stand.desasignarSiVersion(versionEsperada) || !repo.actualizarStandSiVersion(stand, versionEsperada))
+                return false;
+            if (indiceStands != null) indiceStands.marcar(stand.getNumero(), stand.estaDisponible());
+            versionStands.incrementAndGet();
+            modificado(stand.getNumero());
+            evento = reservar(new EventoFeria.StandDesasignado(stand.getNumero()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
+        return true;
     }
 
     /**
@@ -124,8 +343,15 @@ public class FeriaEmpresarial {
      * @throws NoSuchElementException si el stand no existe
      */
     public void desasignarStand(String numeroStand) {
-        Stand stand = buscarStandPorNumero(numeroStand);
-        stand.desasignar();
+        aplicar(() -> {
+            Stand stand = buscarStandPorNumero(numeroStand);
+            stand.desasignar();
+            repo.actualizarStand(stand);
+            if (indiceStands != null) indiceStands.marcar(stand.getNumero(), stand.estaDisponible());
+            versionStands.incrementAndGet();
+            modificado(stand.getNumero());
+            return reservar(new EventoFeria.StandDesasignado(stand.getNumero()));
+        });
     }
 
     /**
@@ -135,9 +361,7 @@ public class FeriaEmpresarial {
      * @throws NoSuchElementException si no existe un stand con ese número
      */
     private Stand buscarStandPorNumero(String numero) {
-        return stands.stream()
-                .filter(s -> s.getNumero().equalsIgnoreCase(numero))
-                .findFirst()
+        return repo.buscarStand(numero)
                 .orElseThrow(() -> new NoSuchElementException("No existe stand: " + numero));
     }
 
@@ -147,18 +371,27 @@ public class FeriaEmpresarial {
      * @throws IllegalArgumentException si ya existe un visitante con la misma identificación
      */
     public void registrarVisitante(Visitante v) {
-        visitantes.stream()
-                .filter(x -> x.getIdentificacion().equalsIgnoreCase(v.getIdentificacion()))
-                .findAny()
-                .ifPresent(x -> { throw new IllegalArgumentException("Ya existe visitante: " + v.getIdentificacion()); });
-        visitantes.add(v);
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            repo.buscarVisitante(v.getIdentificacion())
+                    .ifPresent(x -> { throw new IllegalArgumentException("Ya existe visitante: " + v.getIdentificacion()); });
+            repo.guardarVisitante(v);
+            versionVisitantes.incrementAndGet();
+            modificado(null);
+            evento = reservar(new EventoFeria.VisitanteRegistrado(v.getIdentificacion(), v.getNombre(),
+                    v.getCorreoElectronico()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
     }
 
     /**
      * Devuelve una copia inmutable de todos los visitantes.
      * @return lista inmutable de visitantes
      */
-    public List<Visitante> listarVisitantes() { return List.copyOf(visitantes); }
+    public List<Visitante> listarVisitantes() { return List.copyOf(repo.visitantes()); }
 
     /**
      * Busca un visitante por su identificación (ignorando mayúsculas/minúsculas).
@@ -167,9 +400,7 @@ public class FeriaEmpresarial {
      * @throws NoSuchElementException si no existe un visitante con esa identificación
      */
     private Visitante buscarVisitantePorId(String id) {
-        return visitantes.stream()
-                .filter(v -> v.getIdentificacion().equalsIgnoreCase(id))
-                .findFirst()
+        return repo.buscarVisitante(id)
                 .orElseThrow(() -> new NoSuchElementException("No existe visitante: " + id));
     }
 
@@ -178,6 +409,7 @@ public class FeriaEmpresarial {
      * @param visitanteId identificación del visitante existente; numeroStand número del stand existente; calificacion entero 1..5; texto comentario no vacío
      * @throws NoSuchElementException si el visitante o el stand no existen
      * @throws IllegalArgumentException si la calificación está fuera de 1..5 o el texto está vacío
+     * @throws IllegalStateException si hay límites configurados y el comentario los excede (tasa o calificación repetida en el día)
      */
     public void registrarComentario(String visitanteId, String numeroStand, Integer calificacion, String texto) {
         if (calificacion == null || calificacion < 1 || calificacion > 5)
@@ -185,11 +417,98 @@ public class FeriaEmpresarial {
         if (texto == null || texto.isBlank())
             throw new IllegalArgumentException("El texto del comentario es obligatorio");
 
+        // Los límites se consultan antes del candado: un abusador rechazado no hace esperar a los escritores
         Visitante v = buscarVisitantePorId(visitanteId);
         Stand s = buscarStandPorNumero(numeroStand);
+        LocalDate hoy = LocalDate.now();
+        LimitadorComentarios lim = limitador;
+        if (lim != null) lim.verificar(v.getIdentificacion(), s.getNumero(), hoy);
 
-        Comentario c = new Comentario(v.getIdentificacion(), LocalDate.now(), calificacion, texto.trim());
-        s.agregarComentario(c);
+        Comentario c = null;
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            // el visitante o el stand pueden haberse eliminado entre la verificación y el candado
+            v = buscarVisitantePorId(visitanteId);
+            s = buscarStandPorNumero(numeroStand);
+            Comentario nuevo = new Comentario(v.getIdentificacion(), hoy, calificacion, texto.trim());
+            repo.agregarComentario(s, nuevo);
+            c = nuevo;
+            if (recomendador != null) recomendador.registrar(c.visitanteId(), s.getNumero(), calificacion);
+            versionComentarios.incrementAndGet();
+            EstadisticasAproximadas est = estadisticas;
+            if (est != null) {
+                est.registrar(s.getNumero(), s.getUbicacionDetallada().pabellon(), c.visitanteId(), calificacion);
+            }
+            modificado(s.getNumero());
+            evento = reservar(new EventoFeria.ComentarioRegistrado(s.getNumero(), c));
+        } finally {
+            escritura.unlock();
+            if (c == null && lim != null) lim.cancelar(v.getIdentificacion(), s.getNumero(), hoy);
+        }
+        publicar(evento);
+    }
+
+    /**
+     * Configura los límites de comentarios de esta feria (tasa por visitante/stand y una calificación por día).
+     * @param config configuración de límites, o null para desactivarlos
+     */
+    public void configurarLimites(LimitadorComentarios.Configuracion config) {
+        this.limitador = config == null ? null : new LimitadorComentarios(config);
+    }
+
+    /**
+     * Activa (o reconstruye) la analítica aproximada: se inicializa con los comentarios actuales y luego se
+     * actualiza en cada {@link #registrarComentario}. Se construye con el candado de escritura, así ningún
+     * comentario registrado mientras tanto queda fuera de los sketches.
+     * @return estadísticas aproximadas de la feria
+     */
+    public EstadisticasAproximadas activarEstadisticasAproximadas() {
+        return consultarConEscritura(() -> {
+            EstadisticasAproximadas e = EstadisticasAproximadas.desde(repo.stands());
+            estadisticas = e;
+            return e;
+        });
+    }
+
+    /**
+     * Devuelve la analítica aproximada activa.
+     * @return estadísticas aproximadas
+     * @throws IllegalStateException si no se han activado
+     */
+    public EstadisticasAproximadas estadisticasAproximadas() {
+        EstadisticasAproximadas e = estadisticas;
+        if (e == null) throw new IllegalStateException("Las estadísticas aproximadas no están activadas");
+        return e;
+    }
+
+    /**
+     * Sugiere stands que un visitante aún no comentó, por co-visitación con otros visitantes ponderada por
+     * calificación (ver {@link RecomendadorStands}). El recomendador se construye en la primera consulta y luego
+     * se actualiza con cada comentario.
+     * @param visitanteId identificación del visitante; n máximo de sugerencias
+     * @return hasta n recomendaciones por puntaje descendente (vacía si el visitante no ha comentado)
+     * @throws NoSuchElementException si el visitante no existe
+     * @throws IllegalArgumentException si n no es positivo
+     */
+    public List<RecomendadorStands.Recomendacion> recomendarStands(String visitanteId, int n) {
+        return recomendarStands(visitanteId, n, null);
+    }
+
+    /**
+     * Igual que {@link #recomendarStands(String, int)}, pero solo sugiere stands asignados a empresas del sector indicado.
+     * @param visitanteId identificación del visitante; n máximo de sugerencias; sector sector de la empresa (sin distinguir mayúsculas), o null para no filtrar
+     * @return hasta n recomendaciones por puntaje descendente
+     * @throws NoSuchElementException si el visitante no existe
+     * @throws IllegalArgumentException si n no es positivo
+     */
+    public List<RecomendadorStands.Recomendacion> recomendarStands(String visitanteId, int n, String sector) {
+        Visitante v = buscarVisitantePorId(visitanteId);
+        Predicate<String> filtro = sector == null || sector.isBlank() ? null : numero -> repo.buscarStand(numero)
+                .flatMap(Stand::getEmpresaAsignada)
+                .map(e -> e.getSector().equalsIgnoreCase(sector.trim()))
+                .orElse(false);
+        return recomendador().recomendar(v.getIdentificacion(), n, filtro);
     }
 
     /**
@@ -221,8 +540,63 @@ public class FeriaEmpresarial {
      */
     public void editarVisitante(String id, String nuevoNombre, String nuevoCorreo) {
         Visitante v = buscarVisitantePorId(id);
-        if (nuevoNombre != null && !nuevoNombre.isBlank()) v.setNombre(nuevoNombre);
-        if (nuevoCorreo != null && !nuevoCorreo.isBlank()) v.setCorreoElectronico(nuevoCorreo);
+        aplicar(() -> {
+            v.actualizar(nuevoNombre, nuevoCorreo);
+            repo.actualizarVisitante(v);
+            versionVisitantes.incrementAndGet();
+            modificado(null);
+            return reservar(new EventoFeria.VisitanteEditado(v.getIdentificacion(), v.getNombre(),
+                    v.getCorreoElectronico()));
+        });
+    }
+
+    /**
+     * Edita nombre y/o correo de un visitante solo si nadie lo modificó desde que se leyó su versión.
+     * @param id identificación del visitante; versionEsperada versión leída con {@link Visitante#getVersion()}; nuevoNombre nuevo nombre (si no es vacío); nuevoCorreo nuevo correo (si no es vacío)
+     * @return true si se aplicó; false si la versión ya no coincide
+     * @throws NoSuchElementException si el visitante no existe
+     */
+    public boolean editarVisitanteSiVersion(String id, long versionEsperada, String nuevoNombre, String nuevoCorreo) {
+        return editarSiVersion(buscarVisitantePorId(id), versionEsperada, nuevoNombre, nuevoCorreo);
+    }
+
+    private boolean editarSiVersion(Visitante v, long versionEsperada, String nuevoNombre, String nuevoCorreo) {
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            if (!v.actualizarSiVersion(versionEsperada, nuevoNombre, nuevoCorreo)
+                    || !repo.actualizarVisitanteSiVersion(v, versionEsperada)) return false;
+            versionVisitantes.incrementAndGet();
+            modificado(null);
+            evento = reservar(new EventoFeria.VisitanteEditado(v.getIdentificacion(), v.getNombre(),
+                    v.getCorreoElectronico()));
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
+        return true;
+    }
+
+    /**
+     * Edición condicional de un visitante dentro de un lote.
+     * @param identificacion identificación del visitante; versionEsperada versión leída; nombre nuevo nombre (nulo o vacío lo conserva); correo nuevo correo (nulo o vacío lo conserva)
+     */
+    public record EdicionVisitante(String identificacion, long versionEsperada, String nombre, String correo) {}
+
+    /**
+     * Aplica un lote de ediciones condicionales de visitantes; cada una se aplica o se rechaza por separado.
+     * @param ediciones ediciones a aplicar
+     * @return identificaciones de las ediciones rechazadas (versión distinta o visitante inexistente), en el orden recibido
+     */
+    public List<String> editarVisitantesSiVersion(List<EdicionVisitante> ediciones) {
+        List<String> rechazadas = new ArrayList<>();
+        for (EdicionVisitante ed : ediciones) {
+            boolean aplicada = repo.buscarVisitante(ed.identificacion())
+                    .map(v -> editarSiVersion(v, ed.versionEsperada(), ed.nombre(), ed.correo()))
+                    .orElse(false);
+            if (!aplicada) rechazadas.add(ed.identificacion());
+        }
+        return rechazadas;
     }
 
     /**
@@ -231,146 +605,455 @@ public class FeriaEmpresarial {
      * @throws NoSuchElementException si el visitante no existe
      */
     public void eliminarVisitante(String id) {
-        Visitante v = buscarVisitantePorId(id);
-        for (Stand s : stands) {
-            s.eliminarComentariosDeVisitante(v.getIdentificacion());
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            Visitante v = buscarVisitantePorId(id);
+            // el repositorio borra por autor (un DELETE en JDBC) e informa qué stands perdieron comentarios
+            Map<String, Integer> porStand = repo.eliminarComentariosDeVisitante(v.getIdentificacion());
+            int eliminados = porStand.values().stream().mapToInt(Integer::intValue).sum();
+            repo.eliminarVisitante(v);
+            modificado(null); // la lista de visitantes cambió aunque no tuviera comentarios
+            porStand.keySet().forEach(this::modificado);
+            if (recomendador != null) recomendador.eliminarVisitante(v.getIdentificacion());
+            versionVisitantes.incrementAndGet();
+            versionComentarios.incrementAndGet();
+            evento = reservar(new EventoFeria.VisitanteEliminado(v.getIdentificacion(), eliminados));
+        } finally {
+            escritura.unlock();
         }
-        visitantes.remove(v);
+        publicar(evento);
     }
 
     /**
-     * Genera un reporte de empresas con su stand, empresas sin stand y stands sin asignar.
-     * @return cadena formateada con el reporte
+     * Resultado de una purga en bloque.
+     * @param comentariosEliminados total de comentarios eliminados; comentariosPorStand eliminados por número de stand (solo stands afectados, en orden de creación); visitantesEliminados identificaciones de los visitantes eliminados; nanos duración de la purga
      */
-    public String reporteEmpresasYStands() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== REPORTE: Empresas y Stands ===\n");
-
-        sb.append("\nEmpresas con stand:\n");
-        Set<String> empresasConStand = new HashSet<>();
-        stands.stream()
-                .filter(s -> s.getEmpresaAsignada().isPresent())
-                .forEach(s -> {
-                    String emp = s.getEmpresaAsignada().get().getNombre();
-                    empresasConStand.add(emp);
-                    sb.append(" - ").append(emp).append(" -> Stand ").append(s.getNumero()).append("\n");
-                });
-        if (empresasConStand.isEmpty()) sb.append(" (ninguna)\n");
-
-        sb.append("\nEmpresas SIN stand:\n");
-        List<String> sinStand = empresas.stream()
-                .map(Empresa::getNombre)
-                .filter(n -> !empresasConStand.contains(n))
-                .sorted(String::compareToIgnoreCase)
-                .toList();
-        if (sinStand.isEmpty()) {
-            sb.append(" (ninguna)\n");
-        } else {
-            sinStand.forEach(n -> sb.append(" - ").append(n).append("\n"));
+    public record ResultadoPurga(int comentariosEliminados, Map<String, Integer> comentariosPorStand,
+                                 List<String> visitantesEliminados, long nanos) {}
+
+    /**
+     * Elimina en bloque, en todos los stands, los comentarios que coinciden con el filtro.
+     * @param filtro criterio (rango de fechas y/o autores, ver {@link FiltroComentarios})
+     * @return lo eliminado
+     */
+    public ResultadoPurga purgarComentarios(FiltroComentarios filtro) { return purgarComentarios(filtro, null, false); }
+
+    /**
+     * Elimina en bloque los comentarios que coinciden con el filtro en los stands indicados. Cada stand se compacta
+     * en una sola pasada (en paralelo entre stands con el repositorio en memoria); el índice de visitas y el
+     * recomendador se reconstruyen al primer uso y las estadísticas aproximadas una vez al final. Para una ventana de retención:
+     * {@code purgarComentarios(FiltroComentarios.anterioresA(fecha), null, true)}.
+     * @param filtro criterio de eliminación; numerosStand stands a purgar (null para todos); eliminarVisitantesSinComentarios true para eliminar también a los visitantes que perdieron comentarios en la purga y ya no tienen ninguno
+     * @return lo eliminado
+     * @throws NoSuchElementException si algún stand no existe (no se elimina nada)
+     */
+    public ResultadoPurga purgarComentarios(FiltroComentarios filtro, Collection<String> numerosStand,
+                                            boolean eliminarVisitantesSinComentarios) {
+        ResultadoPurga r;
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            List<Stand> stands = numerosStand == null ? repo.stands()
+                    : numerosStand.stream().map(this::buscarStandPorNumero).distinct().toList();
+            r = purgar(filtro, stands, List.of(), eliminarVisitantesSinComentarios);
+            evento = reservarPurga(r);
+        } finally {
+            escritura.unlock();
         }
+        publicar(evento);
+        return r;
+    }
 
-        sb.append("\nStands SIN asignar:\n");
-        List<String> libres = stands.stream()
-                .filter(Stand::estaDisponible)
-                .map(Stand::getNumero)
-                .sorted(String::compareToIgnoreCase)
-                .toList();
-        if (libres.isEmpty()) {
-            sb.append(" (ninguno)\n");
-        } else {
-            libres.forEach(n -> sb.append(" - Stand ").append(n).append("\n"));
+    /**
+     * Elimina varios visitantes y sus comentarios recorriendo cada stand una sola vez (en lugar de una pasada por
+     * stand y visitante con {@link #eliminarVisitante}).
+     * @param ids identificaciones de los visitantes
+     * @return lo eliminado
+     * @throws NoSuchElementException si algún visitante no existe (no se elimina nada)
+     */
+    public ResultadoPurga eliminarVisitantes(Collection<String> ids) {
+        ResultadoPurga r;
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            Map<String, Visitante> porClave = new LinkedHashMap<>();
+            for (String id : ids) {
+                Visitante v = buscarVisitantePorId(id);
+                porClave.putIfAbsent(v.getIdentificacion().toLowerCase(), v);
+            }
+            if (porClave.isEmpty()) return new ResultadoPurga(0, Map.of(), List.of(), 0);
+            List<String> identificaciones = porClave.values().stream().map(Visitante::getIdentificacion).toList();
+            r = purgar(FiltroComentarios.deVisitantes(identificaciones), repo.stands(), porClave.values(), false);
+            evento = reservarPurga(r);
+        } finally {
+            escritura.unlock();
         }
+        publicar(evento);
+        return r;
+    }
 
-        return sb.toString();
+    private EventoReservado reservarPurga(ResultadoPurga r) {
+        if (r.comentariosEliminados() == 0 && r.visitantesEliminados().isEmpty()) return null;
+        return reservar(new EventoFeria.ComentariosPurgados(r.comentariosEliminados(), r.visitantesEliminados()));
     }
 
     /**
-     * Genera un reporte de visitantes y los stands que han visitado (derivado de sus comentarios).
-     * Incluye también visitantes que comentaron pero no están registrados actualmente.
-     * @return cadena formateada con el reporte
+     * Purga común (con el candado de escritura tomado): compacta los stands, elimina visitantes, marca lo
+     * modificado y descarta o reconstruye índices y estadísticas (quien llama reserva el evento y lo publica tras
+     * soltarlo).
+     * @param filtro criterio; stands stands a purgar; aEliminar visitantes que se eliminan sí o sí; huerfanos true para eliminar también a quienes se quedaron sin comentarios
+     * @return lo eliminado
      */
-    public String reporteVisitantesYStandsVisitados() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== REPORTE: Visitantes y Stands visitados ===\n");
-
-        Map<String, Set<String>> visitasPorVisitante = new HashMap<>();
-        Map<String, Integer> comentariosPorVisitante = new HashMap<>();
-
-        for (Stand s : stands) {
-            for (Comentario c : s.getComentarios()) {
-                visitasPorVisitante
-                        .computeIfAbsent(c.visitanteId(), k -> new HashSet<>())
-                        .add(s.getNumero());
-                comentariosPorVisitante.merge(c.visitanteId(), 1, Integer::sum);
+    private ResultadoPurga purgar(FiltroComentarios filtro, List<Stand> stands, Collection<Visitante> aEliminar,
+                                  boolean huerfanos) {
+        long t0 = System.nanoTime();
+        Set<String> autores = new HashSet<>();
+        Map<String, Integer> porStand = repo.eliminarComentarios(stands, filtro, huerfanos ? autores : null);
+        int comentarios = porStand.values().stream().mapToInt(Integer::intValue).sum();
+
+        Map<String, Visitante> eliminar = new LinkedHashMap<>();
+        for (Visitante v : aEliminar) eliminar.put(v.getIdentificacion().toLowerCase(), v);
+        if (huerfanos && !autores.isEmpty()) {
+            // Quienes perdieron comentarios y no conservan ninguno en ningún stand
+            FiltroComentarios afectados = FiltroComentarios.deVisitantes(autores);
+            Set<String> conservan = new HashSet<>();
+            for (Stand s : repo.stands()) s.autoresComentarios(afectados, conservan);
+            Set<String> conservanClaves = new HashSet<>();
+            for (String id : conservan) conservanClaves.add(id.toLowerCase());
+            for (String autor : autores) {
+                if (conservanClaves.contains(autor.toLowerCase())) continue;
+                repo.buscarVisitante(autor).ifPresent(v -> eliminar.putIfAbsent(v.getIdentificacion().toLowerCase(), v));
             }
         }
+        List<String> visitantesEliminados = new ArrayList<>(eliminar.size());
+        for (Visitante v : eliminar.values()) {
+            repo.eliminarVisitante(v);
+            visitantesEliminados.add(v.getIdentificacion());
+        }
 
-        if (visitasPorVisitante.isEmpty()) {
-            sb.append("(sin datos de visitas/comentarios)\n");
-            return sb.toString();
+        if (comentarios > 0 || !visitantesEliminados.isEmpty()) {
+            // No admiten bajas parciales de comentarios: se reconstruyen al primer uso
+            recomendador = null;
+            if (estadisticas != null) estadisticas = EstadisticasAproximadas.desde(repo.stands());
+            porStand.keySet().forEach(this::modificado);
+            if (comentarios > 0) versionComentarios.incrementAndGet();
+            if (!visitantesEliminados.isEmpty()) {
+                versionVisitantes.incrementAndGet();
+                modificado(null);
+            }
         }
+        return new ResultadoPurga(comentarios, Collections.unmodifiableMap(porStand),
+                List.copyOf(visitantesEliminados), System.nanoTime() - t0);
+    }
 
-        visitantes.stream()
-                .sorted(Comparator.comparing(Visitante::getIdentificacion, String.CASE_INSENSITIVE_ORDER))
-                .forEach(v -> {
-                    Set<String> standsVisitados = visitasPorVisitante.getOrDefault(v.getIdentificacion(), Set.of());
-                    int total = comentariosPorVisitante.getOrDefault(v.getIdentificacion(), 0);
-                    sb.append(" - ").append(v.getIdentificacion()).append(" (").append(v.getNombre()).append(")")
-                            .append(" -> Stands: ").append(standsVisitados.isEmpty() ? "-" : standsVisitados)
-                            .append(" | Comentarios: ").append(total).append("\n");
-                });
-
-        Set<String> idsConComentarios = new HashSet<>(visitasPorVisitante.keySet());
-        Set<String> idsEnSistema = visitantes.stream()
-                .map(Visitante::getIdentificacion)
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-        idsConComentarios.stream()
-                .filter(id -> !idsEnSistema.contains(id.toLowerCase()))
-                .sorted(String::compareToIgnoreCase)
-                .forEach(id -> {
-                    Set<String> standsVisitados = visitasPorVisitante.getOrDefault(id, Set.of());
-                    int total = comentariosPorVisitante.getOrDefault(id, 0);
-                    sb.append(" - ").append(id)
-                            .append(" (no registrado actualmente)")
-                            .append(" -> Stands: ").append(standsVisitados.isEmpty() ? "-" : standsVisitados)
-                            .append(" | Comentarios: ").append(total).append("\n");
-                });
-
-        return sb.toString();
+    /**
+     * Reemplaza el estado completo de la feria en bloque (usado al cargar snapshots o datos masivos).
+     * Valida la unicidad con conjuntos hash en una sola pasada, en lugar de buscar elemento por elemento.
+     * @param nuevasEmpresas empresas a cargar; nuevosStands stands (con asignaciones y comentarios); nuevosVisitantes visitantes a cargar
+     * @throws IllegalArgumentException si hay nombres, números o identificaciones repetidas
+     */
+    public void restaurarEstado(Collection<Empresa> nuevasEmpresas, Collection<Stand> nuevosStands,
+                                Collection<Visitante> nuevosVisitantes) {
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            verificarUnicos(nuevasEmpresas, Empresa::getNombre, "Empresa repetida: ");
+            verificarUnicos(nuevosStands, Stand::getNumero, "Stand repetido: ");
+            verificarUnicos(nuevosVisitantes, Visitante::getIdentificacion, "Visitante repetido: ");
+            repo.reemplazarTodo(nuevasEmpresas, nuevosStands, nuevosVisitantes);
+            indiceStands = null; // se reconstruyen al primer uso
+            recomendador = null;
+            versionEmpresas.incrementAndGet();
+            versionStands.incrementAndGet();
+            versionVisitantes.incrementAndGet();
+            versionComentarios.incrementAndGet();
+            if (estadisticas != null) estadisticas = EstadisticasAproximadas.desde(repo.stands());
+            standsCongelados.clear();
+            standsModificados.clear();
+            modificado(null);
+            evento = reservar(new EventoFeria.EstadoRestaurado());
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
     }
 
     /**
-     * Genera un reporte de promedios de calificación por stand (ordenado desc, sin calificaciones al final).
-     * @return cadena formateada con el reporte
+     * Verifica que las claves (ignorando mayúsculas/minúsculas) de una colección sean únicas.
+     * @param elementos elementos a revisar; clave función que extrae la clave; mensaje prefijo del error
+     * @throws IllegalArgumentException si alguna clave se repite
      */
-    public String reportePromedioPorStand() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== REPORTE: Promedio de calificación por Stand ===\n");
-
-        List<Stand> ordenados = new ArrayList<>(stands);
-        ordenados.sort((a, b) -> {
-            double promA = a.promedioCalificacion().orElse(Double.NaN);
-            double promB = b.promedioCalificacion().orElse(Double.NaN);
-            // NaN al final
-            if (Double.isNaN(promA) && Double.isNaN(promB)) return 0;
-            if (Double.isNaN(promA)) return 1;
-            if (Double.isNaN(promB)) return -1;
-            return Double.compare(promB, promA);
-        });
+    private static <T> void verificarUnicos(Collection<T> elementos, Function<T, String> clave,
+                                            String mensaje) {
+        Set<String> vistos = new HashSet<>(elementos.size() * 2);
+        for (T e : elementos) {
+            String k = clave.apply(e);
+            if (!vistos.add(k.toLowerCase())) throw new IllegalArgumentException(mensaje + k);
+        }
+    }
+
+    /**
+     * Aplica un cambio con el candado de escritura tomado y publica su evento tras soltarlo.
+     * @param cambio cambio a aplicar; devuelve la reserva de su evento (ver {@link #reservar})
+     */
+    private void aplicar(Supplier<EventoReservado> cambio) {
+        EventoReservado evento;
+        escritura.lock();
+        try {
+            evento = cambio.get();
+        } finally {
+            escritura.unlock();
+        }
+        publicar(evento);
+    }
+
+    /**
+     * Consulta los índices compartidos con el candado de escritura (no son seguros para lecturas concurrentes).
+     * @param consulta lectura a ejecutar
+     * @return resultado de la consulta
+     */
+    private <T> T consultarConEscritura(Supplier<T> consulta) {
+        escritura.lock();
+        try {
+            return consulta.get();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Registra un cambio: avanza la época (invalida la instantánea vigente) y, si se indica, descarta la copia
+     * del stand afectado.
+     * @param numeroStand número del stand modificado, o null si el cambio no afecta a stands
+     */
+    private void modificado(String numeroStand) {
+        if (numeroStand != null) standsModificados.add(numeroStand.toLowerCase());
+        epoca.incrementAndGet();
+    }
+
+    /**
+     * Devuelve una instantánea inmutable del estado actual para generar reportes y listados sin candados mientras
+     * otros hilos siguen registrando. Si nada cambió desde la última, se reutiliza; si no, se crea una nueva
+     * copiando solo los stands modificados (el resto se comparte con la anterior) y, cuando cambiaron, las
+     * listas de empresas y visitantes. Solo la copia toma el candado de escritura; los reportes corren fuera de él.
+     * @return instantánea de la época actual
+     */
+    public InstantaneaFeria instantanea() {
+        InstantaneaFeria actual = instantanea;
+        if (actual != null && actual.epoca() == epoca.get()) return actual;
+        escritura.lock();
+        try {
+            actual = instantanea;
+            long e = epoca.get();
+            if (actual != null && actual.epoca() == e) return actual;
+            long vEmpresas = versionEmpresas.get();
+            long vVisitantes = versionVisitantes.get();
+            List<Empresa> empresas = actual != null && actual.versionEmpresas == vEmpresas ? actual.listarEmpresas()
+                    : repo.empresas().stream().map(Empresa::copia).toList();
+            List<Visitante> visitantes = actual != null && actual.versionVisitantes == vVisitantes
+                    ? actual.listarVisitantes()
+                    : repo.visitantes().stream().map(Visitante::copia).toList();
+            List<Stand> stands = new ArrayList<>();
+            for (Stand s : repo.stands()) {
+                String clave = s.getNumero().toLowerCase();
+                Stand copia = standsModificados.remove(clave) ? null : standsCongelados.get(clave);
+                if (copia == null) {
+                    copia = s.copia();
+                    standsCongelados.put(clave, copia);
+                }
+                stands.add(copia);
+            }
+            actual = new InstantaneaFeria(e, vEmpresas, vVisitantes, empresas, List.copyOf(stands), visitantes);
+            instantanea = actual;
+            return actual;
+        } finally {
+            escritura.unlock();
+        }
+    }
 
-        for (Stand s : ordenados) {
-            var prom = s.promedioCalificacion();
-            if (prom.isPresent()) {
-                sb.append(" - Stand ").append(s.getNumero())
-                        .append(": ★").append(String.format("%.2f", prom.getAsDouble()))
-                        .append(" (").append(s.totalComentarios()).append(" comentarios)\n");
-            } else {
-                sb.append(" - Stand ").append(s.getNumero())
-                        .append(": sin calificaciones\n");
+    /**
+     * Devuelve el bus de eventos de cambio, para suscribir consumidores que mantengan proyecciones incrementales.
+     * Cada cambio reserva la secuencia de su evento con el candado de escritura tomado, así los eventos llegan en
+     * el orden en que se aplicaron los cambios, y lo escribe después de soltarlo, así un suscriptor puede consultar
+     * la feria (por ejemplo con {@link #instantanea()}) aunque un productor esté esperando por contrapresión.
+     * @return bus de eventos de esta feria
+     */
+    public BusEventos eventos() {
+        BusEventos b = eventos;
+        if (b == null) {
+            synchronized (this) {
+                b = eventos;
+                if (b == null) eventos = b = new BusEventos(4096);
             }
         }
+        return b;
+    }
+
+    /**
+     * Evento cuya secuencia en el bus se reservó con el candado de escritura tomado.
+     */
+    private record EventoReservado(BusEventos bus, long secuencia, EventoFeria evento) {}
+
+    /**
+     * Reserva la secuencia de un evento; se llama con el candado de escritura tomado, como último paso del cambio.
+     * @param evento evento del cambio aplicado
+     * @return reserva a publicar tras soltar el candado, o null si aún no se creó el bus (antes de
+     * {@link #eventos()} no puede haber suscriptores)
+     */
+    private EventoReservado reservar(EventoFeria evento) {
+        BusEventos b = eventos;
+        return b == null ? null : new EventoReservado(b, b.reservar(), evento);
+    }
+
+    /**
+     * Escribe en el bus un evento reservado (sin el candado de escritura: puede esperar por contrapresión).
+     * @param reservado reserva obtenida con {@link #reservar}, o null
+     */
+    private static void publicar(EventoReservado reservado) {
+        if (reservado != null) reservado.bus().publicar(reservado.secuencia(), reservado.evento());
+    }
 
-        return sb.toString();
+    /**
+     * Devuelve (creándola si hace falta) la caché de reportes.
+     * @return caché de reportes
+     */
+    private CacheReportes cacheReportes() {
+        CacheReportes c = cacheReportes;
+        if (c == null) {
+            synchronized (this) {
+                c = cacheReportes;
+                if (c == null) cacheReportes = c = new CacheReportes(REPORTES_CACHEADOS);
+            }
+        }
+        return c;
     }
+
+    /**
+     * Devuelve el índice de stands, construyéndolo desde el repositorio la primera vez (o tras una restauración).
+     * @return índice de stands
+     */
+    private IndiceStands indiceStands() {
+        IndiceStands i = indiceStands;
+        if (i != null) return i;
+        escritura.lock();
+        try {
+            if (indiceStands == null) {
+                IndiceStands nuevo = new IndiceStands();
+                nuevo.reconstruir(repo.stands());
+                indiceStands = nuevo;
+            }
+            return indiceStands;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Devuelve el recomendador de stands, construyéndolo desde los comentarios la primera vez (o tras una restauración).
+     * @return recomendador de stands
+     */
+    private RecomendadorStands recomendador() {
+        RecomendadorStands r = recomendador;
+        if (r != null) return r;
+        escritura.lock();
+        try {
+            if (recomendador == null) recomendador = RecomendadorStands.desde(repo.stands());
+            return recomendador;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Indica si el reporte de visitantes puede servirse obsoleto mientras se recalcula en segundo plano
+     * (útil cuando es costoso y se consulta con mucha frecuencia).
+     * @param permitir true para servir la versión anterior mientras se recalcula; false para recalcular siempre en línea
+     */
+    public void permitirReporteVisitantesObsoleto(boolean permitir) { this.visitantesObsoletoPermitido = permitir; }
+
+    /**
+     * Devuelve las métricas de la caché de reportes.
+     * @return aciertos, fallos, servidos obsoletos y desalojos
+     */
+    public CacheReportes.Estadisticas estadisticasCacheReportes() { return cacheReportes().estadisticas(); }
+
+    /**
+     * Devuelve (creándolo si hace falta) el ejecutor de un hilo usado para recalcular reportes en segundo plano.
+     * @return ejecutor con hilo daemon
+     */
+    private synchronized ExecutorService recalculo() {
+        if (recalculo == null) {
+            recalculo = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "feria-recalculo-reportes");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return recalculo;
+    }
+
+    /**
+     * Genera un reporte de empresas con su stand, empresas sin stand y stands sin asignar.
+     * El resultado se sirve desde caché mientras no cambien empresas ni stands.
+     * @return cadena formateada con el reporte
+     */
+    public String reporteEmpresasYStands() {
+        return cacheReportes().obtener("empresas-stands", new long[]{versionEmpresas.get(), versionStands.get()},
+                this::calcularReporteEmpresasYStands);
+    }
+
+    /**
+     * Calcula el reporte de empresas y stands sin pasar por la caché.
+     * @return cadena formateada con el reporte
+     */
+    private String calcularReporteEmpresasYStands() {
+        return FormatoReportes.empresasYStands(repo.empresas(), repo.stands(),
+                consultarConEscritura(() -> indiceStands().libresOrdenados()));
+    }
+
+    /**
+     * Genera un reporte de visitantes y los stands que han visitado (derivado de sus comentarios).
+     * Incluye también visitantes que comentaron pero no están registrados actualmente.
+     * El resultado se sirve desde caché mientras no cambien visitantes, stands ni comentarios; se calcula sobre una
+     * {@link #instantanea()}, sin retener el candado de escritura (si se permite servirlo obsoleto, en segundo plano).
+     * @return cadena formateada con el reporte
+     * @throws IllegalStateException si falló el recálculo en segundo plano anterior (la siguiente lectura lo reintenta)
+     */
+    public String reporteVisitantesYStandsVisitados() {
+        long[] versiones = {versionVisitantes.get(), versionStands.get(), versionComentarios.get()};
+        if (visitantesObsoletoPermitido) {
+            return cacheReportes().obtenerPermitiendoObsoleto("visitantes-stands", versiones,
+                    () -> instantanea().reporteVisitantesYStandsVisitados(), recalculo());
+        }
+        return cacheReportes().obtener("visitantes-stands", versiones,
+                () -> instantanea().reporteVisitantesYStandsVisitados());
+    }
+
+    /**
+     * Recorre el reporte de visitantes y stands visitados línea a línea, de forma perezosa: cada línea se arma
+     * al consumirla a partir de los índices ordenados, sin materializar el reporte completo. Conviene para
+     * ferias grandes (primera línea inmediata y memoria acotada); no pasa por la caché de reportes.
+     * Recorre una {@link #instantanea()}: la feria puede seguir modificándose mientras se consume el flujo.
+     * @return flujo de líneas (sin salto de línea final), empezando por el encabezado
+     */
+    public Stream<String> lineasReporteVisitantesYStandsVisitados() {
+        return instantanea().lineasReporteVisitantesYStandsVisitados();
+    }
+
+    /**
+     * Genera un reporte de promedios de calificación por stand (ordenado desc, sin calificaciones al final).
+     * El resultado se sirve desde caché mientras no cambien stands ni comentarios.
+     * @return cadena formateada con el reporte
+     */
+    public String reportePromedioPorStand() {
+        return cacheReportes().obtener("promedio-stand", new long[]{versionStands.get(), versionComentarios.get()},
+                this::calcularReportePromedioPorStand);
+    }
+
+    /**
+     * Calcula el reporte de promedios por stand sin pasar por la caché.
+     * @return cadena formateada con el reporte
+     */
+    private String calcularReportePromedioPorStand() { return FormatoReportes.promedioPorStand(repo.stands()); }
 }
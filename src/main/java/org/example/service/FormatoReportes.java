@@ -0,0 +1,115 @@
+package org.example.service;
+
+import org.example.model.Empresa;
+import org.example.model.Stand;
+
+import java.util.*;
+
+/**
+ * Formato de texto de los reportes, compartido por {@link FeriaEmpresarial} (sobre el estado vivo) e
+ * {@link InstantaneaFeria} (sobre una copia inmutable).
+ */
+final class FormatoReportes {
+    static final String ENCABEZADO_VISITANTES = "=== REPORTE: Visitantes y Stands visitados ===";
+    static final String SIN_VISITAS = "(sin datos de visitas/comentarios)";
+
+    private FormatoReportes() { }
+
+    /**
+     * Reporte de empresas con su stand, empresas sin stand y stands sin asignar.
+     * @param empresas empresas en orden de registro; stands stands en orden de creación; libresOrdenados números de los stands libres, ya ordenados
+     * @return cadena formateada con el reporte
+     */
+    static String empresasYStands(List<Empresa> empresas, List<Stand> stands, List<String> libresOrdenados) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== REPORTE: Empresas y Stands ===\n");
+
+        sb.append("\nEmpresas con stand:\n");
+        Set<String> empresasConStand = new HashSet<>();
+        stands.stream()
+                .filter(s -> s.getEmpresaAsignada().isPresent())
+                .forEach(s -> {
+                    String emp = s.getEmpresaAsignada().get().getNombre();
+                    empresasConStand.add(emp);
+                    sb.append(" - ").append(emp).append(" -> Stand ").append(s.getNumero()).append("\n");
+                });
+        if (empresasConStand.isEmpty()) sb.append(" (ninguna)\n");
+
+        sb.append("\nEmpresas SIN stand:\n");
+        List<String> sinStand = empresas.stream()
+                .map(Empresa::getNombre)
+                .filter(n -> !empresasConStand.contains(n))
+                .sorted(String::compareToIgnoreCase)
+                .toList();
+        if (sinStand.isEmpty()) {
+            sb.append(" (ninguna)\n");
+        } else {
+            sinStand.forEach(n -> sb.append(" - ").append(n).append("\n"));
+        }
+
+        sb.append("\nStands SIN asignar:\n");
+        if (libresOrdenados.isEmpty()) {
+            sb.append(" (ninguno)\n");
+        } else {
+            libresOrdenados.forEach(n -> sb.append(" - Stand ").append(n).append("\n"));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Línea del reporte de visitantes.
+     * @param id identificación; detalle nombre entre paréntesis o aviso de no registrado; stands stands visitados (null si ninguno); comentarios total de comentarios
+     * @return línea sin salto final
+     */
+    static String lineaVisitas(String id, String detalle, Collection<String> stands, int comentarios) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(" - ").append(id).append(' ').append(detalle).append(" -> Stands: ");
+        if (stands == null || stands.isEmpty()) sb.append('-');
+        else sb.append(stands);
+        return sb.append(" | Comentarios: ").append(comentarios).toString();
+    }
+
+    /**
+     * Reporte de promedios de calificación por stand (ordenado desc, sin calificaciones al final).
+     * @param stands stands con sus comentarios (no se modifica la lista)
+     * @return cadena formateada con el reporte
+     */
+    static String promedioPorStand(List<Stand> stands) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== REPORTE: Promedio de calificación por Stand ===\n");
+
+        for (Stand s : ordenarPorPromedio(stands)) {
+            var prom = s.promedioCalificacion();
+            if (prom.isPresent()) {
+                sb.append(" - Stand ").append(s.getNumero())
+                        .append(": ★").append(String.format("%.2f", prom.getAsDouble()))
+                        .append(" (").append(s.totalComentarios()).append(" comentarios)\n");
+            } else {
+                sb.append(" - Stand ").append(s.getNumero())
+                        .append(": sin calificaciones\n");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Ordena los stands por promedio de calificación descendente, con los que no tienen calificaciones al final.
+     * @param stands stands a ordenar (no se modifica la lista)
+     * @return nueva lista ordenada
+     */
+    static List<Stand> ordenarPorPromedio(List<Stand> stands) {
+        List<Stand> ordenados = new ArrayList<>(stands);
+        ordenados.sort((a, b) -> {
+            double promA = a.promedioCalificacion().orElse(Double.NaN);
+            double promB = b.promedioCalificacion().orElse(Double.NaN);
+            // NaN al final
+            if (Double.isNaN(promA) && Double.isNaN(promB)) return 0;
+            if (Double.isNaN(promA)) return 1;
+            if (Double.isNaN(promB)) return -1;
+            return Double.compare(promB, promA);
+        });
+        return ordenados;
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.service;
+
+import org.example.model.Stand;
+import org.example.model.Ubicacion;
+import org.example.utils.ComparadorNatural;
+
+import java.util.*;
+
+/**
+ * Índice ordenado y navegable de stands por número (orden natural, sensible a números) y por pabellón,
+ * con el subconjunto de stands libres de cada pabellón. Se mantiene de forma incremental desde
+ * {@link FeriaEmpresarial} al crear, asignar y liberar stands. Guarda solo números (en minúsculas) y
+ * ubicaciones, no las entidades, para servir igual a repositorios en memoria o persistentes.
+ * <p>
+ * No es seguro para hilos: la feria lo consulta y lo actualiza siempre con su candado de escritura.
+ */
+class IndiceStands {
+    private record Entrada(String numero, Ubicacion ubicacion) { }
+
+    private final NavigableMap<String, Entrada> porNumero = new TreeMap<>(ComparadorNatural.INSTANCIA);
+    private final Map<String, NavigableSet<String>> porPabellon = new HashMap<>();
+    private final Map<String, NavigableSet<String>> libresPorPabellon = new HashMap<>();
+    // Stands libres con posición conocida: pabellón -> fila -> posición -> números
+    private final Map<String, NavigableMap<Integer, NavigableMap<Integer, NavigableSet<String>>>> libresPorCoordenada =
+            new HashMap<>();
+
+    /**
+     * Agrega un stand al índice.
+     * @param s stand a indexar (con su estado de asignación actual)
+     */
+    void agregar(Stand s) {
+        String clave = s.getNumero().toLowerCase();
+        String pabellon = s.getUbicacionDetallada().pabellon().toLowerCase();
+        porNumero.put(clave, new Entrada(s.getNumero(), s.getUbicacionDetallada()));
+        conjunto(porPabellon, pabellon).add(clave);
+        if (s.estaDisponible()) marcarLibre(clave, s.getUbicacionDetallada(), true);
+    }
+
+    private void marcarLibre(String clave, Ubicacion u, boolean libre) {
+        String pabellon = u.pabellon().toLowerCase();
+        NavigableSet<String> libres = conjunto(libresPorPabellon, pabellon);
+        if (libre) libres.add(clave); else libres.remove(clave);
+        if (u.posicion() < 0) return;
+        NavigableMap<Integer, NavigableMap<Integer, NavigableSet<String>>> filas =
+                libresPorCoordenada.computeIfAbsent(pabellon, k -> new TreeMap<>());
+        if (libre) {
+            filas.computeIfAbsent(u.fila(), k -> new TreeMap<>())
+                    .computeIfAbsent(u.posicion(), k -> new TreeSet<>(ComparadorNatural.INSTANCIA)).add(clave);
+            return;
+        }
+        NavigableMap<Integer, NavigableSet<String>> posiciones = filas.get(u.fila());
+        if (posiciones == null) return;
+        NavigableSet<String> claves = posiciones.get(u.posicion());
+        if (claves == null || !claves.remove(clave) || !claves.isEmpty()) return;
+        posiciones.remove(u.posicion());
+        if (posiciones.isEmpty()) filas.remove(u.fila());
+    }
+
+    private static NavigableSet<String> conjunto(Map<String, NavigableSet<String>> mapa, String pabellon) {
+        return mapa.computeIfAbsent(pabellon, k -> new TreeSet<>(ComparadorNatural.INSTANCIA));
+    }
+
+    /**
+     * Actualiza el estado libre/ocupado de un stand indexado.
+     * @param numero número del stand; libre true si quedó disponible
+     */
+    void marcar(String numero, boolean libre) {
+        String clave = numero.toLowerCase();
+        Entrada e = porNumero.get(clave);
+        if (e == null) return;
+        marcarLibre(clave, e.ubicacion(), libre);
+    }
+
+    /**
+     * Vacía el índice y lo reconstruye desde los stands dados.
+     * @param stands stands actuales
+     */
+    void reconstruir(Collection<Stand> stands) {
+        porNumero.clear();
+        porPabellon.clear();
+        libresPorPabellon.clear();
+        libresPorCoordenada.clear();
+        stands.forEach(this::agregar);
+    }
+
+    /**
+     * Números de todos los stands en orden natural.
+     * @return números tal como se registraron
+     */
+    List<String> numerosOrdenados() {
+        return porNumero.values().stream().map(Entrada::numero).toList();
+    }
+
+    /**
+     * Números de los stands libres en orden natural.
+     * @return números de stands disponibles
+     */
+    List<String> libresOrdenados() {
+        List<String> libres = new ArrayList<>();
+        for (NavigableSet<String> set : libresPorPabellon.values()) libres.addAll(set);
+        libres.sort(ComparadorNatural.INSTANCIA);
+        return libres.stream().map(k -> porNumero.get(k).numero()).toList();
+    }
+
+    /**
+     * Stands con número dentro de un rango (inclusive, orden natural), opcionalmente de un pabellón.
+     * @param desde número inicial; hasta número final; pabellon pabellón a filtrar (o null para todos)
+     * @return números en orden natural
+     */
+    List<String> rango(String desde, String hasta, String pabellon) {
+        String d = desde.toLowerCase(), h = hasta.toLowerCase();
+        if (ComparadorNatural.INSTANCIA.compare(d, h) > 0) return List.of();
+        NavigableSet<String> claves = pabellon == null
+                ? porNumero.navigableKeySet()
+                : porPabellon.getOrDefault(Ubicacion.clavePabellon(pabellon), Collections.emptyNavigableSet());
+        return claves.subSet(d, true, h, true).stream().map(k -> porNumero.get(k).numero()).toList();
+    }
+
+    /**
+     * Busca el stand libre más cercano a uno dado dentro de su pabellón, por distancia entre coordenadas
+     * (filas de diferencia más posiciones de diferencia); a igual distancia gana el número menor en orden natural.
+     * Recorre las filas hacia afuera desde la del stand y, en cada una, solo las posiciones vecinas, así que no
+     * examina todo el pabellón. Si el stand de referencia no tiene posición, o ningún libre la tiene, elige entre
+     * los vecinos libres anterior y siguiente por número.
+     * @param numero número del stand de referencia
+     * @return número del stand libre más cercano (distinto del de referencia), si existe
+     */
+    Optional<String> libreMasCercano(String numero) {
+        String clave = numero.toLowerCase();
+        Entrada ref = porNumero.get(clave);
+        if (ref == null) return Optional.empty();
+        String pabellon = ref.ubicacion().pabellon().toLowerCase();
+        NavigableMap<Integer, NavigableMap<Integer, NavigableSet<String>>> filas = libresPorCoordenada.get(pabellon);
+        if (ref.ubicacion().posicion() >= 0 && filas != null && !filas.isEmpty()) {
+            String cercano = masCercanoPorCoordenadas(clave, ref.ubicacion(), filas);
+            if (cercano != null) return Optional.of(porNumero.get(cercano).numero());
+        }
+        NavigableSet<String> libres = libresPorPabellon.get(pabellon);
+        if (libres == null) return Optional.empty();
+        String menor = libres.lower(clave);
+        return Optional.ofNullable(menor != null ? menor : libres.higher(clave)).map(k -> porNumero.get(k).numero());
+    }
+
+    private static String masCercanoPorCoordenadas(String clave, Ubicacion ref,
+                                                   NavigableMap<Integer, NavigableMap<Integer, NavigableSet<String>>> filas) {
+        String mejor = null;
+        long mejorDistancia = Long.MAX_VALUE;
+        Iterator<Map.Entry<Integer, NavigableMap<Integer, NavigableSet<String>>>> abajo =
+                filas.headMap(ref.fila(), true).descendingMap().entrySet().iterator();
+        Iterator<Map.Entry<Integer, NavigableMap<Integer, NavigableSet<String>>>> arriba =
+                filas.tailMap(ref.fila(), false).entrySet().iterator();
+        Map.Entry<Integer, NavigableMap<Integer, NavigableSet<String>>> a = abajo.hasNext() ? abajo.next() : null;
+        Map.Entry<Integer, NavigableMap<Integer, NavigableSet<String>>> b = arriba.hasNext() ? arriba.next() : null;
+        while (a != null || b != null) {
+            // siguiente fila más cercana a la de referencia
+            boolean usarAbajo = b == null || (a != null && ref.fila() - a.getKey() <= b.getKey() - ref.fila());
+            Map.Entry<Integer, NavigableMap<Integer, NavigableSet<String>>> fila = usarAbajo ? a : b;
+            long dFila = Math.abs((long) fila.getKey() - ref.fila());
+            if (dFila > mejorDistancia) break; // las filas restantes están aún más lejos
+            NavigableMap<Integer, NavigableSet<String>> posiciones = fila.getValue();
+            for (Map.Entry<Integer, NavigableSet<String>> p : vecinas(posiciones, ref.posicion())) {
+                String candidato = primeroDistinto(p.getValue(), clave);
+                if (candidato == null) {
+                    // la única ocupante es la referencia: probar la posición siguiente en esa dirección
+                    p = p.getKey() <= ref.posicion() ? posiciones.lowerEntry(p.getKey()) : posiciones.higherEntry(p.getKey());
+                    if (p == null) continue;
+                    candidato = p.getValue().first();
+                }
+                long d = dFila + Math.abs((long) p.getKey() - ref.posicion());
+                if (d < mejorDistancia || (d == mejorDistancia && ComparadorNatural.INSTANCIA.compare(candidato, mejor) < 0)) {
+                    mejor = candidato;
+                    mejorDistancia = d;
+                }
+            }
+            if (usarAbajo) a = abajo.hasNext() ? abajo.next() : null;
+            else b = arriba.hasNext() ? arriba.next() : null;
+        }
+        return mejor;
+    }
+
+    private static List<Map.Entry<Integer, NavigableSet<String>>> vecinas(NavigableMap<Integer, NavigableSet<String>> posiciones,
+                                                                         int posicion) {
+        Map.Entry<Integer, NavigableSet<String>> menor = posiciones.floorEntry(posicion);
+        Map.Entry<Integer, NavigableSet<String>> mayor = posiciones.higherEntry(posicion);
+        if (menor == null) return mayor == null ? List.of() : List.of(mayor);
+        return mayor == null ? List.of(menor) : List.of(menor, mayor);
+    }
+
+    private static String primeroDistinto(NavigableSet<String> claves, String excluida) {
+        for (String k : claves) if (!k.equals(excluida)) return k;
+        return null;
+    }
+}
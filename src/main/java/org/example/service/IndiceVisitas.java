@@ -0,0 +1,183 @@
+package org.example.service;
+
+import org.example.model.Comentario;
+import org.example.model.Stand;
+import org.example.model.Visitante;
+import org.example.utils.ComparadorNatural;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Índice incremental de visitas derivadas de comentarios: visitantes registrados ordenados por identificación
+ * (sin distinguir mayúsculas) y, por cada visitante que comentó, los ordinales de sus stands y su total de
+ * comentarios. Permite recorrer el reporte de visitantes de forma perezosa, sin reconstruir mapas ni ordenar
+ * a todos los visitantes en cada consulta.
+ * <p>
+ * Los stands de cada visitante se guardan como un arreglo compacto de enteros (4 bytes por stand distinto, en
+ * lugar de un nodo de árbol por visita); el conjunto ordenado de números se arma al pedirlo, línea por línea,
+ * así que recorrer el reporte solo retiene en memoria la línea en curso.
+ */
+class IndiceVisitas {
+
+    /**
+     * Visitante registrado tal como se muestra en el reporte.
+     * @param identificacion identificación original; nombre nombre actual
+     */
+    record Registrado(String identificacion, String nombre) {}
+
+    /**
+     * Visitas de un visitante: identificación con la que comentó, ordinales de los stands comentados (sin orden;
+     * se compactan al llenarse el arreglo) y total de comentarios.
+     */
+    static final class Visitas {
+        final String visitanteId;
+        private int[] stands = new int[2];
+        private int cantidad;
+        int comentarios;
+
+        Visitas(String visitanteId) { this.visitanteId = visitanteId; }
+
+        void agregar(int ordinal) {
+            if (cantidad > 0 && stands[cantidad - 1] == ordinal) return; // comentarios seguidos al mismo stand
+            if (cantidad == stands.length) {
+                compactar();
+                if (cantidad > stands.length / 4 * 3) stands = Arrays.copyOf(stands, stands.length * 2);
+            }
+            stands[cantidad++] = ordinal;
+        }
+
+        /**
+         * Ordena y quita repetidos en el lugar (solo desde escrituras, que ya están serializadas).
+         */
+        private void compactar() {
+            Arrays.sort(stands, 0, cantidad);
+            int distintos = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (distintos == 0 || stands[i] != stands[distintos - 1]) stands[distintos++] = stands[i];
+            }
+            cantidad = distintos;
+        }
+    }
+
+    private final NavigableMap<String, Registrado> registrados = new TreeMap<>();
+    private final NavigableMap<String, Visitas> visitas = new TreeMap<>();
+    // ordinal -> número de stand, y su inverso; un stand recibe ordinal la primera vez que alguien lo comenta
+    private final List<String> numeros = new ArrayList<>();
+    private final Map<String, Integer> ordinales = new HashMap<>();
+
+    /**
+     * Registra un visitante o actualiza su nombre.
+     * @param identificacion identificación del visitante; nombre nombre a mostrar
+     */
+    void registrarVisitante(String identificacion, String nombre) {
+        registrados.put(identificacion.toLowerCase(), new Registrado(identificacion, nombre));
+    }
+
+    /**
+     * Actualiza el nombre de un visitante ya registrado (no hace nada si ya no está).
+     * @param identificacion identificación del visitante; nombre nuevo nombre
+     */
+    void actualizarNombre(String identificacion, String nombre) {
+        registrados.computeIfPresent(identificacion.toLowerCase(), (k, r) -> new Registrado(r.identificacion(), nombre));
+    }
+
+    /**
+     * Quita un visitante y sus visitas.
+     * @param identificacion identificación del visitante
+     */
+    void eliminarVisitante(String identificacion) {
+        String clave = identificacion.toLowerCase();
+        registrados.remove(clave);
+        visitas.remove(clave);
+    }
+
+    /**
+     * Registra una visita (un comentario) de un visitante a un stand.
+     * @param visitanteId autor del comentario; numeroStand stand comentado
+     */
+    void registrarVisita(String visitanteId, String numeroStand) {
+        Visitas v = visitas.computeIfAbsent(visitanteId.toLowerCase(), k -> new Visitas(visitanteId));
+        Integer ordinal = ordinales.get(numeroStand);
+        if (ordinal == null) {
+            ordinal = numeros.size();
+            numeros.add(numeroStand);
+            ordinales.put(numeroStand, ordinal);
+        }
+        v.agregar(ordinal);
+        v.comentarios++;
+    }
+
+    /**
+     * Stands en los que comentó un visitante.
+     * @param identificacion identificación del visitante
+     * @return números de stand distintos en orden natural (vacío si no comentó)
+     */
+    List<String> standsDe(String identificacion) {
+        return standsDe(visitas.get(identificacion.toLowerCase()));
+    }
+
+    private List<String> standsDe(Visitas v) {
+        if (v == null) return List.of();
+        // copia en lugar de compactar: varias lecturas del reporte (p. ej. de una instantánea) pueden ir en paralelo
+        int[] copia = Arrays.copyOf(v.stands, v.cantidad);
+        Arrays.sort(copia);
+        List<String> resultado = new ArrayList<>(copia.length);
+        for (int i = 0; i < copia.length; i++) {
+            if (i == 0 || copia[i] != copia[i - 1]) resultado.add(numeros.get(copia[i]));
+        }
+        resultado.sort(ComparadorNatural.INSTANCIA);
+        return resultado;
+    }
+
+    /**
+     * Reconstruye el índice desde el estado completo.
+     * @param listaVisitantes visitantes registrados; stands stands con sus comentarios
+     */
+    void reconstruir(Collection<Visitante> listaVisitantes, Collection<Stand> stands) {
+        registrados.clear();
+        visitas.clear();
+        numeros.clear();
+        ordinales.clear();
+        for (Visitante v : listaVisitantes) registrarVisitante(v.getIdentificacion(), v.getNombre());
+        for (Stand s : stands) {
+            for (Comentario c : s.getComentarios()) registrarVisita(c.visitanteId(), s.getNumero());
+        }
+    }
+
+    /**
+     * Recorre las filas del reporte de visitantes en el mismo orden que {@link #lineasReporte()}.
+     * @param destino receptor de cada fila
+     */
+    void recorrer(InstantaneaFeria.FilaVisitas destino) {
+        for (Registrado r : registrados.values()) {
+            Visitas v = visitas.get(r.identificacion().toLowerCase());
+            destino.aceptar(r.identificacion(), r.nombre(), standsDe(v), v == null ? 0 : v.comentarios);
+        }
+        for (Map.Entry<String, Visitas> e : visitas.entrySet()) {
+            if (!registrados.containsKey(e.getKey())) {
+                destino.aceptar(e.getValue().visitanteId, null, standsDe(e.getValue()), e.getValue().comentarios);
+            }
+        }
+    }
+
+    /**
+     * Recorre el reporte de visitantes de forma perezosa: registrados en orden alfabético y luego quienes
+     * comentaron sin estar registrados. El índice no debe modificarse mientras se consume el flujo.
+     * @return flujo de líneas (sin salto de línea final), empezando por el encabezado
+     */
+    Stream<String> lineasReporte() {
+        Stream<String> encabezado = Stream.of(FormatoReportes.ENCABEZADO_VISITANTES);
+        if (visitas.isEmpty()) return Stream.concat(encabezado, Stream.of(FormatoReportes.SIN_VISITAS));
+        Stream<String> conRegistro = registrados.values().stream().map(r -> {
+            Visitas v = visitas.get(r.identificacion().toLowerCase());
+            return FormatoReportes.lineaVisitas(r.identificacion(), "(" + r.nombre() + ")",
+                    standsDe(v), v == null ? 0 : v.comentarios);
+        });
+        Stream<String> sinRegistro = visitas.entrySet().stream()
+                .filter(e -> !registrados.containsKey(e.getKey()))
+                .map(e -> FormatoReportes.lineaVisitas(e.getValue().visitanteId, "(no registrado actualmente)",
+                        standsDe(e.getValue()), e.getValue().comentarios));
+        return Stream.concat(encabezado, Stream.concat(conRegistro, sinRegistro));
+    }
+}
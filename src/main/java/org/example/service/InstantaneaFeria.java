@@ -0,0 +1,156 @@
+package org.example.service;
+
+import org.example.model.*;
+import org.example.utils.ComparadorNatural;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Copia inmutable del estado de una feria en un instante (una "época"), obtenida con
+ * {@link FeriaEmpresarial#instantanea()}. Los listados y reportes se calculan sobre la copia, sin candados,
+ * mientras la feria sigue recibiendo registros. Instantáneas consecutivas comparten las copias de los stands
+ * que no cambiaron entre ellas, por lo que sus entidades no deben modificarse.
+ */
+public final class InstantaneaFeria {
+    private final long epoca;
+    final long versionEmpresas;
+    final long versionVisitantes;
+    private final List<Empresa> empresas;
+    private final List<Stand> stands;
+    private final List<Visitante> visitantes;
+    private final Map<String, Stand> standsPorClave;
+    private volatile IndiceVisitas visitas;
+
+    InstantaneaFeria(long epoca, long versionEmpresas, long versionVisitantes, List<Empresa> empresas,
+                     List<Stand> stands, List<Visitante> visitantes) {
+        this.epoca = epoca;
+        this.versionEmpresas = versionEmpresas;
+        this.versionVisitantes = versionVisitantes;
+        this.empresas = empresas;
+        this.stands = stands;
+        this.visitantes = visitantes;
+        this.standsPorClave = new HashMap<>(stands.size() * 2);
+        for (Stand s : stands) standsPorClave.put(s.getNumero().toLowerCase(), s);
+    }
+
+    /**
+     * Época de la feria que refleja esta instantánea (aumenta con cada cambio).
+     * @return número de época
+     */
+    public long epoca() { return epoca; }
+
+    /**
+     * Empresas en orden de registro.
+     * @return lista inmutable de empresas
+     */
+    public List<Empresa> listarEmpresas() { return empresas; }
+
+    /**
+     * Stands en orden de creación, con sus comentarios.
+     * @return lista inmutable de stands
+     */
+    public List<Stand> listarStands() { return stands; }
+
+    /**
+     * Visitantes en orden de registro.
+     * @return lista inmutable de visitantes
+     */
+    public List<Visitante> listarVisitantes() { return visitantes; }
+
+    /**
+     * Comentarios de un stand.
+     * @param numeroStand número del stand
+     * @return lista inmutable de comentarios
+     * @throws NoSuchElementException si el stand no existía en esta instantánea
+     */
+    public List<Comentario> listarComentariosDeStand(String numeroStand) {
+        Stand s = standsPorClave.get(numeroStand.trim().toLowerCase());
+        if (s == null) throw new NoSuchElementException("No existe stand: " + numeroStand);
+        return s.getComentarios();
+    }
+
+    /**
+     * Reporte de empresas y stands (mismo formato que {@link FeriaEmpresarial#reporteEmpresasYStands()}).
+     * @return cadena formateada con el reporte
+     */
+    public String reporteEmpresasYStands() {
+        return FormatoReportes.empresasYStands(empresas, stands, numerosStandsLibres());
+    }
+
+    /**
+     * Números de los stands sin asignar, en orden natural ("S2" antes que "S10").
+     * @return lista inmutable de números
+     */
+    public List<String> numerosStandsLibres() {
+        return stands.stream()
+                .filter(Stand::estaDisponible)
+                .map(Stand::getNumero)
+                .sorted(ComparadorNatural.INSTANCIA)
+                .toList();
+    }
+
+    /**
+     * Stands ordenados como en el reporte de promedios (promedio descendente, sin calificaciones al final).
+     * @return nueva lista ordenada
+     */
+    public List<Stand> standsPorPromedio() { return FormatoReportes.ordenarPorPromedio(stands); }
+
+    /**
+     * Reporte de visitantes y stands visitados, línea a línea y de forma perezosa.
+     * @return flujo de líneas (sin salto de línea final), empezando por el encabezado
+     */
+    public Stream<String> lineasReporteVisitantesYStandsVisitados() { return indiceVisitas().lineasReporte(); }
+
+    /**
+     * Reporte de visitantes y stands visitados (mismo formato que {@link FeriaEmpresarial#reporteVisitantesYStandsVisitados()}).
+     * @return cadena formateada con el reporte
+     */
+    public String reporteVisitantesYStandsVisitados() {
+        StringBuilder sb = new StringBuilder();
+        lineasReporteVisitantesYStandsVisitados().forEach(l -> sb.append(l).append("\n"));
+        return sb.toString();
+    }
+
+    /**
+     * Receptor de las filas del reporte de visitantes (para exportaciones que no necesitan el texto formateado).
+     */
+    @FunctionalInterface
+    public interface FilaVisitas {
+        /**
+         * Recibe una fila.
+         * @param identificacion identificación del visitante; nombre nombre, o null si ya no está registrado; stands stands visitados en orden natural (vacío si ninguno); comentarios total de comentarios
+         */
+        void aceptar(String identificacion, String nombre, Collection<String> stands, int comentarios);
+    }
+
+    /**
+     * Recorre las filas del reporte de visitantes (registrados en orden alfabético y luego no registrados).
+     * @param destino receptor de cada fila
+     */
+    public void recorrerReporteVisitantes(FilaVisitas destino) { indiceVisitas().recorrer(destino); }
+
+    /**
+     * Reporte de promedios por stand (mismo formato que {@link FeriaEmpresarial#reportePromedioPorStand()}).
+     * @return cadena formateada con el reporte
+     */
+    public String reportePromedioPorStand() { return FormatoReportes.promedioPorStand(stands); }
+
+    /**
+     * Índice de visitas de la instantánea, construido la primera vez que se pide (después no se modifica).
+     */
+    private IndiceVisitas indiceVisitas() {
+        IndiceVisitas i = visitas;
+        if (i == null) {
+            synchronized (this) {
+                i = visitas;
+                if (i == null) {
+                    i = new IndiceVisitas();
+                    i.reconstruir(visitantes, stands);
+                    visitas = i;
+                }
+            }
+        }
+        return i;
+    }
+}
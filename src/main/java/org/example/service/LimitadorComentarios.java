@@ -0,0 +1,270 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Protección de {@code registrarComentario} contra abuso, sin candados en el camino crítico
+ * ({@code FeriaEmpresarial} lo consulta antes de tomar su candado de escritura, así que los intentos
+ * rechazados nunca esperan a los escritores):
+ * <ul>
+ *     <li>Límite de tasa por visitante y por stand (token bucket implementado como GCRA: un solo
+ *     {@link AtomicLong} por clave con el "tiempo teórico de llegada", actualizado con CAS). Una clave cuyo
+ *     tiempo teórico ya pasó equivale a una cubeta llena, así que al crecer el mapa se eliminan esas claves.</li>
+ *     <li>Una calificación por visitante, stand y día: huellas de 64 bits en una tabla hash abierta
+ *     ({@link AtomicLongArray}, inserción con CAS) que se renueva al cambiar el día.</li>
+ * </ul>
+ * Un intento solo consume cupo si pasa todas las verificaciones: si una falla, se devuelve lo ya consumido.
+ */
+public class LimitadorComentarios {
+
+    /**
+     * Configuración de límites de una feria.
+     * @param porMinutoVisitante comentarios por minuto permitidos a cada visitante (0 = sin límite); rafagaVisitante comentarios seguidos permitidos antes de aplicar la tasa; porMinutoStand comentarios por minuto permitidos en cada stand (0 = sin límite); rafagaStand ráfaga permitida por stand; unaCalificacionPorDia true para aceptar una sola calificación por visitante, stand y día; capacidadDiaria calificaciones esperadas por día (dimensiona la tabla)
+     */
+    public record Configuracion(double porMinutoVisitante, int rafagaVisitante, double porMinutoStand,
+                                int rafagaStand, boolean unaCalificacionPorDia, int capacidadDiaria) {
+        /**
+         * Valida los valores de la configuración.
+         * @throws IllegalArgumentException si hay tasas negativas, ráfagas menores a 1 o capacidad no positiva
+         */
+        public Configuracion {
+            if (porMinutoVisitante < 0 || porMinutoStand < 0)
+                throw new IllegalArgumentException("Las tasas no pueden ser negativas");
+            if (rafagaVisitante < 1 || rafagaStand < 1)
+                throw new IllegalArgumentException("Las ráfagas deben ser al menos 1");
+            if (capacidadDiaria < 1) throw new IllegalArgumentException("La capacidad diaria debe ser positiva");
+        }
+    }
+
+    private final Configuracion config;
+    private final Cubetas cubetasVisitante;
+    private final Cubetas cubetasStand;
+    private final AtomicReference<TablaDia> calificaciones = new AtomicReference<>();
+
+    /**
+     * Crea un limitador con la configuración indicada.
+     * @param config límites a aplicar
+     */
+    public LimitadorComentarios(Configuracion config) {
+        this.config = config;
+        this.cubetasVisitante = new Cubetas(intervalo(config.porMinutoVisitante()), config.rafagaVisitante());
+        this.cubetasStand = new Cubetas(intervalo(config.porMinutoStand()), config.rafagaStand());
+    }
+
+    private static long intervalo(double porMinuto) {
+        return porMinuto == 0 ? 0 : (long) (TimeUnit.MINUTES.toNanos(1) / porMinuto);
+    }
+
+    /**
+     * Devuelve la configuración aplicada.
+     * @return configuración
+     */
+    public Configuracion configuracion() { return config; }
+
+    /**
+     * Verifica y registra un intento de comentario; solo si se acepta consume cupo y marca la calificación del día.
+     * @param visitanteId identificación del visitante; numeroStand número del stand; fecha día del comentario
+     * @throws IllegalStateException si se excede un límite de tasa o el visitante ya calificó ese stand ese día
+     */
+    public void verificar(String visitanteId, String numeroStand, LocalDate fecha) {
+        verificar(visitanteId, numeroStand, fecha, System.nanoTime());
+    }
+
+    void verificar(String visitanteId, String numeroStand, LocalDate fecha, long ahora) {
+        if (!cubetasVisitante.consumir(visitanteId, ahora))
+            throw new IllegalStateException("Demasiados comentarios del visitante " + visitanteId + "; intenta más tarde");
+        if (!cubetasStand.consumir(numeroStand, ahora)) {
+            cubetasVisitante.devolver(visitanteId);
+            throw new IllegalStateException("Demasiados comentarios en el stand " + numeroStand + "; intenta más tarde");
+        }
+        if (config.unaCalificacionPorDia() && !tablaDe(fecha).agregar(huella(visitanteId, numeroStand, fecha))) {
+            cubetasVisitante.devolver(visitanteId);
+            cubetasStand.devolver(numeroStand);
+            throw new IllegalStateException("El visitante " + visitanteId + " ya calificó el stand " + numeroStand + " hoy");
+        }
+    }
+
+    /**
+     * Devuelve el cupo de un intento aceptado por {@link #verificar} cuyo comentario finalmente no se registró
+     * (por ejemplo, porque el visitante se eliminó entre la verificación y el alta).
+     * @param visitanteId identificación del visitante; numeroStand número del stand; fecha día del comentario
+     */
+    public void cancelar(String visitanteId, String numeroStand, LocalDate fecha) {
+        cubetasVisitante.devolver(visitanteId);
+        cubetasStand.devolver(numeroStand);
+        if (config.unaCalificacionPorDia()) {
+            TablaDia t = calificaciones.get();
+            if (t != null && t.dia == fecha.toEpochDay()) t.quitar(huella(visitanteId, numeroStand, fecha));
+        }
+    }
+
+    /**
+     * Elimina las cubetas de visitantes y stands inactivos (las que ya se rellenaron por completo).
+     * Se invoca sola cuando los mapas crecen; exponerla permite liberarlas tras un pico de actividad.
+     */
+    public void expirarInactivas() {
+        long ahora = System.nanoTime();
+        cubetasVisitante.expirar(ahora);
+        cubetasStand.expirar(ahora);
+    }
+
+    /**
+     * Cantidad de claves (visitantes más stands) con cubeta en memoria.
+     * @return cubetas activas
+     */
+    public int cubetasActivas() { return cubetasVisitante.tats.size() + cubetasStand.tats.size(); }
+
+    /**
+     * Cubetas GCRA de un tipo de clave (visitante o stand), sin distinguir mayúsculas.
+     */
+    private static final class Cubetas {
+        private static final int UMBRAL_MINIMO = 1024;
+
+        final ConcurrentHashMap<String, AtomicLong> tats = new ConcurrentHashMap<>();
+        final long intervalo;
+        final long tolerancia;
+        // tamaño a partir del cual la próxima clave nueva dispara una expiración; MAX_VALUE mientras un hilo expira
+        private final AtomicLong umbral = new AtomicLong(UMBRAL_MINIMO);
+
+        Cubetas(long intervalo, int rafaga) {
+            this.intervalo = intervalo;
+            this.tolerancia = (rafaga - 1) * intervalo;
+        }
+
+        /**
+         * GCRA: acepta si el tiempo teórico de llegada no supera "ahora + ráfaga * intervalo", y lo adelanta un intervalo.
+         */
+        boolean consumir(String clave, long ahora) {
+            if (intervalo == 0) return true;
+            String k = clave.toLowerCase();
+            AtomicLong tat = tats.get(k);
+            if (tat == null) {
+                tat = tats.computeIfAbsent(k, x -> new AtomicLong(ahora));
+                expirarSiCrecio(ahora);
+            }
+            while (true) {
+                long actual = tat.get();
+                long base = Math.max(actual, ahora);
+                if (base - ahora > tolerancia) return false;
+                if (tat.compareAndSet(actual, base + intervalo)) return true;
+            }
+        }
+
+        void devolver(String clave) {
+            if (intervalo == 0) return;
+            AtomicLong tat = tats.get(clave.toLowerCase());
+            if (tat != null) tat.addAndGet(-intervalo);
+        }
+
+        private void expirarSiCrecio(long ahora) {
+            long u = umbral.get();
+            if (tats.size() <= u || !umbral.compareAndSet(u, Long.MAX_VALUE)) return;
+            expirar(ahora);
+            umbral.set(Math.max(UMBRAL_MINIMO, 2L * tats.size()));
+        }
+
+        /**
+         * Quita las claves con la cubeta llena. Un hilo que ya tenía la cubeta quitada puede consumir sobre ella
+         * en paralelo; en el peor caso esa clave recibe una ráfaga extra.
+         */
+        void expirar(long ahora) {
+            tats.values().removeIf(t -> t.get() <= ahora);
+        }
+    }
+
+    private TablaDia tablaDe(LocalDate fecha) {
+        long dia = fecha.toEpochDay();
+        while (true) {
+            TablaDia t = calificaciones.get();
+            if (t != null && t.dia == dia) return t;
+            if (t != null && t.dia > dia) return t; // fecha atrasada: se compara contra el día vigente
+            TablaDia nueva = new TablaDia(dia, config.capacidadDiaria());
+            if (calificaciones.compareAndSet(t, nueva)) return nueva;
+        }
+    }
+
+    /**
+     * Huella de 64 bits de (visitante, stand, día), sin distinguir mayúsculas; nunca es 0 ni {@link TablaDia#BORRADA}.
+     */
+    static long huella(String visitanteId, String numeroStand, LocalDate fecha) {
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, visitanteId);
+        h = (h ^ '|') * 0x100000001b3L;
+        h = fnv(h, numeroStand);
+        h ^= fecha.toEpochDay() * 0x9E3779B97F4A7C15L;
+        // mezcla final (splitmix64)
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        h ^= h >>> 31;
+        return h == 0 || h == TablaDia.BORRADA ? 1 : h;
+    }
+
+    private static long fnv(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ Character.toLowerCase(s.charAt(i))) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Conjunto de huellas de un día: tabla abierta con sondeo lineal; si se llena por encima del 75 %,
+     * las huellas nuevas van a un conjunto concurrente de respaldo. Las huellas quitadas dejan una marca de borrado
+     * para no cortar las secuencias de sondeo.
+     */
+    private static final class TablaDia {
+        static final long BORRADA = Long.MIN_VALUE;
+
+        final long dia;
+        final AtomicLongArray tabla;
+        final int mascara;
+        final int maxOcupacion;
+        final AtomicLong ocupadas = new AtomicLong();
+        final Set<Long> respaldo = ConcurrentHashMap.newKeySet();
+
+        TablaDia(long dia, int capacidad) {
+            int tam = Integer.highestOneBit(Math.max(16, capacidad * 2 - 1)) << 1;
+            this.dia = dia;
+            this.tabla = new AtomicLongArray(tam);
+            this.mascara = tam - 1;
+            this.maxOcupacion = tam / 4 * 3;
+        }
+
+        /**
+         * Agrega la huella.
+         * @return true si no estaba; false si ya existía
+         */
+        boolean agregar(long huella) {
+            int i = (int) huella & mascara;
+            while (true) {
+                long actual = tabla.get(i);
+                if (actual == huella) return false;
+                if (actual == 0) {
+                    if (ocupadas.get() >= maxOcupacion) return respaldo.add(huella);
+                    if (tabla.compareAndSet(i, 0, huella)) {
+                        ocupadas.incrementAndGet();
+                        return true;
+                    }
+                    continue; // otro hilo ocupó la ranura: releer
+                }
+                i = (i + 1) & mascara;
+            }
+        }
+
+        void quitar(long huella) {
+            if (respaldo.remove(huella)) return;
+            int i = (int) huella & mascara;
+            while (true) {
+                long actual = tabla.get(i);
+                if (actual == 0) return;
+                if (actual == huella && tabla.compareAndSet(i, huella, BORRADA)) return;
+                i = (i + 1) & mascara;
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.example.service;
+
+import org.example.model.Comentario;
+import org.example.model.Stand;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Recomendador de stands por co-visitación (ítem a ítem), actualizado en cada comentario registrado.
+ * <p>
+ * Cada visitante tiene un perfil con el peso de cada stand que comentó (su última calificación / 5). Por cada
+ * par de stands se acumula {@code co[a][b] = Σ peso(v,a) · peso(v,b)} sobre los visitantes que comentaron ambos,
+ * en filas dispersas (solo pares que existen), y por stand la norma {@code Σ peso(v,a)²}. Un comentario nuevo
+ * cuesta O(stands del visitante) y una consulta recorre solo las filas de los stands del visitante, por lo que
+ * su costo no depende del número de visitantes.
+ * <p>
+ * Puntaje de un candidato {@code b}: {@code Σ_a peso(v,a) · co[a][b] / √norma(b)}, para no premiar solo a los
+ * stands más concurridos. Los métodos están sincronizados (escrituras desde la feria con su candado, consultas
+ * desde cualquier hilo).
+ */
+public class RecomendadorStands {
+    private static final float MINIMO = 1e-6f; // residuos de restas en coma flotante
+
+    /**
+     * Stand sugerido.
+     * @param numeroStand número del stand; puntaje afinidad con las visitas del visitante (mayor es mejor)
+     */
+    public record Recomendacion(String numeroStand, double puntaje) {}
+
+    /**
+     * Stands comentados por un visitante con su peso; arreglos paralelos, en general con pocos elementos.
+     */
+    private static final class Perfil {
+        int[] stands = new int[4];
+        float[] pesos = new float[4];
+        int tamano;
+
+        int posicion(int stand) {
+            for (int i = 0; i < tamano; i++) if (stands[i] == stand) return i;
+            return -1;
+        }
+
+        void agregar(int stand, float peso) {
+            if (tamano == stands.length) {
+                stands = Arrays.copyOf(stands, tamano * 2);
+                pesos = Arrays.copyOf(pesos, tamano * 2);
+            }
+            stands[tamano] = stand;
+            pesos[tamano++] = peso;
+        }
+    }
+
+    /**
+     * Fila dispersa de co-ocurrencias: mapa ordinal de stand → peso con direccionamiento abierto.
+     */
+    private static final class Fila {
+        int[] claves = vacias(8);
+        float[] valores = new float[8];
+        int tamano;
+
+        private static int[] vacias(int n) {
+            int[] c = new int[n];
+            Arrays.fill(c, -1);
+            return c;
+        }
+
+        void sumar(int clave, float delta) {
+            int mascara = claves.length - 1;
+            int i = (clave * 0x9E3779B9) >>> 1 & mascara;
+            while (claves[i] != -1 && claves[i] != clave) i = (i + 1) & mascara;
+            if (claves[i] == -1) {
+                claves[i] = clave;
+                valores[i] = delta;
+                if (++tamano * 2 > claves.length) crecer();
+            } else {
+                valores[i] += delta;
+            }
+        }
+
+        private void crecer() {
+            int[] viejasClaves = claves;
+            float[] viejosValores = valores;
+            claves = vacias(viejasClaves.length * 2);
+            valores = new float[claves.length];
+            tamano = 0;
+            for (int i = 0; i < viejasClaves.length; i++) {
+                if (viejasClaves[i] != -1) sumar(viejasClaves[i], viejosValores[i]);
+            }
+        }
+    }
+
+    private final Map<String, Integer> ordinales = new HashMap<>(); // número de stand en minúsculas → ordinal
+    private String[] numeros = new String[64];
+    private Fila[] filas = new Fila[64];
+    private float[] normas = new float[64];
+    private int totalStands;
+    private final Map<String, Perfil> perfiles = new HashMap<>(); // identificación en minúsculas → perfil
+
+    /**
+     * Registra un comentario: si el visitante ya había comentado el stand, su peso pasa a ser la nueva calificación.
+     * @param visitanteId autor del comentario; numeroStand stand comentado; calificacion valor 1..5
+     */
+    public synchronized void registrar(String visitanteId, String numeroStand, int calificacion) {
+        int stand = ordinal(numeroStand);
+        float peso = calificacion / 5f;
+        Perfil p = perfiles.computeIfAbsent(visitanteId.toLowerCase(), k -> new Perfil());
+        int pos = p.posicion(stand);
+        float anterior = pos < 0 ? 0f : p.pesos[pos];
+        float delta = peso - anterior;
+        if (delta == 0f) return;
+        for (int i = 0; i < p.tamano; i++) {
+            if (i == pos) continue;
+            float cruzado = delta * p.pesos[i];
+            filas[stand].sumar(p.stands[i], cruzado);
+            filas[p.stands[i]].sumar(stand, cruzado);
+        }
+        normas[stand] += peso * peso - anterior * anterior;
+        if (pos < 0) p.agregar(stand, peso);
+        else p.pesos[pos] = peso;
+    }
+
+    /**
+     * Quita a un visitante y descuenta sus co-visitaciones.
+     * @param visitanteId identificación del visitante
+     */
+    public synchronized void eliminarVisitante(String visitanteId) {
+        Perfil p = perfiles.remove(visitanteId.toLowerCase());
+        if (p == null) return;
+        for (int i = 0; i < p.tamano; i++) {
+            normas[p.stands[i]] -= p.pesos[i] * p.pesos[i];
+            for (int j = 0; j < p.tamano; j++) {
+                if (i != j) filas[p.stands[i]].sumar(p.stands[j], -p.pesos[i] * p.pesos[j]);
+            }
+        }
+    }
+
+    /**
+     * Construye el recomendador a partir de los comentarios existentes (en orden, así cuenta la última calificación).
+     * @param stands stands con sus comentarios
+     * @return recomendador inicializado
+     */
+    static RecomendadorStands desde(Collection<Stand> stands) {
+        RecomendadorStands r = new RecomendadorStands();
+        for (Stand s : stands) {
+            for (Comentario c : s.getComentarios()) r.registrar(c.visitanteId(), s.getNumero(), c.calificacion());
+        }
+        return r;
+    }
+
+    /**
+     * Sugiere stands que el visitante aún no comentó, a partir de lo que comentaron quienes visitaron sus mismos stands.
+     * @param visitanteId identificación del visitante; n máximo de sugerencias; filtro condición sobre el número de stand (null para no filtrar)
+     * @return hasta n recomendaciones por puntaje descendente (vacía si el visitante no comentó nada)
+     * @throws IllegalArgumentException si n no es positivo
+     */
+    public synchronized List<Recomendacion> recomendar(String visitanteId, int n, Predicate<String> filtro) {
+        if (n <= 0) throw new IllegalArgumentException("La cantidad de recomendaciones debe ser positiva");
+        Perfil p = perfiles.get(visitanteId.toLowerCase());
+        if (p == null) return List.of();
+
+        float[] puntajes = new float[totalStands];
+        int[] tocados = new int[totalStands];
+        int totalTocados = 0;
+        for (int i = 0; i < p.tamano; i++) {
+            Fila f = filas[p.stands[i]];
+            float peso = p.pesos[i];
+            for (int k = 0; k < f.claves.length; k++) {
+                int b = f.claves[k];
+                if (b == -1 || f.valores[k] <= MINIMO) continue;
+                if (puntajes[b] == 0f) tocados[totalTocados++] = b;
+                puntajes[b] += peso * f.valores[k];
+            }
+        }
+        for (int i = 0; i < p.tamano; i++) puntajes[p.stands[i]] = 0f; // ya visitados
+
+        // Min-heap de tamaño n sobre los candidatos tocados
+        PriorityQueue<Recomendacion> mejores = new PriorityQueue<>(n + 1, Comparator.comparingDouble(Recomendacion::puntaje));
+        for (int i = 0; i < totalTocados; i++) {
+            int b = tocados[i];
+            if (puntajes[b] <= MINIMO || normas[b] <= MINIMO) continue;
+            double puntaje = puntajes[b] / Math.sqrt(normas[b]);
+            if (mejores.size() == n && puntaje <= mejores.peek().puntaje()) continue;
+            if (filtro != null && !filtro.test(numeros[b])) continue;
+            mejores.add(new Recomendacion(numeros[b], puntaje));
+            if (mejores.size() > n) mejores.poll();
+        }
+        List<Recomendacion> resultado = new ArrayList<>(mejores);
+        resultado.sort(Comparator.comparingDouble(Recomendacion::puntaje).reversed());
+        return resultado;
+    }
+
+    /**
+     * Visitantes con perfil (que comentaron al menos un stand).
+     * @return número de perfiles
+     */
+    public synchronized int visitantes() { return perfiles.size(); }
+
+    /**
+     * Ordinal de un stand, asignándole uno nuevo (con su fila vacía) la primera vez.
+     */
+    private int ordinal(String numeroStand) {
+        Integer o = ordinales.get(numeroStand.toLowerCase());
+        if (o != null) return o;
+        if (totalStands == numeros.length) {
+            numeros = Arrays.copyOf(numeros, totalStands * 2);
+            filas = Arrays.copyOf(filas, totalStands * 2);
+            normas = Arrays.copyOf(normas, totalStands * 2);
+        }
+        numeros[totalStands] = numeroStand;
+        filas[totalStands] = new Fila();
+        ordinales.put(numeroStand.toLowerCase(), totalStands);
+        return totalStands++;
+    }
+}
@@ -0,0 +1,296 @@
+package org.example.service;
+
+import org.example.model.*;
+import org.example.persistence.SnapshotFeria;
+import org.example.utils.PoolCadenas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Registro de varias ferias alojadas en el mismo proceso, identificadas por id.
+ * Las ferias inactivas viven como snapshot en disco ({@code <directorio>/<id>.snap}) y se cargan de forma
+ * perezosa al primer acceso; las que llevan tiempo sin usarse (o exceden el presupuesto de memoria) se
+ * guardan y se descargan. Todas comparten un mismo {@link PoolCadenas} para no duplicar textos repetidos.
+ * <p>
+ * {@link #obtener} entrega la feria como un {@link Prestamo}: mientras haya préstamos abiertos la feria no se
+ * descarga, así nadie escribe en una feria que ya se guardó y se soltó. La lectura y escritura de snapshots se
+ * hace con el monitor de la feria afectada, fuera del mapa concurrente, para no bloquear a las demás.
+ */
+public class RegistroFerias {
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    // Comentario por columnas: 1 (calificación) + 4 (visitante) + 4 (día) + 4 (referencia) y su texto (~24 caracteres)
+    private static final long BYTES_POR_COMENTARIO = 13 + 40 + 24;
+
+    /**
+     * Uso de memoria estimado de una feria cargada.
+     * @param id id de la feria; bytes bytes estimados; ultimoAccesoMs instante del último acceso (epoch ms)
+     */
+    public record UsoFeria(String id, long bytes, long ultimoAccesoMs) { }
+
+    /**
+     * Feria alojada; sus campos de estado se protegen con su propio monitor.
+     */
+    private static final class Alojada {
+        FeriaEmpresarial feria; // null hasta terminar de cargarla
+        int prestamos;
+        boolean retirada;       // ya salió del registro: quien la encuentre debe volver a buscar
+        volatile long ultimoAcceso = System.currentTimeMillis();
+        volatile long bytes;
+    }
+
+    /**
+     * Uso de una feria obtenida del registro; mientras no se cierre, la feria no se descarga.
+     * Se usa con try-with-resources: {@code try (var p = registro.obtener("expo")) { p.feria()... }}.
+     */
+    public static final class Prestamo implements AutoCloseable {
+        private final Alojada alojada;
+        private boolean cerrado; // protegido por el monitor de alojada
+
+        private Prestamo(Alojada alojada) { this.alojada = alojada; }
+
+        /**
+         * Devuelve la feria prestada.
+         * @return feria
+         * @throws IllegalStateException si el préstamo ya se cerró
+         */
+        public FeriaEmpresarial feria() {
+            synchronized (alojada) {
+                if (cerrado) throw new IllegalStateException("El préstamo de la feria ya se cerró");
+                alojada.ultimoAcceso = System.currentTimeMillis();
+                return alojada.feria;
+            }
+        }
+
+        /**
+         * Devuelve la feria al registro (cerrarlo más de una vez no tiene efecto).
+         */
+        @Override public void close() {
+            synchronized (alojada) {
+                if (cerrado) return;
+                cerrado = true;
+                alojada.prestamos--;
+                alojada.ultimoAcceso = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private final Path directorio;
+    private final long presupuestoBytes;
+    private final PoolCadenas pool = new PoolCadenas();
+    private final ConcurrentHashMap<String, Alojada> cargadas = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un registro sin límite de memoria.
+     * @param directorio carpeta donde se guardan los snapshots de las ferias
+     */
+    public RegistroFerias(Path directorio) { this(directorio, Long.MAX_VALUE); }
+
+    /**
+     * Crea un registro con un presupuesto de memoria estimada para las ferias cargadas.
+     * @param directorio carpeta de snapshots; presupuestoBytes máximo de bytes estimados antes de descargar las menos usadas
+     * @throws IllegalArgumentException si el directorio es nulo o el presupuesto no es positivo
+     */
+    public RegistroFerias(Path directorio, long presupuestoBytes) {
+        if (directorio == null) throw new IllegalArgumentException("El directorio es obligatorio");
+        if (presupuestoBytes <= 0) throw new IllegalArgumentException("El presupuesto debe ser positivo");
+        this.directorio = directorio;
+        this.presupuestoBytes = presupuestoBytes;
+    }
+
+    /**
+     * Presta la feria con el id indicado, cargándola desde su snapshot si no está en memoria
+     * (o creándola vacía si no existe snapshot). El préstamo debe cerrarse al terminar de usarla.
+     * @param id identificador de la feria (letras, dígitos, '-' o '_')
+     * @return préstamo de la feria
+     * @throws IllegalArgumentException si el id no es válido
+     * @throws UncheckedIOException si el snapshot existe pero no se puede leer
+     */
+    public Prestamo obtener(String id) {
+        validarId(id);
+        while (true) {
+            Alojada a = cargadas.computeIfAbsent(id, k -> new Alojada());
+            boolean nueva;
+            synchronized (a) {
+                if (a.retirada) continue; // se descargó entre la búsqueda y el monitor
+                nueva = a.feria == null;
+                if (nueva) {
+                    try {
+                        a.feria = cargar(id);
+                    } catch (RuntimeException e) {
+                        a.retirada = true;
+                        cargadas.remove(id, a);
+                        throw e;
+                    }
+                    a.bytes = estimarBytes(a.feria);
+                }
+                a.prestamos++;
+                a.ultimoAcceso = System.currentTimeMillis();
+            }
+            if (nueva && presupuestoBytes != Long.MAX_VALUE) ajustarAPresupuesto(id);
+            return new Prestamo(a);
+        }
+    }
+
+    private FeriaEmpresarial cargar(String id) {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        Path archivo = archivo(id);
+        if (Files.exists(archivo)) {
+            try {
+                SnapshotFeria.cargar(archivo, feria, pool);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo cargar la feria " + id, e);
+            }
+        }
+        return feria;
+    }
+
+    private static void validarId(String id) {
+        if (id == null || !ID_VALIDO.matcher(id).matches())
+            throw new IllegalArgumentException("Id de feria inválido: " + id);
+    }
+
+    private Path archivo(String id) { return directorio.resolve(id + ".snap"); }
+
+    /**
+     * Indica si la feria está actualmente cargada en memoria.
+     * @param id identificador de la feria
+     * @return true si está en memoria
+     */
+    public boolean estaCargada(String id) { return cargadas.containsKey(id); }
+
+    /**
+     * Indica cuántos préstamos abiertos tiene una feria.
+     * @param id identificador de la feria
+     * @return préstamos sin cerrar (0 si no está cargada)
+     */
+    public int prestamosAbiertos(String id) {
+        Alojada a = cargadas.get(id);
+        if (a == null) return 0;
+        synchronized (a) { return a.prestamos; }
+    }
+
+    /**
+     * Guarda la feria en su snapshot y la descarga de memoria, salvo que tenga préstamos abiertos.
+     * @param id identificador de la feria
+     * @return true si quedó descargada (o no estaba cargada); false si sigue en uso y no se tocó
+     * @throws UncheckedIOException si no se puede escribir el snapshot (la feria permanece cargada)
+     */
+    public boolean descargar(String id) {
+        Alojada a = cargadas.get(id);
+        if (a == null) return true;
+        synchronized (a) {
+            if (a.retirada) return true;
+            if (a.prestamos > 0) return false;
+            if (a.feria != null) guardar(id, a.feria);
+            a.retirada = true;
+            cargadas.remove(id, a);
+            return true;
+        }
+    }
+
+    private void guardar(String id, FeriaEmpresarial feria) {
+        try {
+            Files.createDirectories(directorio);
+            SnapshotFeria.guardar(feria, archivo(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la feria " + id, e);
+        }
+    }
+
+    /**
+     * Guarda todas las ferias cargadas sin descargarlas (cada snapshot se toma de una instantánea consistente,
+     * aunque haya préstamos abiertos escribiendo).
+     * @throws UncheckedIOException si falla la escritura de algún snapshot
+     */
+    public void guardarTodas() {
+        cargadas.forEach((id, a) -> {
+            synchronized (a) {
+                if (!a.retirada && a.feria != null) guardar(id, a.feria);
+            }
+        });
+    }
+
+    /**
+     * Descarga las ferias que no se han usado durante el tiempo indicado y no tienen préstamos abiertos.
+     * @param inactividad tiempo mínimo sin accesos
+     * @return ids de las ferias descargadas
+     */
+    public List<String> desalojarInactivas(Duration inactividad) {
+        long limite = System.currentTimeMillis() - inactividad.toMillis();
+        List<String> desalojadas = new ArrayList<>();
+        for (Map.Entry<String, Alojada> e : cargadas.entrySet()) {
+            if (e.getValue().ultimoAcceso < limite && descargar(e.getKey())) desalojadas.add(e.getKey());
+        }
+        return desalojadas;
+    }
+
+    /**
+     * Descarga las ferias menos usadas recientemente (y sin préstamos abiertos) hasta que el total estimado
+     * quepa en el presupuesto. Usa la última estimación de cada feria (calculada al cargarla o al consultar
+     * {@link #usoMemoria()}).
+     * @param protegida id de la feria que no debe descargarse (la recién cargada)
+     */
+    private void ajustarAPresupuesto(String protegida) {
+        List<UsoFeria> usos = new ArrayList<>();
+        cargadas.forEach((id, a) -> usos.add(new UsoFeria(id, a.bytes, a.ultimoAcceso)));
+        long total = usos.stream().mapToLong(UsoFeria::bytes).sum();
+        usos.sort(Comparator.comparingLong(UsoFeria::ultimoAccesoMs));
+        for (UsoFeria u : usos) {
+            if (total <= presupuestoBytes) break;
+            if (u.id().equals(protegida)) continue;
+            if (descargar(u.id())) total -= u.bytes();
+        }
+    }
+
+    /**
+     * Estima la memoria de cada feria cargada (objetos y cadenas; las cadenas compartidas en el pool
+     * se cuentan en cada feria que las usa, por lo que es una cota superior) y actualiza la estimación
+     * usada para el presupuesto.
+     * @return lista con el uso estimado por feria
+     */
+    public List<UsoFeria> usoMemoria() {
+        List<UsoFeria> usos = new ArrayList<>();
+        cargadas.forEach((id, a) -> {
+            FeriaEmpresarial feria;
+            synchronized (a) { feria = a.retirada ? null : a.feria; }
+            if (feria == null) return;
+            a.bytes = estimarBytes(feria);
+            usos.add(new UsoFeria(id, a.bytes, a.ultimoAcceso));
+        });
+        return usos;
+    }
+
+    /**
+     * Estimación aproximada de bytes ocupados por una feria (cabeceras de objeto + contenido de cadenas).
+     * Los comentarios se cuentan por cantidad, sin crearlos: columnas más un texto de largo típico.
+     * @param feria feria a medir
+     * @return bytes estimados
+     */
+    static long estimarBytes(FeriaEmpresarial feria) {
+        long bytes = 0;
+        for (Empresa e : feria.listarEmpresas())
+            bytes += 32 + cadena(e.getNombre()) + cadena(e.getSector()) + cadena(e.getCorreoElectronico());
+        for (Visitante v : feria.listarVisitantes())
+            bytes += 32 + cadena(v.getIdentificacion()) + cadena(v.getNombre()) + cadena(v.getCorreoElectronico());
+        for (Stand s : feria.listarStands()) {
+            bytes += 64 + cadena(s.getNumero()) + cadena(s.getUbicacion())
+                    + (long) s.totalComentarios() * BYTES_POR_COMENTARIO;
+        }
+        return bytes;
+    }
+
+    private static long cadena(String s) { return 40L + s.length(); }
+
+    /**
+     * Devuelve el pool de cadenas compartido por todas las ferias.
+     * @return pool compartido
+     */
+    public PoolCadenas pool() { return pool; }
+}
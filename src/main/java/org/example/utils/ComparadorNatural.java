@@ -0,0 +1,51 @@
+package org.example.utils;
+
+import java.util.Comparator;
+
+/**
+ * Orden "natural" de textos: compara los tramos de dígitos por su valor numérico y el resto sin distinguir
+ * mayúsculas, de modo que "Stand 2" queda antes que "Stand 10" (con compareToIgnoreCase sería al revés).
+ */
+public final class ComparadorNatural implements Comparator<String> {
+    /** Instancia compartida (no tiene estado). */
+    public static final ComparadorNatural INSTANCIA = new ComparadorNatural();
+
+    private ComparadorNatural() { }
+
+    @Override public int compare(String a, String b) {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i), cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int finA = finDigitos(a, i), finB = finDigitos(b, j);
+                // ignorar ceros a la izquierda y comparar por longitud y luego dígito a dígito
+                int ia = saltarCeros(a, i, finA), jb = saltarCeros(b, j, finB);
+                int largoA = finA - ia, largoB = finB - jb;
+                if (largoA != largoB) return Integer.compare(largoA, largoB);
+                for (int k = 0; k < largoA; k++) {
+                    int c = Character.compare(a.charAt(ia + k), b.charAt(jb + k));
+                    if (c != 0) return c;
+                }
+                i = finA;
+                j = finB;
+            } else {
+                int c = Character.compare(Character.toLowerCase(ca), Character.toLowerCase(cb));
+                if (c != 0) return c;
+                i++;
+                j++;
+            }
+        }
+        int c = Integer.compare(a.length() - i, b.length() - j);
+        return c != 0 ? c : a.compareTo(b);
+    }
+
+    private static int finDigitos(String s, int i) {
+        while (i < s.length() && Character.isDigit(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int saltarCeros(String s, int i, int fin) {
+        while (i < fin - 1 && s.charAt(i) == '0') i++;
+        return i;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.utils;
+
+import java.util.*;
+
+/**
+ * Sketch count-min para frecuencias aproximadas, más un conjunto de los K elementos más frecuentes
+ * (heavy hitters). La memoria es fija: profundidad × ancho contadores y K candidatos.
+ * Las frecuencias estimadas nunca son menores que las reales (pueden sobreestimar por colisiones).
+ */
+public class CountMinTopK {
+    private final int ancho;
+    private final long[][] contadores;
+    private final int k;
+    private final Map<String, Long> candidatos = new HashMap<>();
+
+    /**
+     * Crea el sketch.
+     * @param profundidad filas (funciones hash); ancho contadores por fila; k cantidad de elementos más frecuentes a seguir
+     * @throws IllegalArgumentException si algún parámetro no es positivo
+     */
+    public CountMinTopK(int profundidad, int ancho, int k) {
+        if (profundidad < 1 || ancho < 1 || k < 1) throw new IllegalArgumentException("Parámetros inválidos");
+        this.ancho = ancho;
+        this.contadores = new long[profundidad][ancho];
+        this.k = k;
+    }
+
+    /**
+     * Suma una ocurrencia del elemento y actualiza los candidatos más frecuentes.
+     * @param elemento elemento observado (se compara sin distinguir mayúsculas)
+     */
+    public void agregar(String elemento) {
+        long h = HyperLogLog.hash(elemento);
+        long estimado = Long.MAX_VALUE;
+        for (int fila = 0; fila < contadores.length; fila++) {
+            int col = columna(h, fila);
+            estimado = Math.min(estimado, ++contadores[fila][col]);
+        }
+        String clave = elemento.toLowerCase();
+        if (candidatos.containsKey(clave) || candidatos.size() < k) {
+            candidatos.put(clave, estimado);
+            return;
+        }
+        Map.Entry<String, Long> menor = Collections.min(candidatos.entrySet(), Map.Entry.comparingByValue());
+        if (estimado > menor.getValue()) {
+            candidatos.remove(menor.getKey());
+            candidatos.put(clave, estimado);
+        }
+    }
+
+    private int columna(long h, int fila) {
+        // doble hashing: h1 + fila * h2
+        long combinado = (h & 0xFFFFFFFFL) + fila * (h >>> 32);
+        return (int) Long.remainderUnsigned(combinado, ancho);
+    }
+
+    /**
+     * Frecuencia estimada de un elemento.
+     * @param elemento elemento a consultar
+     * @return cota superior de su frecuencia
+     */
+    public long estimar(String elemento) {
+        long h = HyperLogLog.hash(elemento);
+        long estimado = Long.MAX_VALUE;
+        for (int fila = 0; fila < contadores.length; fila++) {
+            estimado = Math.min(estimado, contadores[fila][columna(h, fila)]);
+        }
+        return estimado;
+    }
+
+    /**
+     * Devuelve los elementos más frecuentes con su frecuencia estimada, de mayor a menor.
+     * @param n cantidad máxima a devolver (como mucho K)
+     * @return lista ordenada de pares elemento-frecuencia
+     */
+    public List<Map.Entry<String, Long>> masFrecuentes(int n) {
+        return candidatos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(n)
+                .map(e -> Map.entry(e.getKey(), e.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.utils;
+
+/**
+ * Estimador HyperLogLog de cardinalidad (cantidad de elementos distintos) con memoria fija de 2^p bytes.
+ * El error relativo típico es 1.04 / sqrt(2^p) (p = 10 → ~3 %, p = 12 → ~1.6 %).
+ */
+public class HyperLogLog {
+    private final int p;
+    private final byte[] registros;
+
+    /**
+     * Crea un estimador con precisión p.
+     * @param p bits de índice (4..16)
+     * @throws IllegalArgumentException si p está fuera de rango
+     */
+    public HyperLogLog(int p) {
+        if (p < 4 || p > 16) throw new IllegalArgumentException("La precisión debe estar entre 4 y 16");
+        this.p = p;
+        this.registros = new byte[1 << p];
+    }
+
+    /**
+     * Agrega un elemento a partir de su hash de 64 bits (debe estar bien mezclado).
+     * @param hash hash del elemento
+     */
+    public void agregar(long hash) {
+        int indice = (int) (hash >>> (64 - p));
+        int rango = Long.numberOfLeadingZeros((hash << p) | (1L << (p - 1))) + 1;
+        if (rango > registros[indice]) registros[indice] = (byte) rango;
+    }
+
+    /**
+     * Estima la cantidad de elementos distintos agregados.
+     * @return estimación de la cardinalidad
+     */
+    public long estimar() {
+        int m = registros.length;
+        double suma = 0;
+        int ceros = 0;
+        for (byte r : registros) {
+            suma += 1.0 / (1L << r);
+            if (r == 0) ceros++;
+        }
+        double alfa = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimacion = alfa * m * m / suma;
+        // Corrección para rangos pequeños (conteo lineal)
+        if (estimacion <= 2.5 * m && ceros > 0) estimacion = m * Math.log((double) m / ceros);
+        return Math.round(estimacion);
+    }
+
+    /**
+     * Combina otro estimador de la misma precisión en este (unión de conjuntos).
+     * @param otro estimador a combinar
+     * @throws IllegalArgumentException si las precisiones difieren
+     */
+    public void combinar(HyperLogLog otro) {
+        if (otro.p != p) throw new IllegalArgumentException("Precisiones distintas");
+        for (int i = 0; i < registros.length; i++) {
+            if (otro.registros[i] > registros[i]) registros[i] = otro.registros[i];
+        }
+    }
+
+    /**
+     * Hash de 64 bits de una cadena sin distinguir mayúsculas (FNV-1a con mezcla final splitmix64).
+     * @param s cadena a resumir
+     * @return hash bien distribuido
+     */
+    public static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) h = (h ^ Character.toLowerCase(s.charAt(i))) * 0x100000001b3L;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Pool de cadenas compartido (interning propio): devuelve siempre la misma instancia para textos iguales,
+ * de modo que sectores, ubicaciones o textos repetidos entre varias ferias ocupen memoria una sola vez.
+ * Las entradas son débiles: cuando ninguna feria usa ya una cadena (por ejemplo, tras descargar la única
+ * feria que la tenía), el recolector la libera y sale del pool.
+ */
+public class PoolCadenas {
+    private final WeakHashMap<String, WeakReference<String>> cadenas = new WeakHashMap<>();
+
+    /**
+     * Devuelve la instancia canónica de la cadena (la registra si es nueva).
+     * @param s cadena a canonizar (puede ser null)
+     * @return instancia compartida igual a s, o null si s es null
+     */
+    public synchronized String internar(String s) {
+        if (s == null) return null;
+        WeakReference<String> ref = cadenas.get(s);
+        String previa = ref == null ? null : ref.get();
+        if (previa != null) return previa;
+        cadenas.put(s, new WeakReference<>(s));
+        return s;
+    }
+
+    /**
+     * Devuelve la cantidad de cadenas distintas registradas que siguen en uso (o aún no se recolectaron).
+     * @return tamaño del pool
+     */
+    public synchronized int tamano() { return cadenas.size(); }
+}
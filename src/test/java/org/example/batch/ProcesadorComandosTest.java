@@ -0,0 +1,33 @@
+package org.example.batch;
+
+import org.example.service.FeriaEmpresarial;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcesadorComandosTest {
+
+    @Test
+    void unErrorDeEntradaSalidaNoDetieneElLote() throws IOException {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        StringWriter salida = new StringWriter();
+        String lote = String.join("\n",
+                "registrarEmpresa|A|Tecnología|a@correo.co",
+                "cargarSnapshot|/no/existe/feria.snap",
+                "registrarEmpresa|B|Salud|b@correo.co",
+                "listarEmpresas");
+
+        ProcesadorComandos.Resumen r = new ProcesadorComandos(feria, salida, false)
+                .procesar(new BufferedReader(new StringReader(lote)));
+
+        assertEquals(4, r.operaciones());
+        assertEquals(1, r.errores());
+        assertEquals(2, feria.listarEmpresas().size());
+        assertTrue(salida.toString().contains("Error línea 2: E/S (NoSuchFileException)"), salida.toString());
+    }
+}
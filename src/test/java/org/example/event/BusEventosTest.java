@@ -0,0 +1,54 @@
+package org.example.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusEventosTest {
+
+    private static void esperarEntrega(BusEventos.Suscripcion s, long secuencia) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (s.ultimaEntregada() < secuencia) {
+            if (System.nanoTime() > limite) fail("El suscriptor no recibió la secuencia " + secuencia);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void entregaLosEventosEnOrden() throws InterruptedException {
+        BusEventos bus = new BusEventos(4);
+        List<EventoFeria> recibidos = new CopyOnWriteArrayList<>();
+        try (BusEventos.Suscripcion s = bus.suscribir(recibidos::addAll, 2)) {
+            for (int i = 0; i < 20; i++) bus.publicar(new EventoFeria.EmpresaEliminada("E" + i));
+            esperarEntrega(s, 19);
+            assertEquals(20, recibidos.size());
+            assertEquals(new EventoFeria.EmpresaEliminada("E7"), recibidos.get(7));
+            assertEquals(0, s.errores());
+        }
+    }
+
+    @Test
+    void lasExcepcionesDelSuscriptorSeCuentanYNoDetienenLaEntrega() throws InterruptedException {
+        BusEventos bus = new BusEventos(4);
+        List<EventoFeria> recibidos = new CopyOnWriteArrayList<>();
+        try (BusEventos.Suscripcion s = bus.suscribir(lote -> {
+            for (EventoFeria e : lote) {
+                if (e.equals(new EventoFeria.EmpresaEliminada("malo"))) throw new IllegalStateException("falla");
+            }
+            recibidos.addAll(lote);
+        }, 1)) {
+            bus.publicar(new EventoFeria.EmpresaEliminada("a"));
+            bus.publicar(new EventoFeria.EmpresaEliminada("malo"));
+            bus.publicar(new EventoFeria.EmpresaEliminada("b"));
+            esperarEntrega(s, 2);
+
+            assertEquals(1, s.errores());
+            assertEquals("falla", s.ultimoError().getMessage());
+            assertEquals(List.of(new EventoFeria.EmpresaEliminada("a"), new EventoFeria.EmpresaEliminada("b")), recibidos);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.export;
+
+import org.example.model.Comentario;
+import org.example.model.Empresa;
+import org.example.model.Stand;
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.example.service.FeriaEmpresarial;
+import org.example.service.InstantaneaFeria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportadorFeriaTest {
+    private static final String EMPRESA = "Acme, \"Andina\"\nS.A.";
+    private static final String NOMBRE = "Zoë \"la\" 😀\u0001\tPérez";
+    private static final String TEXTO = "Línea 1\r\nLínea 2, \"citada\"\u001f 🎉";
+    private static final LocalDate DIA = LocalDate.of(2024, 5, 1);
+
+    // buffer mínimo: los caracteres de varios bytes y los escapes cruzan volcados
+    private final ExportadorFeria exportador = new ExportadorFeria(64);
+    private InstantaneaFeria inst;
+
+    @BeforeEach
+    void crearFeria() {
+        Empresa acme = new Empresa(EMPRESA, "Tecnología", "info@acme.co");
+        Stand s1 = new Stand("S;1", "Pabellón A, Stand 1", StandSize.MEDIANO, acme, 1);
+        Stand s2 = new Stand("S\\2", "Pabellón A, Stand 2", StandSize.PEQUENO);
+        s1.agregarComentario(new Comentario("V1", DIA, 5, TEXTO));
+        s2.agregarComentario(new Comentario("V1", DIA, 3, "Bien"));
+        s2.agregarComentario(new Comentario("V9", DIA, 2, "Sin registro")); // autor no registrado
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.restaurarEstado(List.of(acme), List.of(s1, s2), List.of(new Visitante("V1", NOMBRE, "zoe@correo.co")));
+        inst = feria.instantanea();
+    }
+
+    private String exportar(ExportadorFeria.Tabla tabla, ExportadorFeria.Formato formato) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        exportador.exportar(inst, tabla, formato, Channels.newChannel(bytes));
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<List<String>> csv(ExportadorFeria.Tabla tabla) throws IOException {
+        List<List<String>> filas = leerCsv(exportar(tabla, ExportadorFeria.Formato.CSV));
+        assertEquals(tabla.columnas(), filas.get(0));
+        return filas.subList(1, filas.size());
+    }
+
+    private List<Map<String, Object>> jsonl(ExportadorFeria.Tabla tabla) throws IOException {
+        String salida = exportar(tabla, ExportadorFeria.Formato.JSONL);
+        List<Map<String, Object>> filas = new ArrayList<>();
+        for (String linea : salida.split("\n")) {
+            for (char c : linea.toCharArray()) assertFalse(c < 0x20, "carácter de control sin escapar en " + linea);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> fila = (Map<String, Object>) new LectorJson(linea).leer();
+            assertEquals(tabla.columnas(), new ArrayList<>(fila.keySet()));
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    @Test
+    void csvConservaComillasComasSaltosDeLineaYParesSustitutos() throws IOException {
+        assertEquals(List.of(EMPRESA, "Tecnología", "info@acme.co", "0"), csv(ExportadorFeria.Tabla.EMPRESAS).get(0));
+        assertEquals(List.of("V1", NOMBRE, "zoe@correo.co", "0"), csv(ExportadorFeria.Tabla.VISITANTES).get(0));
+        assertEquals(List.of("S;1", "V1", "2024-05-01", "5", TEXTO), csv(ExportadorFeria.Tabla.COMENTARIOS).get(0));
+    }
+
+    @Test
+    void csvSeparaLosStandsDeUnVisitanteAunqueContenganPuntoYComa() throws IOException {
+        List<List<String>> filas = csv(ExportadorFeria.Tabla.VISITANTES_Y_STANDS);
+        assertEquals("V1", filas.get(0).get(0));
+        assertEquals(Set.of("S;1", "S\\2"), new HashSet<>(dividirLista(filas.get(0).get(3))));
+        assertEquals(List.of("S\\2"), dividirLista(filas.get(1).get(3)));
+    }
+
+    @Test
+    void jsonlEscapaControlesYConservaParesSustitutos() throws IOException {
+        Map<String, Object> empresa = jsonl(ExportadorFeria.Tabla.EMPRESAS).get(0);
+        assertEquals(EMPRESA, empresa.get("nombre"));
+        assertEquals(0L, empresa.get("version"));
+        assertEquals(NOMBRE, jsonl(ExportadorFeria.Tabla.VISITANTES).get(0).get("nombre"));
+        Map<String, Object> comentario = jsonl(ExportadorFeria.Tabla.COMENTARIOS).get(0);
+        assertEquals(TEXTO, comentario.get("texto"));
+        assertEquals("2024-05-01", comentario.get("fecha"));
+        assertEquals(Set.of("S;1", "S\\2"),
+                new HashSet<>((List<?>) jsonl(ExportadorFeria.Tabla.VISITANTES_Y_STANDS).get(0).get("stands")));
+    }
+
+    @Test
+    void losCamposAusentesSonNulosEnJsonYVaciosEnCsv() throws IOException {
+        Map<String, Object> libre = jsonl(ExportadorFeria.Tabla.STANDS).get(1);
+        assertTrue(libre.containsKey("empresa"));
+        assertNull(libre.get("empresa"));
+        assertEquals(EMPRESA, jsonl(ExportadorFeria.Tabla.STANDS).get(0).get("empresa"));
+        assertEquals("", csv(ExportadorFeria.Tabla.STANDS).get(1).get(4));
+
+        Map<String, Object> sinRegistro = jsonl(ExportadorFeria.Tabla.VISITANTES_Y_STANDS).get(1);
+        assertEquals("V9", sinRegistro.get("identificacion"));
+        assertNull(sinRegistro.get("nombre"));
+        assertEquals(false, sinRegistro.get("registrado"));
+        assertEquals(List.of("V9", "", "false", "S\\\\2", "1"), csv(ExportadorFeria.Tabla.VISITANTES_Y_STANDS).get(1));
+    }
+
+    // ---- lectores de referencia ----
+
+    /**
+     * Lee un CSV RFC 4180 con filas terminadas en CRLF (los CR y LF sueltos son parte del campo).
+     */
+    private static List<List<String>> leerCsv(String texto) {
+        List<List<String>> filas = new ArrayList<>();
+        List<String> fila = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                fila.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' && i + 1 < texto.length() && texto.charAt(i + 1) == '\n') {
+                fila.add(campo.toString());
+                campo.setLength(0);
+                filas.add(fila);
+                fila = new ArrayList<>();
+                i++;
+            } else {
+                campo.append(c);
+            }
+        }
+        assertTrue(fila.isEmpty() && campo.isEmpty(), "la última fila no termina en CRLF");
+        return filas;
+    }
+
+    /**
+     * Separa una lista CSV por ';' deshaciendo los escapes con '\'.
+     */
+    private static List<String> dividirLista(String campo) {
+        List<String> valores = new ArrayList<>();
+        if (campo.isEmpty()) return valores;
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            if (c == '\\') {
+                actual.append(campo.charAt(++i));
+            } else if (c == ';') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    /**
+     * Lector JSON mínimo: objetos (con el orden de sus claves), arreglos, textos, enteros, booleanos y null.
+     */
+    private static final class LectorJson {
+        private final String s;
+        private int i;
+
+        LectorJson(String s) { this.s = s; }
+
+        Object leer() {
+            Object v = valor();
+            assertEquals(s.length(), i, "sobran caracteres en " + s);
+            return v;
+        }
+
+        private Object valor() {
+            char c = s.charAt(i);
+            if (c == '{') return objeto();
+            if (c == '[') return arreglo();
+            if (c == '"') return texto();
+            for (String literal : new String[] {"true", "false", "null"}) {
+                if (s.startsWith(literal, i)) {
+                    i += literal.length();
+                    return literal.equals("null") ? null : Boolean.valueOf(literal);
+                }
+            }
+            int inicio = i;
+            while (i < s.length() && "-0123456789.".indexOf(s.charAt(i)) >= 0) i++;
+            String numero = s.substring(inicio, i);
+            return numero.contains(".") ? (Object) Double.valueOf(numero) : (Object) Long.valueOf(numero);
+        }
+
+        private Map<String, Object> objeto() {
+            Map<String, Object> r = new LinkedHashMap<>();
+            i++;
+            while (s.charAt(i) != '}') {
+                if (!r.isEmpty()) esperar(',');
+                String clave = texto();
+                esperar(':');
+                r.put(clave, valor());
+            }
+            i++;
+            return r;
+        }
+
+        private List<Object> arreglo() {
+            List<Object> r = new ArrayList<>();
+            i++;
+            while (s.charAt(i) != ']') {
+                if (!r.isEmpty()) esperar(',');
+                r.add(valor());
+            }
+            i++;
+            return r;
+        }
+
+        private String texto() {
+            esperar('"');
+            StringBuilder r = new StringBuilder();
+            for (char c = s.charAt(i++); c != '"'; c = s.charAt(i++)) {
+                if (c != '\\') {
+                    r.append(c);
+                    continue;
+                }
+                char e = s.charAt(i++);
+                switch (e) {
+                    case 'n' -> r.append('\n');
+                    case 'r' -> r.append('\r');
+                    case 't' -> r.append('\t');
+                    case 'b' -> r.append('\b');
+                    case 'f' -> r.append('\f');
+                    case 'u' -> {
+                        r.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                        i += 4;
+                    }
+                    default -> r.append(e);
+                }
+            }
+            return r.toString();
+        }
+
+        private void esperar(char c) {
+            assertEquals(c, s.charAt(i), "posición " + i + " de " + s);
+            i++;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.persistence;
+
+import org.example.model.Empresa;
+import org.example.model.Stand;
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.example.service.FeriaEmpresarial;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFeriaTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void unaEdicionConUnaVersionLeidaAntesDeGuardarSeRechazaTrasCargar() throws IOException {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+        feria.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        long leidaEmpresa = feria.listarEmpresas().get(0).getVersion();
+        long leidaVisitante = feria.listarVisitantes().get(0).getVersion();
+        long leidaStand = feria.listarStands().get(0).getVersion();
+        assertTrue(feria.editarEmpresaSiVersion("Acme", leidaEmpresa, "Salud", ""));
+        assertTrue(feria.editarVisitanteSiVersion("V1", leidaVisitante, "Ana María", ""));
+        feria.asignarStandAEmpresa("S1", "Acme");
+        feria.desasignarStand("S1");
+
+        Path archivo = dir.resolve("feria.snap");
+        SnapshotFeria.guardar(feria, archivo);
+        FeriaEmpresarial cargada = new FeriaEmpresarial();
+        SnapshotFeria.cargar(archivo, cargada);
+
+        assertEquals(feria.listarEmpresas().get(0).getVersion(), cargada.listarEmpresas().get(0).getVersion());
+        assertFalse(cargada.editarEmpresaSiVersion("Acme", leidaEmpresa, "Energía", ""));
+        assertFalse(cargada.editarVisitanteSiVersion("V1", leidaVisitante, "Otra", ""));
+        assertFalse(cargada.asignarStandSiVersion("S1", leidaStand, "Acme"));
+        assertEquals("Salud", cargada.listarEmpresas().get(0).getSector());
+        assertTrue(cargada.listarStands().get(0).estaDisponible());
+    }
+
+    @Test
+    void unSnapshotV1SeCargaConVersionesIniciales() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x46455249);
+        out.writeInt(1);
+        String[] cadenas = {"Acme", "Tecnología", "info@acme.co", "V1", "Ana", "ana@correo.co", "S1",
+                "Pabellón A, Stand 1", "Muy bueno"};
+        out.write(cadenas.length);
+        for (String c : cadenas) {
+            byte[] utf8 = c.getBytes(StandardCharsets.UTF_8);
+            out.write(utf8.length);
+            out.write(utf8);
+        }
+        out.write(new byte[] {1, 0, 1, 2});                       // empresa Acme
+        out.write(new byte[] {1, 3, 4, 5});                       // visitante V1
+        out.write(new byte[] {1, 6, 7, (byte) StandSize.GRANDE.ordinal(), 1, 1}); // stand S1 asignado a Acme, 1 comentario
+        out.write(3);                                             // autor V1
+        int dia = (int) LocalDate.of(2024, 5, 1).toEpochDay();    // varint de la fecha
+        while ((dia & ~0x7F) != 0) {
+            out.write((dia & 0x7F) | 0x80);
+            dia >>>= 7;
+        }
+        out.write(dia);
+        out.write(new byte[] {5, 8});                             // calificación y texto
+        Path archivo = dir.resolve("v1.snap");
+        Files.write(archivo, bytes.toByteArray());
+
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        SnapshotFeria.cargar(archivo, feria);
+
+        Stand s = feria.listarStands().get(0);
+        assertEquals("Acme", s.getEmpresaAsignada().orElseThrow().getNombre());
+        assertEquals(1, s.getVersion());
+        assertEquals(0, feria.listarEmpresas().get(0).getVersion());
+        assertEquals("Muy bueno", s.getComentarios().get(0).texto());
+        assertEquals(LocalDate.of(2024, 5, 1), s.getComentarios().get(0).fecha());
+
+        Path v2 = dir.resolve("v2.snap");
+        SnapshotFeria.guardar(feria, v2);
+        assertEquals(SnapshotFeria.VERSION, ByteBuffer.wrap(Files.readAllBytes(v2), 4, 4).getInt());
+    }
+
+    @Test
+    void guardarYCargarConservaEntidadesComentariosYVersiones() throws IOException {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+        feria.registrarEmpresa(new Empresa("Vida", "Salud", "info@vida.co"));
+        feria.editarEmpresa("Acme", "Energía", "");
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        feria.crearStand("S2", "Pabellón B, Fila 2, Stand 7", StandSize.GRANDE);
+        feria.crearStand("S3", "Pabellón B, Stand 8", StandSize.PEQUENO);
+        feria.asignarStandAEmpresa("S1", "Acme");
+        feria.asignarStandAEmpresa("S2", "Vida");
+        feria.desasignarStand("S2");
+        feria.asignarStandAEmpresa("S2", "Vida");
+        feria.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+        feria.registrarVisitante(new Visitante("V2", "Luis", "luis@correo.co"));
+        feria.editarVisitante("V2", "Luis Ángel", "");
+        feria.registrarComentario("V1", "S1", 5, "Muy bueno, \"excelente\" 😀");
+        feria.registrarComentario("V2", "S1", 2, "Regular");
+        feria.registrarComentario("V1", "S2", 4, "Bien");
+
+        Path archivo = dir.resolve("feria.snap");
+        SnapshotFeria.guardar(feria, archivo);
+        FeriaEmpresarial cargada = new FeriaEmpresarial();
+        SnapshotFeria.cargar(archivo, cargada);
+
+        assertEquals(feria.listarEmpresas().size(), cargada.listarEmpresas().size());
+        for (int i = 0; i < feria.listarEmpresas().size(); i++) {
+            Empresa a = feria.listarEmpresas().get(i);
+            Empresa b = cargada.listarEmpresas().get(i);
+            assertEquals(List.of(a.getNombre(), a.getSector(), a.getCorreoElectronico()),
+                    List.of(b.getNombre(), b.getSector(), b.getCorreoElectronico()));
+            assertEquals(a.getVersion(), b.getVersion());
+        }
+        assertEquals(feria.listarVisitantes().size(), cargada.listarVisitantes().size());
+        for (int i = 0; i < feria.listarVisitantes().size(); i++) {
+            Visitante a = feria.listarVisitantes().get(i);
+            Visitante b = cargada.listarVisitantes().get(i);
+            assertEquals(List.of(a.getIdentificacion(), a.getNombre(), a.getCorreoElectronico()),
+                    List.of(b.getIdentificacion(), b.getNombre(), b.getCorreoElectronico()));
+            assertEquals(a.getVersion(), b.getVersion());
+        }
+        assertEquals(3, cargada.listarStands().size());
+        for (int i = 0; i < 3; i++) {
+            Stand a = feria.listarStands().get(i);
+            Stand b = cargada.listarStands().get(i);
+            assertEquals(List.of(a.getNumero(), a.getUbicacion(), a.getTamano()),
+                    List.of(b.getNumero(), b.getUbicacion(), b.getTamano()));
+            assertEquals(a.getUbicacionDetallada(), b.getUbicacionDetallada());
+            assertEquals(a.getEmpresaAsignada().map(Empresa::getNombre), b.getEmpresaAsignada().map(Empresa::getNombre));
+            assertEquals(a.getVersion(), b.getVersion());
+            assertEquals(a.getComentarios(), b.getComentarios());
+        }
+        assertEquals(3, cargada.listarStands().get(1).getVersion());
+        assertTrue(cargada.listarStands().get(2).estaDisponible());
+        // la empresa asignada es la misma instancia que la listada (no una copia suelta)
+        assertSame(cargada.listarEmpresas().get(0), cargada.listarStands().get(0).getEmpresaAsignada().orElseThrow());
+        assertEquals(feria.reporteVisitantesYStandsVisitados(), cargada.reporteVisitantesYStandsVisitados());
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.repository;
+
+import org.example.model.Comentario;
+import org.example.model.Empresa;
+import org.example.model.FiltroComentarios;
+import org.example.model.Stand;
+import org.example.model.StandSize;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositorioEnMemoriaTest {
+
+    private static List<String> nombres(RepositorioEnMemoria repo) {
+        return repo.empresas().stream().map(Empresa::getNombre).toList();
+    }
+
+    @Test
+    void conservaElOrdenDeInsercion() {
+        RepositorioEnMemoria repo = new RepositorioEnMemoria();
+        repo.guardarEmpresa(new Empresa("Beta", "Salud", "info@beta.co"));
+        repo.guardarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+        repo.guardarEmpresa(new Empresa("Gama", "Energía", "info@gama.co"));
+        repo.guardarEmpresa(new Empresa("BETA", "Salud", "otro@beta.co")); // reemplazar conserva la posición
+        repo.eliminarEmpresa(repo.buscarEmpresa("acme").orElseThrow());
+        repo.guardarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+
+        assertEquals(List.of("BETA", "Gama", "Acme"), nombres(repo));
+        assertEquals("otro@beta.co", repo.buscarEmpresa(" beta ").orElseThrow().getCorreoElectronico());
+    }
+
+    @Test
+    void lasBusquedasSinCandadoVenLasEntidadesExistentesMientrasOtroHiloDaDeAlta() throws InterruptedException {
+        RepositorioEnMemoria repo = new RepositorioEnMemoria();
+        repo.guardarEmpresa(new Empresa("Fija", "Comercio", "info@fija.co"));
+        AtomicBoolean fin = new AtomicBoolean();
+        AtomicLong fallos = new AtomicLong();
+        Thread lector = new Thread(() -> {
+            while (!fin.get()) if (repo.buscarEmpresa("fija").isEmpty()) fallos.incrementAndGet();
+        });
+        lector.start();
+        for (int i = 0; i < 50_000; i++) {
+            Empresa e = new Empresa("Empresa " + i, "Sector", "e" + i + "@correo.co");
+            repo.guardarEmpresa(e);
+            if (i % 2 == 0) repo.eliminarEmpresa(e);
+        }
+        fin.set(true);
+        lector.join();
+
+        assertEquals(0, fallos.get());
+        assertEquals(25_001, repo.empresas().size());
+        assertEquals("Fija", repo.empresas().get(0).getNombre());
+    }
+
+    private static Stand standConComentarios(RepositorioEnMemoria repo, String numero, int visitantes) {
+        Stand s = new Stand(numero, "Pabellón A, Stand 1", StandSize.MEDIANO);
+        repo.guardarStand(s);
+        for (int i = 0; i < visitantes; i++) {
+            repo.agregarComentario(s, new Comentario("V" + i, LocalDate.of(2024, 5, 1), 4, "Bien"));
+        }
+        return s;
+    }
+
+    @Test
+    void cadaRepositorioTieneSuPropioDiccionario() {
+        RepositorioEnMemoria a = new RepositorioEnMemoria();
+        RepositorioEnMemoria b = new RepositorioEnMemoria();
+        standConComentarios(a, "S1", 100);
+        standConComentarios(b, "S1", 3);
+
+        assertEquals(100, a.identificacionesEnDiccionario());
+        assertEquals(3, b.identificacionesEnDiccionario());
+    }
+
+    @Test
+    void laPurgaLiberaLasIdentificacionesSinComentarios() {
+        RepositorioEnMemoria repo = new RepositorioEnMemoria();
+        Stand s = standConComentarios(repo, "S1", 10_000);
+        Stand copia = s.copia();
+        List<String> purgados = new ArrayList<>();
+        for (int i = 1; i < 10_000; i++) purgados.add("v" + i);
+
+        repo.eliminarComentarios(repo.stands(), FiltroComentarios.deVisitantes(purgados), null);
+
+        // 9.999 eliminados contra 1 vigente: se compacta sola
+        assertEquals(1, repo.identificacionesEnDiccionario());
+        assertEquals("V0", s.comentario(0).visitanteId());
+        assertEquals("V9999", copia.comentario(9_999).visitanteId(), "la copia previa sigue leyendo su diccionario");
+
+        repo.agregarComentario(s, new Comentario("V5", LocalDate.of(2024, 5, 2), 5, "Volví"));
+        assertEquals(List.of("V0", "V5"), s.getComentarios().stream().map(Comentario::visitanteId).toList());
+        assertEquals(1, s.eliminarComentariosDeVisitante("v5"));
+    }
+
+    @Test
+    void reemplazarTodoTraduceLosComentariosAlDiccionarioDelRepositorio() {
+        Stand suelto = new Stand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        suelto.agregarComentario(new Comentario("Ana", LocalDate.of(2024, 5, 1), 5, "Genial"));
+        suelto.agregarComentario(new Comentario("Luis", LocalDate.of(2024, 5, 1), 3, "Normal"));
+        RepositorioEnMemoria repo = new RepositorioEnMemoria();
+        repo.reemplazarTodo(List.of(), List.of(suelto), List.of());
+
+        assertEquals(2, repo.identificacionesEnDiccionario());
+        assertEquals(List.of("Ana", "Luis"), suelto.getComentarios().stream().map(Comentario::visitanteId).toList());
+        assertEquals(Map.of("S1", 1), repo.eliminarComentarios(repo.stands(),
+                FiltroComentarios.deVisitantes(List.of("ANA")), null));
+    }
+
+    @Test
+    void unFiltroReutilizadoAlcanzaAAutoresRegistradosDespues() {
+        RepositorioEnMemoria repo = new RepositorioEnMemoria();
+        Stand s = new Stand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        repo.guardarStand(s);
+        repo.agregarComentario(s, new Comentario("V1", LocalDate.of(2024, 5, 1), 4, "Bien"));
+        FiltroComentarios filtro = FiltroComentarios.deVisitantes(List.of("V2"));
+        assertEquals(Map.of(), repo.eliminarComentarios(repo.stands(), filtro, null));
+
+        repo.agregarComentario(s, new Comentario("v2", LocalDate.of(2024, 5, 2), 2, "Mal"));
+
+        assertEquals(Map.of("S1", 1), repo.eliminarComentarios(repo.stands(), filtro, null));
+        assertEquals(List.of("V1"), s.getComentarios().stream().map(Comentario::visitanteId).toList());
+    }
+
+    @Test
+    void unLectorSinCandadoNoMezclaOrdinalesNuevosConElDiccionarioAnterior() throws InterruptedException {
+        RepositorioEnMemoria repo = new RepositorioEnMemoria();
+        Stand otro = new Stand("S0", "Pabellón A, Stand 0", StandSize.MEDIANO);
+        Stand s = new Stand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        repo.guardarStand(otro);
+        repo.guardarStand(s);
+        LocalDate dia = LocalDate.of(2024, 5, 1);
+        int total = 2_000;
+        for (int i = 0; i < total; i++) repo.agregarComentario(s, new Comentario("V" + i, dia, 3, "V" + i));
+        AtomicBoolean seguir = new AtomicBoolean(true);
+        AtomicInteger mezclados = new AtomicInteger();
+        Thread lector = new Thread(() -> {
+            while (seguir.get()) {
+                for (int i = 0; i < total; i++) {
+                    Comentario c = s.comentario(i);
+                    if (!c.visitanteId().equals(c.texto())) mezclados.incrementAndGet(); // el texto es el autor
+                }
+            }
+        });
+        lector.start();
+        for (int ronda = 0; ronda < 50; ronda++) {
+            // S0 se compacta primero: sus autores, distintos en cada ronda, corren los ordinales de los de S1
+            repo.eliminarComentarios(List.of(otro), FiltroComentarios.todos(), null);
+            for (int i = 0; i < 50 * (ronda % 7 + 1); i++) {
+                repo.agregarComentario(otro, new Comentario("X" + ronda + "-" + i, dia, 1, "Efímero"));
+            }
+            repo.compactarDiccionario();
+        }
+        seguir.set(false);
+        lector.join();
+        assertEquals(0, mezclados.get());
+        assertEquals("V1999", s.comentario(1_999).visitanteId());
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.repository;
+
+import org.example.model.*;
+import org.example.service.FeriaEmpresarial;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositorioJdbcTest {
+    private static int siguienteBase;
+
+    private String url;
+    private RepositorioJdbc repo;
+    private FeriaEmpresarial feria;
+
+    @BeforeEach
+    void abrir() {
+        url = "jdbc:h2:mem:feria" + siguienteBase++ + ";DB_CLOSE_DELAY=-1";
+        repo = new RepositorioJdbc(url, 100);
+        feria = new FeriaEmpresarial(repo);
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        feria.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+    }
+
+    @AfterEach
+    void cerrar() throws SQLException {
+        repo.close();
+        try (Connection cx = DriverManager.getConnection(url); Statement st = cx.createStatement()) {
+            st.execute("SHUTDOWN");
+        }
+    }
+
+    private int filasComentario() throws SQLException {
+        try (Connection cx = DriverManager.getConnection(url); Statement st = cx.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM comentario")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void registrarComentarioNoVaciaLotesYCargaComentariosAlConsultar() throws SQLException {
+        for (int i = 1; i <= 10; i++) feria.registrarComentario("V1", "S1", 1 + i % 5, "Comentario " + i);
+
+        assertEquals(0, filasComentario(), "buscar el stand en cada inserción no debe enviar el lote");
+        List<Comentario> comentarios = feria.listarComentariosDeStand("S1");
+        assertEquals(10, comentarios.size());
+        assertEquals("Comentario 10", comentarios.get(9).texto());
+        assertEquals(10, filasComentario());
+    }
+
+    @Test
+    void buscarStandNoLeeComentariosHastaUsarlos() {
+        feria.registrarComentario("V1", "S1", 4, "Bien");
+        Stand s = repo.buscarStand("s1").orElseThrow();
+
+        assertFalse(s.comentariosCargados());
+        assertEquals(4.0, s.promedioCalificacion().orElseThrow());
+        assertTrue(s.comentariosCargados());
+        assertEquals(1, s.totalComentarios());
+    }
+
+    @Test
+    void comentarioSobreStandYaCargadoNoSeDuplica() {
+        feria.registrarComentario("V1", "S1", 5, "Primero");
+        Stand s = repo.buscarStand("S1").orElseThrow();
+        s.totalComentarios(); // carga
+        repo.agregarComentario(s, new Comentario("V1", LocalDate.now(), 3, "Segundo"));
+
+        assertEquals(2, s.totalComentarios());
+        assertEquals(2, repo.buscarStand("S1").orElseThrow().totalComentarios());
+    }
+
+    @Test
+    void eliminarUnVisitanteBorraPorAutorYCuentaPorStand() throws SQLException {
+        feria.crearStand("S2", "Pabellón A, Stand 2", StandSize.PEQUENO);
+        feria.registrarVisitante(new Visitante("V2", "Luis", "luis@correo.co"));
+        feria.registrarComentario("V1", "S2", 3, "Uno");
+        feria.registrarComentario("V1", "S2", 4, "Dos");
+        feria.registrarComentario("V2", "S1", 5, "De Luis");
+        feria.registrarComentario("V1", "S1", 2, "Tres");
+
+        assertEquals(Map.of("S1", 1, "S2", 2), repo.eliminarComentariosDeVisitante("v1"));
+        assertEquals(1, filasComentario());
+
+        feria.eliminarVisitante("V2");
+        assertEquals(0, filasComentario());
+        assertEquals(List.of("V1"), feria.listarVisitantes().stream().map(Visitante::getIdentificacion).toList());
+    }
+
+    @Test
+    void laPurgaPorRetencionBorraEnLaBaseYEliminaVisitantesSinComentarios() throws SQLException {
+        feria.crearStand("S2", "Pabellón A, Stand 2", StandSize.PEQUENO);
+        feria.registrarVisitante(new Visitante("V2", "Luis", "luis@correo.co"));
+        LocalDate corte = LocalDate.of(2026, 3, 10);
+        Stand s1 = repo.buscarStand("S1").orElseThrow();
+        Stand s2 = repo.buscarStand("S2").orElseThrow();
+        repo.agregarComentario(s1, new Comentario("V1", corte.minusDays(3), 2, "Viejo"));
+        repo.agregarComentario(s1, new Comentario("V1", corte, 5, "Reciente"));
+        repo.agregarComentario(s2, new Comentario("V2", corte.minusDays(1), 4, "Viejo"));
+        repo.agregarComentario(s2, new Comentario("v2", corte.minusDays(9), 1, "Más viejo"));
+
+        FeriaEmpresarial.ResultadoPurga r = feria.purgarComentarios(FiltroComentarios.anterioresA(corte), null, true);
+
+        assertEquals(3, r.comentariosEliminados());
+        assertEquals(Map.of("S1", 1, "S2", 2), r.comentariosPorStand());
+        assertEquals(List.of("V2"), r.visitantesEliminados());
+        assertEquals(1, filasComentario());
+        assertEquals(List.of("Reciente"), feria.listarComentariosDeStand("S1").stream().map(Comentario::texto).toList());
+        assertEquals(0, feria.listarComentariosDeStand("S2").size());
+        assertEquals(1, feria.listarVisitantes().size());
+    }
+
+    @Test
+    void eliminarVisitantesEnBloqueBorraSusComentariosSinDistinguirMayusculas() throws SQLException {
+        feria.registrarVisitante(new Visitante("V2", "Luis", "luis@correo.co"));
+        feria.registrarComentario("V1", "S1", 3, "De Ana");
+        feria.registrarComentario("V2", "S1", 4, "De Luis");
+
+        FeriaEmpresarial.ResultadoPurga r = feria.eliminarVisitantes(List.of("v1"));
+
+        assertEquals(1, r.comentariosEliminados());
+        assertEquals(List.of("V1"), r.visitantesEliminados());
+        assertEquals(1, filasComentario());
+        assertEquals("De Luis", feria.listarComentariosDeStand("S1").get(0).texto());
+        assertTrue(repo.buscarVisitante("V1").isEmpty());
+    }
+
+    @Test
+    void estadoPersisteAlReabrirLaBase(@TempDir Path dir) {
+        String archivo = "jdbc:h2:file:" + dir.resolve("feria").toAbsolutePath();
+        try (RepositorioJdbc r = new RepositorioJdbc(archivo)) {
+            FeriaEmpresarial f = new FeriaEmpresarial(r);
+            f.registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+            f.crearStand("S1", "Pabellón A, Stand 1", StandSize.GRANDE);
+            f.asignarStandAEmpresa("S1", "Acme");
+            f.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+            f.registrarComentario("V1", "S1", 5, "Excelente");
+            f.registrarComentario("V1", "S1", 3, "Regular");
+        }
+        try (RepositorioJdbc r = new RepositorioJdbc(archivo)) {
+            FeriaEmpresarial f = new FeriaEmpresarial(r);
+            Stand s = f.listarStands().get(0);
+            assertEquals("Acme", s.getEmpresaAsignada().orElseThrow().getNombre());
+            assertEquals(2, s.totalComentarios());
+            assertEquals(4.0, f.promedioCalificacionStand("S1").orElseThrow());
+            assertEquals(1, f.listarVisitantes().size());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheReportesTest {
+    private static final long[] V1 = {1};
+    private static final long[] V2 = {2};
+
+    @Test
+    void desalojaLaEntradaMenosUsadaAlSuperarLaCapacidad() {
+        CacheReportes cache = new CacheReportes(2);
+        AtomicInteger calculos = new AtomicInteger();
+        cache.obtener("a", V1, () -> "A" + calculos.incrementAndGet());
+        cache.obtener("b", V1, () -> "B" + calculos.incrementAndGet());
+        cache.obtener("a", V1, () -> "A" + calculos.incrementAndGet()); // "a" pasa a ser la más reciente
+        cache.obtener("c", V1, () -> "C" + calculos.incrementAndGet()); // desaloja "b"
+
+        assertEquals("A1", cache.obtener("a", V1, () -> "no"));
+        assertEquals("B4", cache.obtener("b", V1, () -> "B" + calculos.incrementAndGet()));
+        CacheReportes.Estadisticas e = cache.estadisticas();
+        assertEquals(2, e.desalojos());
+        assertEquals(4, e.fallos());
+        assertEquals(2, e.aciertos());
+    }
+
+    @Test
+    void recalculaCuandoCambianLasVersiones() {
+        CacheReportes cache = new CacheReportes(1);
+        cache.obtener("a", V1, () -> "viejo");
+        assertEquals("nuevo", cache.obtener("a", V2, () -> "nuevo"));
+        assertEquals("nuevo", cache.obtener("a", V2, () -> "no"));
+    }
+
+    @Test
+    void sirveObsoletoYRecalculaEnSegundoPlano() {
+        CacheReportes cache = new CacheReportes(1);
+        cache.obtener("a", V1, () -> "viejo");
+
+        assertEquals("viejo", cache.obtenerPermitiendoObsoleto("a", V2, () -> "nuevo", Runnable::run));
+        assertEquals("nuevo", cache.obtener("a", V2, () -> "no"));
+        assertEquals(1, cache.estadisticas().obsoletos());
+    }
+
+    @Test
+    void elFalloDelRecalculoSeCuentaYSeLanzaEnLaSiguienteLectura() {
+        CacheReportes cache = new CacheReportes(1);
+        cache.obtener("a", V1, () -> "viejo");
+
+        assertEquals("viejo", cache.obtenerPermitiendoObsoleto("a", V2, () -> { throw new IllegalArgumentException("roto"); },
+                Runnable::run));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> cache.obtenerPermitiendoObsoleto("a", V2, () -> "nuevo", Runnable::run));
+        assertEquals("roto", e.getCause().getMessage());
+        assertEquals(1, cache.estadisticas().erroresRecalculo());
+        // el error se informa una vez; la lectura siguiente reintenta
+        assertEquals("viejo", cache.obtenerPermitiendoObsoleto("a", V2, () -> "nuevo", Runnable::run));
+        assertEquals("nuevo", cache.obtener("a", V2, () -> "no"));
+    }
+}
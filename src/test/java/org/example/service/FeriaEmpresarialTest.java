@@ -0,0 +1,211 @@
+package org.example.service;
+
+import org.example.event.BusEventos;
+import org.example.event.EventoFeria;
+import org.example.model.Empresa;
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeriaEmpresarialTest {
+
+    @Test
+    void eliminarUnVisitanteSinComentariosInvalidaLaInstantanea() {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+        feria.registrarVisitante(new Visitante("V2", "Luis", "luis@correo.co"));
+        assertEquals(2, feria.instantanea().listarVisitantes().size());
+
+        feria.eliminarVisitante("V2");
+
+        assertEquals(1, feria.instantanea().listarVisitantes().size());
+    }
+
+    @Test
+    void eliminarUnVisitanteQuitaSusComentariosConYSinReporteEnCache() {
+        for (boolean conReporte : new boolean[] {false, true}) {
+            FeriaEmpresarial feria = new FeriaEmpresarial();
+            feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+            feria.crearStand("S2", "Pabellón A, Stand 2", StandSize.MEDIANO);
+            feria.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+            feria.registrarVisitante(new Visitante("V2", "Luis", "luis@correo.co"));
+            feria.registrarComentario("V1", "S1", 5, "Muy bueno");
+            feria.registrarComentario("V1", "S2", 3, "Regular");
+            feria.registrarComentario("V2", "S2", 4, "Bueno");
+            feria.instantanea();
+            if (conReporte) feria.reporteVisitantesYStandsVisitados();
+
+            feria.eliminarVisitante("v1");
+
+            InstantaneaFeria inst = feria.instantanea();
+            assertEquals(0, inst.listarStands().get(0).getComentarios().size());
+            assertEquals(1, inst.listarStands().get(1).getComentarios().size());
+            assertEquals(1, feria.listarComentariosDeStand("S2").size());
+            assertFalse(feria.reporteVisitantesYStandsVisitados().contains("V1"));
+        }
+    }
+
+    @Test
+    void unSuscriptorQueConsultaLaInstantaneaNoBloqueaAlProductor() {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        AtomicInteger vistos = new AtomicInteger();
+        try (BusEventos.Suscripcion s = feria.eventos().suscribir(lote -> {
+            vistos.addAndGet(lote.size());
+            feria.instantanea(); // necesita el candado de escritura
+        }, 1)) {
+            // más eventos que la capacidad del bus: el productor tiene que esperar al suscriptor
+            assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+                for (int i = 0; i < 20000; i++) {
+                    feria.registrarEmpresa(new Empresa("Empresa " + i, "Sector", "e" + i + "@correo.co"));
+                }
+            });
+            assertEquals(20000, feria.listarEmpresas().size());
+            assertTrue(vistos.get() > 0);
+            assertEquals(0, s.errores(), "el suscriptor no debería fallar al consultar la instantánea");
+        }
+    }
+
+    @Test
+    void losEventosDeHilosDistintosLleganEnElOrdenEnQueSeAplicaron() throws InterruptedException {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        int n = 3000;
+        Set<String> vivos = new HashSet<>(); // proyección del suscriptor: solo la toca su hilo
+        AtomicInteger fueraDeOrden = new AtomicInteger();
+        try (BusEventos.Suscripcion s = feria.eventos().suscribir(lote -> {
+            for (EventoFeria e : lote) {
+                if (e instanceof EventoFeria.VisitanteRegistrado r) vivos.add(r.identificacion());
+                else if (e instanceof EventoFeria.VisitanteEliminado el) vivos.remove(el.identificacion());
+                else if (e instanceof EventoFeria.ComentarioRegistrado c
+                        && !vivos.contains(c.comentario().visitanteId())) fueraDeOrden.incrementAndGet();
+            }
+        }, 16)) {
+            for (int i = 0; i < n; i++) feria.registrarVisitante(new Visitante("V" + i, "Visitante " + i, "v" + i + "@correo.co"));
+            AtomicInteger comentados = new AtomicInteger();
+            Thread comentarista = new Thread(() -> {
+                for (int i = 0; i < n; i++) {
+                    try {
+                        feria.registrarComentario("V" + i, "S1", 4, "Bien");
+                        comentados.incrementAndGet();
+                    } catch (NoSuchElementException e) {
+                        // el otro hilo ya lo eliminó
+                    }
+                }
+            });
+            comentarista.start();
+            for (int i = 0; i < n; i++) feria.eliminarVisitante("V" + i);
+            comentarista.join();
+
+            long esperados = 2L * n + comentados.get();
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (s.ultimaEntregada() + 1 < esperados && System.nanoTime() < limite) Thread.sleep(1);
+            assertEquals(esperados, s.ultimaEntregada() + 1);
+            assertEquals(0, fueraDeOrden.get(), "un comentario llegó después de la baja de su autor");
+        }
+    }
+
+    @Test
+    void asignarYLiberarEnParaleloDejaElIndiceDeStandsAlDia() throws InterruptedException {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        feria.crearStand("S2", "Pabellón A, Stand 2", StandSize.MEDIANO);
+        feria.asignarStandAEmpresa("S1", "Acme");
+        assertEquals("S2", feria.standLibreMasCercano("S1").orElseThrow().getNumero()); // construye el índice
+
+        Thread asignador = new Thread(() -> {
+            for (int i = 0; i < 5000; i++) {
+                try {
+                    feria.asignarStandAEmpresa("S2", "Acme");
+                } catch (IllegalStateException e) {
+                    // ya estaba asignado
+                }
+            }
+        });
+        asignador.start();
+        for (int i = 0; i < 5000; i++) feria.desasignarStand("S2");
+        asignador.join();
+
+        boolean libre = feria.listarStandsDisponibles().stream().anyMatch(s -> s.getNumero().equals("S2"));
+        assertEquals(libre, feria.standLibreMasCercano("S1").isPresent());
+    }
+
+    @Test
+    void unStandNoQuedaAsignadoAUnaEmpresaEliminada() throws InterruptedException {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        Thread asignador = new Thread(() -> {
+            for (int i = 0; i < 5000; i++) {
+                try {
+                    feria.asignarStandAEmpresa("S1", "Acme");
+                    feria.desasignarStand("S1");
+                } catch (NoSuchElementException | IllegalStateException e) {
+                    // la empresa no existe en este momento
+                }
+            }
+        });
+        asignador.start();
+        for (int i = 0; i < 5000; i++) {
+            feria.registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+            feria.eliminarEmpresa("Acme");
+        }
+        asignador.join();
+
+        assertTrue(feria.listarEmpresas().isEmpty());
+        assertTrue(feria.listarStands().get(0).estaDisponible(), "el stand quedó asignado a una empresa eliminada");
+    }
+
+    @Test
+    void activarLasEstadisticasMientrasSeComentaNoPierdeComentarios() throws InterruptedException {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        feria.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+        feria.activarEstadisticasAproximadas();
+        Thread comentarista = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) feria.registrarComentario("V1", "S1", 4, "Bien");
+        });
+        comentarista.start();
+        while (comentarista.isAlive()) feria.activarEstadisticasAproximadas();
+        comentarista.join();
+
+        // un único autor: el count-min no tiene colisiones y su cuenta es exacta
+        long contados = feria.estadisticasAproximadas().visitantesMasActivos(1).get(0).getValue();
+        assertEquals(feria.listarComentariosDeStand("S1").size(), contados);
+    }
+
+    @Test
+    void elReportePerezosoNoVeLosCambiosHechosMientrasSeRecorre() {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        for (int i = 10; i < 110; i++) {
+            feria.registrarVisitante(new Visitante("V" + i, "Visitante " + i, "v" + i + "@correo.co"));
+            feria.registrarComentario("V" + i, "S1", 4, "Bien");
+        }
+        Iterator<String> lineas = feria.lineasReporteVisitantesYStandsVisitados().iterator();
+        lineas.next(); // encabezado
+
+        for (int i = 0; i < 10; i++) {
+            feria.registrarVisitante(new Visitante("V0" + i, "Nuevo " + i, "n" + i + "@correo.co"));
+            feria.registrarComentario("V0" + i, "S1", 5, "Excelente");
+        }
+        feria.eliminarVisitante("V50");
+        int restantes = 0;
+        while (lineas.hasNext()) {
+            assertFalse(lineas.next().contains("Nuevo"));
+            restantes++;
+        }
+
+        assertEquals(100, restantes);
+        assertTrue(feria.reporteVisitantesYStandsVisitados().contains("Nuevo 0"));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.service;
+
+import org.example.model.Empresa;
+import org.example.model.Stand;
+import org.example.model.StandSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceStandsTest {
+
+    private static FeriaEmpresarial feriaConStands() {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+        feria.crearStand("A-10", "Pabellón A, Fila 1, Stand 10", StandSize.MEDIANO);
+        feria.crearStand("A-9", "Pabellón A, Fila 1, Stand 3", StandSize.MEDIANO);
+        feria.crearStand("A-11", "Pabellón A, Fila 5, Stand 11", StandSize.MEDIANO);
+        feria.crearStand("A-12", "Pabellón A, Fila 2, Stand 10", StandSize.MEDIANO);
+        feria.crearStand("B-10", "Pabellón B, Fila 1, Stand 10", StandSize.MEDIANO);
+        return feria;
+    }
+
+    private static Optional<String> cercano(FeriaEmpresarial feria, String numero) {
+        return feria.standLibreMasCercano(numero).map(Stand::getNumero);
+    }
+
+    @Test
+    void eligePorDistanciaEntreFilaYPosicionNoPorNumero() {
+        FeriaEmpresarial feria = feriaConStands();
+        // los vecinos por número (A-9 y A-11) están a 7 y 5; A-12 está en la fila de al lado
+        assertEquals(Optional.of("A-12"), cercano(feria, "A-10"));
+
+        feria.asignarStandAEmpresa("A-12", "Acme");
+        assertEquals(Optional.of("A-11"), cercano(feria, "A-10"));
+
+        feria.asignarStandAEmpresa("A-11", "Acme");
+        feria.asignarStandAEmpresa("A-9", "Acme");
+        assertEquals(Optional.empty(), cercano(feria, "A-10"), "no cruza a otro pabellón");
+    }
+
+    @Test
+    void aIgualDistanciaGanaElNumeroMenor() {
+        FeriaEmpresarial feria = feriaConStands();
+        feria.crearStand("A-2", "Pabellón A, Fila 0, Stand 10", StandSize.PEQUENO);
+        assertEquals(Optional.of("A-2"), cercano(feria, "A-10"));
+        feria.desasignarStand("A-2"); // sigue libre: no cambia
+        feria.asignarStandAEmpresa("A-2", "Acme");
+        assertEquals(Optional.of("A-12"), cercano(feria, "A-10"));
+    }
+
+    @Test
+    void sinPosicionUsaLosVecinosPorNumero() {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.crearStand("C1", "Pabellón C", StandSize.PEQUENO);
+        feria.crearStand("C2", "Pabellón C", StandSize.PEQUENO);
+        feria.crearStand("C3", "Pabellón C", StandSize.PEQUENO);
+        assertEquals(Optional.of("C1"), cercano(feria, "C2"));
+        assertEquals(Optional.of("C2"), cercano(feria, "C3"));
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceVisitasTest {
+
+    @Test
+    void losStandsDeUnVisitanteSeArmanSinRepetidosYEnOrdenNatural() {
+        IndiceVisitas indice = new IndiceVisitas();
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            for (int i = 20; i >= 1; i--) indice.registrarVisita("V1", "S" + i);
+        }
+        indice.registrarVisita("v1", "S10");
+        indice.registrarVisita("V2", "S3");
+
+        List<String> stands = indice.standsDe("V1");
+        assertEquals(20, stands.size());
+        assertEquals(List.of("S1", "S2", "S3"), stands.subList(0, 3));
+        assertEquals("S20", stands.get(19));
+        assertEquals(List.of("S3"), indice.standsDe("v2"));
+        assertEquals(List.of(), indice.standsDe("V3"));
+    }
+
+    @Test
+    void elReporteMuestraCadaVisitanteConSusStandsYComentarios() {
+        IndiceVisitas indice = new IndiceVisitas();
+        indice.registrarVisitante("V2", "Luis");
+        indice.registrarVisitante("V1", "Ana");
+        indice.registrarVisita("V1", "S10");
+        indice.registrarVisita("V1", "S2");
+        indice.registrarVisita("V1", "S10");
+        indice.registrarVisita("X9", "S2");
+
+        List<String> lineas = indice.lineasReporte().toList();
+        assertEquals(List.of(
+                FormatoReportes.ENCABEZADO_VISITANTES,
+                " - V1 (Ana) -> Stands: [S2, S10] | Comentarios: 3",
+                " - V2 (Luis) -> Stands: - | Comentarios: 0",
+                " - X9 (no registrado actualmente) -> Stands: [S2] | Comentarios: 1"), lineas);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.service;
+
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorComentariosTest {
+    private static final LocalDate HOY = LocalDate.of(2024, 5, 10);
+    private static final long MINUTO = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void unRechazoPorStandNoGastaElCupoDelVisitante() {
+        LimitadorComentarios lim = new LimitadorComentarios(
+                new LimitadorComentarios.Configuracion(1, 1, 1, 1, false, 16));
+        lim.verificar("V1", "S1", HOY, 0);
+        // S1 sin cupo: V2 es rechazado, pero su cupo sigue intacto para otro stand
+        assertThrows(IllegalStateException.class, () -> lim.verificar("V2", "S1", HOY, 0));
+        assertDoesNotThrow(() -> lim.verificar("V2", "S2", HOY, 0));
+    }
+
+    @Test
+    void unaCalificacionRepetidaNoGastaCupo() {
+        LimitadorComentarios lim = new LimitadorComentarios(
+                new LimitadorComentarios.Configuracion(1, 2, 1, 2, true, 16));
+        lim.verificar("V1", "S1", HOY, 0);
+        assertThrows(IllegalStateException.class, () -> lim.verificar("v1", "s1", HOY, 0));
+        assertDoesNotThrow(() -> lim.verificar("V1", "S2", HOY, 0), "la ráfaga de 2 sigue disponible");
+    }
+
+    @Test
+    void cancelarDevuelveElCupoYLaCalificacionDelDia() {
+        LimitadorComentarios lim = new LimitadorComentarios(
+                new LimitadorComentarios.Configuracion(1, 1, 0, 1, true, 16));
+        lim.verificar("V1", "S1", HOY, 0);
+        lim.cancelar("V1", "S1", HOY);
+        assertDoesNotThrow(() -> lim.verificar("V1", "S1", HOY, 0));
+    }
+
+    @Test
+    void lasCubetasInactivasSeExpiranAlCrecerElMapa() {
+        LimitadorComentarios lim = new LimitadorComentarios(
+                new LimitadorComentarios.Configuracion(60, 1, 0, 1, false, 16));
+        for (int i = 0; i < 1000; i++) lim.verificar("V" + i, "S1", HOY, 0);
+        assertEquals(1000, lim.cubetasActivas());
+        // un minuto después todas se rellenaron: la clave que supera el umbral dispara la expiración
+        for (int i = 0; i < 100; i++) lim.verificar("W" + i, "S1", HOY, MINUTO);
+        assertTrue(lim.cubetasActivas() < 200, "quedaron " + lim.cubetasActivas());
+    }
+
+    @Test
+    void laFeriaDevuelveElCupoSiElComentarioNoSeRegistra() {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+        feria.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+        feria.configurarLimites(new LimitadorComentarios.Configuracion(1, 1, 1, 1, true, 16));
+
+        assertThrows(IllegalArgumentException.class, () -> feria.registrarComentario("V1", "S1", 9, "x"));
+        feria.registrarComentario("V1", "S1", 5, "Excelente");
+        assertThrows(IllegalStateException.class, () -> feria.registrarComentario("V1", "S1", 4, "Otra vez"));
+        assertEquals(1, feria.listarComentariosDeStand("S1").size());
+    }
+}
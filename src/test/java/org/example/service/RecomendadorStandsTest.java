@@ -0,0 +1,83 @@
+package org.example.service;
+
+import org.example.model.Empresa;
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecomendadorStandsTest {
+
+    /**
+     * Todos califican con 5 (peso 1): co(S1,S2) = 1, co(S1,S3) = 2, co(S1,S4) = 1 y normas S2 = 2, S3 = 2, S4 = 1,
+     * así que para quien solo visitó S1 los puntajes son S3 = √2, S4 = 1 y S2 = 1/√2.
+     */
+    private static RecomendadorStands conVisitas() {
+        RecomendadorStands r = new RecomendadorStands();
+        r.registrar("V1", "S1", 5);
+        r.registrar("V1", "S2", 5);
+        r.registrar("V2", "S1", 5);
+        r.registrar("V2", "S3", 5);
+        r.registrar("V3", "S1", 5);
+        r.registrar("V3", "S3", 5);
+        r.registrar("V3", "S4", 5);
+        r.registrar("V4", "S2", 5);
+        r.registrar("X", "S1", 5);
+        return r;
+    }
+
+    private static List<String> numeros(List<RecomendadorStands.Recomendacion> lista) {
+        return lista.stream().map(RecomendadorStands.Recomendacion::numeroStand).toList();
+    }
+
+    @Test
+    void devuelveLosNMejoresSinLosYaVisitados() {
+        RecomendadorStands r = conVisitas();
+
+        List<RecomendadorStands.Recomendacion> todas = r.recomendar("x", 10, null);
+        assertEquals(List.of("S3", "S4", "S2"), numeros(todas));
+        assertEquals(Math.sqrt(2), todas.get(0).puntaje(), 1e-5);
+        assertEquals(1, todas.get(1).puntaje(), 1e-5);
+        assertEquals(1 / Math.sqrt(2), todas.get(2).puntaje(), 1e-5);
+        assertEquals(List.of("S3", "S4"), numeros(r.recomendar("X", 2, null)));
+        assertEquals(List.of("S4", "S2"), numeros(r.recomendar("V2", 5, null)));
+    }
+
+    @Test
+    void elFiltroSeAplicaAntesDeRecortarAlTopN() {
+        RecomendadorStands r = conVisitas();
+        assertEquals(List.of("S4"), numeros(r.recomendar("X", 1, n -> !n.equals("S3"))));
+        assertEquals(List.of("S2"), numeros(r.recomendar("X", 3, "S2"::equals)));
+        assertTrue(r.recomendar("X", 3, n -> false).isEmpty());
+    }
+
+    @Test
+    void sinVisitasNoHayRecomendacionesYNDebeSerPositivo() {
+        RecomendadorStands r = conVisitas();
+        assertTrue(r.recomendar("Nadie", 3, null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> r.recomendar("X", 0, null));
+    }
+
+    @Test
+    void laFeriaFiltraPorElSectorDeLaEmpresaAsignada() {
+        FeriaEmpresarial feria = new FeriaEmpresarial();
+        feria.registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+        feria.registrarEmpresa(new Empresa("Vida", "Salud", "info@vida.co"));
+        for (int i = 1; i <= 4; i++) feria.crearStand("S" + i, "Pabellón A, Stand " + i, StandSize.MEDIANO);
+        feria.asignarStandAEmpresa("S3", "Acme");
+        feria.asignarStandAEmpresa("S4", "Vida");
+        String[][] visitas = {{"V1", "S1", "S2"}, {"V2", "S1", "S3"}, {"V3", "S1", "S3", "S4"}, {"V4", "S2"}, {"X", "S1"}};
+        for (String[] v : visitas) {
+            feria.registrarVisitante(new Visitante(v[0], "Visitante " + v[0], v[0] + "@correo.co"));
+            for (int i = 1; i < v.length; i++) feria.registrarComentario(v[0], v[i], 5, "Bien");
+        }
+
+        assertEquals(List.of("S3", "S4", "S2"), numeros(feria.recomendarStands("X", 5)));
+        assertEquals(List.of("S4"), numeros(feria.recomendarStands("X", 5, " salud ")));
+        assertEquals(List.of("S3"), numeros(feria.recomendarStands("X", 5, "TECNOLOGÍA")));
+        assertTrue(feria.recomendarStands("X", 5, "Energía").isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.service;
+
+import org.example.model.Empresa;
+import org.example.model.StandSize;
+import org.example.model.Visitante;
+import org.example.persistence.SnapshotFeria;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroFeriasTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void unaFeriaPrestadaNoSeDescargaHastaCerrarElPrestamo() {
+        RegistroFerias registro = new RegistroFerias(dir);
+        RegistroFerias.Prestamo p = registro.obtener("expo");
+        p.feria().registrarEmpresa(new Empresa("Acme", "Tecnología", "info@acme.co"));
+
+        assertFalse(registro.descargar("expo"));
+        assertEquals(List.of(), registro.desalojarInactivas(Duration.ZERO));
+        assertTrue(registro.estaCargada("expo"));
+
+        p.feria().registrarEmpresa(new Empresa("Beta", "Salud", "info@beta.co")); // sigue siendo la feria alojada
+        p.close();
+        p.close(); // cerrar dos veces no descuenta dos préstamos
+        assertEquals(0, registro.prestamosAbiertos("expo"));
+        assertThrows(IllegalStateException.class, p::feria);
+
+        assertTrue(registro.descargar("expo"));
+        assertFalse(registro.estaCargada("expo"));
+        try (RegistroFerias.Prestamo otra = registro.obtener("expo")) {
+            assertEquals(2, otra.feria().listarEmpresas().size());
+        }
+    }
+
+    @Test
+    void elPresupuestoNoDescargaFeriasEnUso() {
+        RegistroFerias registro = new RegistroFerias(dir, 1);
+        try (RegistroFerias.Prestamo a = registro.obtener("a")) {
+            a.feria().registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+            try (RegistroFerias.Prestamo b = registro.obtener("b")) {
+                b.feria().registrarVisitante(new Visitante("V2", "Luis", "luis@correo.co"));
+            }
+            assertTrue(registro.estaCargada("a"));
+            a.feria().registrarVisitante(new Visitante("V3", "Eva", "eva@correo.co"));
+        }
+        registro.usoMemoria(); // actualiza las estimaciones (al cargarse estaban vacías)
+        try (RegistroFerias.Prestamo c = registro.obtener("c")) {
+            assertFalse(registro.estaCargada("a"), "sin préstamos, la menos usada se descarga");
+            assertTrue(c.feria().listarVisitantes().isEmpty());
+        }
+        try (RegistroFerias.Prestamo a = registro.obtener("a")) {
+            assertEquals(2, a.feria().listarVisitantes().size());
+        }
+    }
+
+    @Test
+    void laEstimacionCuentaComentariosSinCrearlos() {
+        RegistroFerias registro = new RegistroFerias(dir);
+        try (RegistroFerias.Prestamo p = registro.obtener("expo")) {
+            FeriaEmpresarial f = p.feria();
+            f.crearStand("S1", "Pabellón A, Stand 1", StandSize.MEDIANO);
+            f.registrarVisitante(new Visitante("V1", "Ana", "ana@correo.co"));
+            long antes = RegistroFerias.estimarBytes(f);
+            for (int i = 0; i < 10; i++) f.registrarComentario("V1", "S1", 4, "Comentario " + i);
+            assertTrue(RegistroFerias.estimarBytes(f) - antes >= 10 * 13);
+        }
+    }
+
+    @Test
+    void descargarUnaFeriaLiberaSusCadenasDelPool() throws Exception {
+        FeriaEmpresarial origen = new FeriaEmpresarial();
+        for (int i = 0; i < 50; i++) {
+            origen.registrarEmpresa(new Empresa("Empresa única " + i, "Sector " + i, "e" + i + "@correo.co"));
+            origen.crearStand("S" + i, "Pabellón Z, Stand " + i, StandSize.PEQUENO);
+        }
+        Files.createDirectories(dir);
+        SnapshotFeria.guardar(origen, dir.resolve("expo.snap"));
+
+        RegistroFerias registro = new RegistroFerias(dir);
+        try (RegistroFerias.Prestamo p = registro.obtener("expo")) {
+            assertEquals(50, p.feria().listarEmpresas().size());
+        }
+        int cargado = registro.pool().tamano();
+        assertTrue(cargado >= 200);
+
+        assertTrue(registro.descargar("expo"));
+        for (int i = 0; i < 20 && registro.pool().tamano() > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(registro.pool().tamano() < cargado, "las cadenas de la feria descargada deben salir del pool");
+    }
+}
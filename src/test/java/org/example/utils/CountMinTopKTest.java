@@ -0,0 +1,57 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinTopKTest {
+
+    @Test
+    void nuncaSubestimaAunqueHayaColisiones() {
+        CountMinTopK sketch = new CountMinTopK(3, 64, 5); // mucho más angosto que la cantidad de elementos
+        Map<String, Long> reales = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            String e = "V" + (i * 7919 % 500);
+            sketch.agregar(e);
+            reales.merge(e, 1L, Long::sum);
+        }
+        long sobreestimados = 0;
+        for (Map.Entry<String, Long> e : reales.entrySet()) {
+            long estimado = sketch.estimar(e.getKey());
+            assertTrue(estimado >= e.getValue(), e.getKey() + ": " + estimado + " < " + e.getValue());
+            if (estimado > e.getValue()) sobreestimados++;
+        }
+        assertTrue(sobreestimados > 0, "el ancho elegido debería provocar colisiones");
+    }
+
+    @Test
+    void encuentraLosMasFrecuentesEntreMuchosPocoFrecuentes() {
+        CountMinTopK sketch = new CountMinTopK(4, 4096, 10);
+        for (int ronda = 0; ronda < 200; ronda++) {
+            for (int i = 0; i < 50; i++) sketch.agregar("raro-" + ronda + "-" + i);
+            for (int j = 0; j < 3; j++) sketch.agregar("Ana");
+            for (int j = 0; j < 2; j++) sketch.agregar("luis");
+            sketch.agregar("Eva");
+        }
+
+        List<Map.Entry<String, Long>> top = sketch.masFrecuentes(3);
+        assertEquals(List.of("ana", "luis", "eva"), top.stream().map(Map.Entry::getKey).toList());
+        // cota del count-min: real ≤ estimado ≤ real + (e / ancho) · total agregado
+        double margen = Math.E / 4096 * 200 * 56;
+        assertEquals(600, top.get(0).getValue(), margen);
+        assertTrue(top.get(0).getValue() >= 600);
+        assertEquals(top.get(0).getValue(), sketch.estimar("ANA")); // sin distinguir mayúsculas
+        assertEquals(10, sketch.masFrecuentes(50).size());
+    }
+
+    @Test
+    void rechazaParametrosNoPositivos() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinTopK(0, 16, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinTopK(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinTopK(1, 16, 0));
+    }
+}
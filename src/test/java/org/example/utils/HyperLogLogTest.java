@@ -0,0 +1,48 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog con(int p, int desde, int hasta) {
+        HyperLogLog h = new HyperLogLog(p);
+        for (int i = desde; i < hasta; i++) h.agregar(HyperLogLog.hash("visitante-" + i));
+        return h;
+    }
+
+    @Test
+    void elErrorQuedaDentroDeTresErroresTipicos() {
+        for (int p : new int[] {10, 12}) {
+            double cota = 3 * 1.04 / Math.sqrt(1 << p);
+            for (int n : new int[] {100, 1_000, 10_000, 100_000, 1_000_000}) {
+                long estimado = con(p, 0, n).estimar();
+                double error = Math.abs(estimado - n) / (double) n;
+                assertTrue(error <= cota, "p=" + p + ", n=" + n + ": estimó " + estimado + " (error " + error + ")");
+            }
+        }
+    }
+
+    @Test
+    void losRepetidosYLasMayusculasNoCuentanDosVeces() {
+        HyperLogLog h = con(10, 0, 500);
+        for (int i = 0; i < 500; i++) h.agregar(HyperLogLog.hash("VISITANTE-" + i));
+        assertEquals(con(10, 0, 500).estimar(), h.estimar());
+        assertEquals(0, new HyperLogLog(10).estimar());
+    }
+
+    @Test
+    void combinarEstimaLaUnion() {
+        HyperLogLog a = con(12, 0, 60_000);
+        a.combinar(con(12, 40_000, 100_000));
+        assertEquals(100_000, a.estimar(), 100_000 * 3 * 1.04 / 64);
+        assertThrows(IllegalArgumentException.class, () -> a.combinar(new HyperLogLog(10)));
+    }
+
+    @Test
+    void rechazaPrecisionesFueraDeRango() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+    }
+}